@@ -37,13 +37,33 @@ api.interceptors.request.use(
   }
 );
 
+// One refresh at a time: concurrent 401s wait for the same request instead of each
+// spending the refresh token (a second use would be treated as token theft)
+let refreshPromise = null;
+
+const refreshAccessToken = () => {
+  if (!refreshPromise) {
+    const { refreshToken } = useAuthStore.getState();
+    refreshPromise = axios
+      .post(`${API_BASE_URL}/auth/refresh`, { refreshToken })
+      .then((response) => {
+        useAuthStore.getState().setTokens(response.data.token, response.data.refreshToken);
+        return response.data.token;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
 // Response interceptor - handle auth errors intelligently
 api.interceptors.response.use(
   (response) => {
     // console.log('🔥 API - Success:', response.config.url, response.status); // Reduced verbosity
     return response;
   },
-  (error) => {
+  async (error) => {
     const status = error.response?.status;
     const url = error.config?.url;
     
@@ -67,6 +87,19 @@ api.interceptors.response.use(
         console.log('🔥 API - 401 on auth endpoint, not clearing session');
         return Promise.reject(error);
       }
+
+      // Access tokens are short-lived: try a refresh and replay the request once
+      const originalRequest = error.config;
+      if (useAuthStore.getState().refreshToken && originalRequest && !originalRequest._retry) {
+        originalRequest._retry = true;
+        try {
+          const newToken = await refreshAccessToken();
+          originalRequest.headers.Authorization = `Bearer ${newToken}`;
+          return api(originalRequest);
+        } catch (refreshError) {
+          console.warn('🔥 API - Token refresh failed:', refreshError.response?.status);
+        }
+      }
       
       // Check if this is a missing endpoint (likely server-side implementation missing)
       const possiblyMissingEndpoints = ['/budgets'];
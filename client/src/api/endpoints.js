@@ -18,6 +18,33 @@ export const authAPI = {
     const response = await api.get('/auth/validate');
     return response.data;
   },
+
+  // Exchange a refresh token for a new access/refresh token pair
+  refresh: async (refreshToken) => {
+    const response = await api.post('/auth/refresh', { refreshToken });
+    return response.data;
+  },
+
+  // Revoke the access token and its refresh token (passed explicitly, the store is cleared right after)
+  logout: async (refreshToken, accessToken) => {
+    const headers = accessToken ? { Authorization: `Bearer ${accessToken}` } : {};
+    const response = await api.post('/auth/logout', refreshToken ? { refreshToken } : {}, { headers });
+    return response.data;
+  },
+
+  // Revoke every session of the current user
+  logoutAll: async () => {
+    const response = await api.post('/auth/logout-all');
+    return response.data;
+  },
+};
+
+export const bootstrapAPI = {
+  // Get everything the initial screen needs in one request
+  get: async (recentLimit = 5) => {
+    const response = await api.get(`/bootstrap?recentLimit=${recentLimit}`);
+    return response.data;
+  },
 };
 
 export const dashboardAPI = {
@@ -41,9 +68,18 @@ export const dashboardAPI = {
 };
 
 export const transactionAPI = {
-  // Get all transactions
-  getAll: async (page = 0, size = 20) => {
-    const response = await api.get(`/transactions?page=${page}&size=${size}`);
+  // Get all transactions, optionally only those with any (or all) of the given tags, and
+  // optionally only the listed response fields
+  getAll: async (page = 0, size = 20, { tags, tagMode, fields } = {}) => {
+    const params = { page, size };
+    if (tags && tags.length > 0) {
+      params.tags = tags.join(',');
+      params.tagMode = tagMode || 'any';
+    }
+    if (fields && fields.length > 0) {
+      params.fields = fields.join(',');
+    }
+    const response = await api.get('/transactions', { params });
     return response.data;
   },
 
@@ -70,6 +106,53 @@ export const transactionAPI = {
     const response = await api.delete(`/transactions/${id}`);
     return response.data;
   },
+
+  // Past descriptions starting with the prefix, with their usual category and account
+  suggest: async (prefix, limit = 8) => {
+    const response = await api.get('/transactions/suggest', { params: { prefix, limit } });
+    return response.data;
+  },
+
+  // Ranked full-text search over description, notes and tags; tolerates prefixes and typos
+  search: async (q, limit = 20) => {
+    const response = await api.get('/transactions/search', { params: { q, limit } });
+    return response.data;
+  },
+
+  // Combined filter over the whole history, newest first; pass nextCursor back as cursor for
+  // the next page. List criteria (types, categoryIds, accountIds, fields) accept arrays
+  filter: async ({ types, categoryIds, accountIds, fields, ...criteria } = {}) => {
+    const params = { ...criteria };
+    [['types', types], ['categoryIds', categoryIds], ['accountIds', accountIds], ['fields', fields]].forEach(([name, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        params[name] = Array.isArray(value) ? value.join(',') : value;
+      }
+    });
+    const response = await api.get('/transactions/filter', { params });
+    return response.data;
+  },
+
+  // Attach a receipt (JPEG, PNG or PDF, up to 10MB)
+  uploadReceipt: async (id, file) => {
+    const formData = new FormData();
+    formData.append('file', file);
+    const response = await api.post(`/transactions/${id}/receipt`, formData, {
+      headers: { 'Content-Type': 'multipart/form-data' },
+    });
+    return response.data;
+  },
+
+  // Detach the receipt
+  removeReceipt: async (id) => {
+    const response = await api.delete(`/transactions/${id}/receipt`);
+    return response.data;
+  },
+
+  // Receipt or thumbnail as a Blob, from a receiptUrl/thumbnailUrl returned by the API
+  getReceipt: async (url) => {
+    const response = await api.get(url.replace(/^\/api/, ''), { responseType: 'blob' });
+    return response.data;
+  },
 };
 
 export const categoriesAPI = {
@@ -99,9 +182,10 @@ export const categoriesAPI = {
 };
 
 export const budgetsAPI = {
-  // Get all budgets
-  getAll: async () => {
-    const response = await api.get('/budgets');
+  // Get all budgets; listing fields skips the rest, e.g. the spent total when it isn't shown
+  getAll: async (fields) => {
+    const params = fields && fields.length > 0 ? { fields: fields.join(',') } : undefined;
+    const response = await api.get('/budgets', { params });
     return response.data;
   },
 
@@ -150,6 +234,52 @@ export const accountsAPI = {
   },
 };
 
+export const rulesAPI = {
+  // Get all categorization rules
+  getAll: async () => {
+    const response = await api.get('/rules');
+    return response.data;
+  },
+
+  // Create rule
+  create: async (ruleData) => {
+    const response = await api.post('/rules', ruleData);
+    return response.data;
+  },
+
+  // Update rule
+  update: async (id, ruleData) => {
+    const response = await api.put(`/rules/${id}`, ruleData);
+    return response.data;
+  },
+
+  // Delete rule
+  delete: async (id) => {
+    const response = await api.delete(`/rules/${id}`);
+    return response.data;
+  },
+
+  // Re-categorize existing transactions with the current rules
+  apply: async () => {
+    const response = await api.post('/rules/apply');
+    return response.data;
+  },
+};
+
+export const tagsAPI = {
+  // Tags in use, with the number of transactions carrying each
+  getAll: async () => {
+    const response = await api.get('/tags');
+    return response.data;
+  },
+
+  // Total per tag for a type and an optional date range
+  getSpend: async (type = 'expense', startDate, endDate) => {
+    const response = await api.get('/tags/spend', { params: { type, startDate, endDate } });
+    return response.data;
+  },
+};
+
 export const healthAPI = {
   // Check API health
   checkHealth: async () => {
@@ -166,6 +296,8 @@ const api_endpoints = {
   categories: categoriesAPI,
   budgets: budgetsAPI,
   accounts: accountsAPI,
+  rules: rulesAPI,
+  tags: tagsAPI,
   health: healthAPI,
 };
 
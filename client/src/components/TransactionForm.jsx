@@ -8,6 +8,7 @@ import Button from './UI/Button';
 import Input from './UI/Input';
 import { useTransactionStore } from '../store/useTransactionStore';
 import { useAccountStore } from '../store/useAccountStore';
+import { transactionAPI } from '../api/endpoints';
 import { formatCurrency } from '../utils/currency';
 import { showSuccess, showError } from '../utils/notifications';
 
@@ -17,6 +18,7 @@ const TransactionForm = ({ isOpen, onClose, transaction = null }) => {
   const [selectedCategory, setSelectedCategory] = useState(null);
   const [selectedAccount, setSelectedAccount] = useState(null);
   const [transactionType, setTransactionType] = useState('expense');
+  const [suggestions, setSuggestions] = useState([]);
   
   const {
     register,
@@ -34,10 +36,66 @@ const TransactionForm = ({ isOpen, onClose, transaction = null }) => {
       categoryId: '',
       accountId: '',
       notes: '',
+      tags: '',
     },
   });
 
   const watchedType = watch('type');
+  const watchedDescription = watch('description');
+
+  // Autocomplete descriptions from the user's history, debounced while typing
+  React.useEffect(() => {
+    const prefix = (watchedDescription || '').trim();
+    if (!isOpen || prefix.length < 2) {
+      setSuggestions([]);
+      return undefined;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const response = await transactionAPI.suggest(prefix);
+        if (!cancelled) {
+          setSuggestions(response.data || []);
+        }
+      } catch (error) {
+        // Suggestions are optional; typing carries on without them
+      }
+    }, 150);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [watchedDescription, isOpen]);
+
+  // Picking a suggestion fills in its usual category and account, unless already chosen
+  React.useEffect(() => {
+    const description = (watchedDescription || '').trim().toLowerCase();
+    const match = suggestions.find(s => s.description.toLowerCase() === description);
+    if (!match || transaction) {
+      return;
+    }
+    if (!selectedCategory && match.categoryId) {
+      const category = categories.find(c => c.id === match.categoryId && c.type === transactionType);
+      if (category) {
+        setSelectedCategory({
+          value: category.id,
+          label: category.name,
+          color: category.color,
+          icon: category.icon,
+        });
+      }
+    }
+    if (!selectedAccount && match.accountId) {
+      const account = accounts.find(a => a.id === match.accountId && a.isActive !== false);
+      if (account) {
+        setSelectedAccount({
+          value: account.id,
+          label: `${account.name} (${formatCurrency(account.balance, account.currency || 'INR')})`,
+          type: account.type,
+        });
+      }
+    }
+  }, [watchedDescription, suggestions, transaction, selectedCategory, selectedAccount, categories, accounts, transactionType]);
 
   // Fetch categories and accounts when form opens
   React.useEffect(() => {
@@ -64,6 +122,7 @@ const TransactionForm = ({ isOpen, onClose, transaction = null }) => {
         categoryId: transaction.categoryId || '',
         accountId: transaction.accountId || '',
         notes: transaction.notes || '',
+        tags: (transaction.tags || []).join(', '),
       });
       
       setTransactionType(transaction.type || 'expense');
@@ -97,6 +156,7 @@ const TransactionForm = ({ isOpen, onClose, transaction = null }) => {
         categoryId: '',
         accountId: '',
         notes: '',
+        tags: '',
       });
       setTransactionType('expense');
       setSelectedCategory(null);
@@ -123,7 +183,8 @@ const TransactionForm = ({ isOpen, onClose, transaction = null }) => {
 
   const onSubmit = async (data) => {
     try {
-      if (!selectedCategory) {
+      // New transactions may leave the category to the user's categorization rules
+      if (!selectedCategory && transaction) {
         showError('Please select a category');
         return;
       }
@@ -137,10 +198,11 @@ const TransactionForm = ({ isOpen, onClose, transaction = null }) => {
         description: data.description,
         amount: parseFloat(data.amount),
         type: data.type,
-        categoryId: selectedCategory.value,
+        categoryId: selectedCategory ? selectedCategory.value : null,
         accountId: selectedAccount.value,
         transactionDate: data.transactionDate,
         notes: data.notes || null,
+        tags: (data.tags || '').split(',').map(tag => tag.trim()).filter(Boolean),
       };
 
       console.log('📤 Sending transaction data:', transactionData);
@@ -165,6 +227,7 @@ const TransactionForm = ({ isOpen, onClose, transaction = null }) => {
 
   const handleClose = () => {
     reset();
+    setSuggestions([]);
     setSelectedCategory(null);
     setSelectedAccount(null);
     setTransactionType('expense');
@@ -258,14 +321,15 @@ const TransactionForm = ({ isOpen, onClose, transaction = null }) => {
         {/* Category */}
         <div>
           <label className="block text-sm font-medium text-gray-700 dark:text-gray-300 mb-2">
-            Category *
+            Category {transaction && '*'}
           </label>
           <Select
             value={selectedCategory}
             onChange={setSelectedCategory}
             options={filteredCategories}
             styles={customSelectStyles}
-            placeholder="Select a category"
+            placeholder={transaction ? 'Select a category' : 'Select a category, or leave it to your rules'}
+            isClearable={!transaction}
             formatOptionLabel={(option) => (
               <div className="flex items-center">
                 <span className="mr-2">{option.icon}</span>
@@ -303,11 +367,18 @@ const TransactionForm = ({ isOpen, onClose, transaction = null }) => {
           label="Description"
           placeholder="Enter transaction description"
           required
+          list="description-suggestions"
+          autoComplete="off"
           {...register('description', {
             required: 'Description is required',
           })}
           error={errors.description?.message}
         />
+        <datalist id="description-suggestions">
+          {suggestions.map(s => (
+            <option key={s.description} value={s.description} />
+          ))}
+        </datalist>
 
         {/* Date */}
         <Input
@@ -328,6 +399,14 @@ const TransactionForm = ({ isOpen, onClose, transaction = null }) => {
           helper="Optional: Add notes for more details"
         />
 
+        {/* Tags */}
+        <Input
+          label="Tags"
+          placeholder="e.g. work, travel"
+          {...register('tags')}
+          helper="Optional: comma separated"
+        />
+
         {/* Form Actions */}
         <div className="flex justify-end space-x-3 pt-4 border-t border-gray-200 dark:border-gray-700">
           <Button
@@ -3,6 +3,7 @@ import { PlusCircle, ArrowUp, ArrowDown, Filter, Search, Edit2, Trash2 } from 'l
 
 import { useTransactionStore } from '../store/useTransactionStore';
 import { useAccountStore } from '../store/useAccountStore';
+import { transactionAPI } from '../api/endpoints';
 import { formatINR } from '../utils/currency';
 import { formatRelativeDate } from '../utils/dateUtils';
 import { showSuccess, showError } from '../utils/notifications';
@@ -96,9 +97,78 @@ const TransactionsPage = () => {
   const [searchTerm, setSearchTerm] = useState('');
   const [showFilters, setShowFilters] = useState(false);
 
-  const filteredTransactions = getFilteredTransactions().filter(transaction =>
-    (transaction.description || '').toLowerCase().includes(searchTerm.toLowerCase())
-  );
+  const [searchResults, setSearchResults] = useState(null);
+  const [resultPage, setResultPage] = useState({ nextCursor: null, totalCount: null, totalExact: false });
+
+  const hasFilters = Boolean(filters.startDate || filters.endDate || filters.type || filters.category || filters.account);
+
+  const filterParams = (q) => ({
+    startDate: filters.startDate || undefined,
+    endDate: filters.endDate || undefined,
+    types: filters.type || undefined,
+    categoryIds: filters.category || undefined,
+    accountIds: filters.account || undefined,
+    q: q.length >= 2 ? q : undefined,
+  });
+
+  // Filters run on the server over the whole history; a search term alone gets ranked search.
+  // Debounced while typing; the loaded page is filtered locally until results arrive or if
+  // the request fails
+  React.useEffect(() => {
+    const q = searchTerm.trim();
+    if (!hasFilters && q.length < 2) {
+      setSearchResults(null);
+      return undefined;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        if (hasFilters) {
+          const response = await transactionAPI.filter(filterParams(q));
+          if (!cancelled) {
+            const page = response.data || {};
+            setSearchResults(page.transactions || []);
+            setResultPage({ nextCursor: page.nextCursor, totalCount: page.totalCount, totalExact: page.totalExact });
+          }
+        } else {
+          const response = await transactionAPI.search(q, 50);
+          if (!cancelled) {
+            setSearchResults(response.data || []);
+            setResultPage({ nextCursor: null, totalCount: null, totalExact: false });
+          }
+        }
+      } catch (error) {
+        if (!cancelled) {
+          setSearchResults(null);
+        }
+      }
+    }, 200);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [searchTerm, filters, transactions]);
+
+  const loadMore = async () => {
+    try {
+      const response = await transactionAPI.filter({ ...filterParams(searchTerm.trim()), cursor: resultPage.nextCursor, count: 'none' });
+      const page = response.data || {};
+      setSearchResults((current) => [...(current || []), ...(page.transactions || [])]);
+      setResultPage((current) => ({ ...current, nextCursor: page.nextCursor }));
+    } catch (error) {
+      showError('Failed to load more transactions');
+    }
+  };
+
+  const filteredTransactions = searchResults !== null
+    ? searchResults
+    : getFilteredTransactions().filter(transaction =>
+        (transaction.description || '').toLowerCase().includes(searchTerm.toLowerCase())
+      );
+
+  const foundCount = resultPage.totalCount != null && searchResults !== null
+    ? `${resultPage.totalExact ? '' : '~'}${resultPage.totalCount}`
+    : filteredTransactions.length;
 
   const handleEdit = (transaction) => {
     setEditingTransaction(transaction);
@@ -129,7 +199,7 @@ const TransactionsPage = () => {
     <div className="space-y-6">
       <Card
         title="All Transactions"
-        subtitle={`${filteredTransactions.length} transactions found`}
+        subtitle={`${foundCount} transactions found`}
         actions={
           <Button
             onClick={() => setIsFormOpen(true)}
@@ -218,6 +288,13 @@ const TransactionsPage = () => {
                 />
               ))
             }
+            {searchResults !== null && resultPage.nextCursor && (
+              <div className="flex justify-center py-4">
+                <Button variant="outline" onClick={loadMore}>
+                  Load more
+                </Button>
+              </div>
+            )}
           </div>
         )}
       </Card>
@@ -5,12 +5,16 @@ import { toast } from 'react-toastify';
 // Consistent localStorage keys (matching axios interceptor)
 const AUTH_TOKEN_KEY = 'authToken';
 const USER_DATA_KEY = 'user';
+const REFRESH_TOKEN_KEY = 'refreshToken';
 
 // Helper functions for localStorage management
-const saveAuthData = (token, userData) => {
+const saveAuthData = (token, userData, refreshToken) => {
   try {
     localStorage.setItem(AUTH_TOKEN_KEY, token);
     localStorage.setItem(USER_DATA_KEY, JSON.stringify(userData));
+    if (refreshToken) {
+      localStorage.setItem(REFRESH_TOKEN_KEY, refreshToken);
+    }
     return true;
   } catch (error) {
     console.error('Failed to save auth data:', error);
@@ -22,10 +26,11 @@ const loadAuthData = () => {
   try {
     const token = localStorage.getItem(AUTH_TOKEN_KEY);
     const userDataStr = localStorage.getItem(USER_DATA_KEY);
+    const refreshToken = localStorage.getItem(REFRESH_TOKEN_KEY);
     
     if (token && userDataStr) {
       const userData = JSON.parse(userDataStr);
-      return { token, userData };
+      return { token, userData, refreshToken };
     }
     
     return null;
@@ -39,6 +44,7 @@ const clearAuthData = () => {
   try {
     localStorage.removeItem(AUTH_TOKEN_KEY);
     localStorage.removeItem(USER_DATA_KEY);
+    localStorage.removeItem(REFRESH_TOKEN_KEY);
     return true;
   } catch (error) {
     console.error('Failed to clear auth data:', error);
@@ -51,6 +57,7 @@ export const useAuthStore = create((set, get) => ({
   // State
   user: null,
   token: null,
+  refreshToken: null,
   isAuthenticated: false,
   isLoading: false,
 
@@ -68,6 +75,7 @@ export const useAuthStore = create((set, get) => ({
         set({
           user: authData.userData,
           token: authData.token,
+          refreshToken: authData.refreshToken,
           isAuthenticated: true,
           isLoading: false
         });
@@ -83,6 +91,7 @@ export const useAuthStore = create((set, get) => ({
         set({
           user: null,
           token: null,
+          refreshToken: null,
           isAuthenticated: false,
           isLoading: false
         });
@@ -98,6 +107,7 @@ export const useAuthStore = create((set, get) => ({
       set({
         user: null,
         token: null,
+        refreshToken: null,
         isAuthenticated: false,
         isLoading: false
       });
@@ -130,7 +140,8 @@ export const useAuthStore = create((set, get) => ({
       };
 
       // Save to localStorage FIRST
-      const saved = saveAuthData(token, userData);
+      const refreshToken = response.refreshToken;
+      const saved = saveAuthData(token, userData, refreshToken);
       if (!saved) {
         throw new Error('Failed to save authentication data');
       }
@@ -139,6 +150,7 @@ export const useAuthStore = create((set, get) => ({
       set({
         user: userData,
         token,
+        refreshToken,
         isAuthenticated: true,
         isLoading: false
       });
@@ -163,7 +175,8 @@ export const useAuthStore = create((set, get) => ({
         isLoading: false, 
         isAuthenticated: false,
         user: null,
-        token: null 
+        token: null,
+        refreshToken: null
       });
       
       const message = error.response?.data?.message || error.message || 'Login failed';
@@ -197,7 +210,8 @@ export const useAuthStore = create((set, get) => ({
       };
 
       // Save to localStorage
-      const saved = saveAuthData(token, userInfo);
+      const refreshToken = response.refreshToken;
+      const saved = saveAuthData(token, userInfo, refreshToken);
       if (!saved) {
         throw new Error('Failed to save authentication data');
       }
@@ -206,6 +220,7 @@ export const useAuthStore = create((set, get) => ({
       set({
         user: userInfo,
         token,
+        refreshToken,
         isAuthenticated: true,
         isLoading: false
       });
@@ -221,7 +236,8 @@ export const useAuthStore = create((set, get) => ({
         isLoading: false, 
         isAuthenticated: false,
         user: null,
-        token: null 
+        token: null,
+        refreshToken: null
       });
       
       const message = error.response?.data?.message || error.message || 'Registration failed';
@@ -231,9 +247,21 @@ export const useAuthStore = create((set, get) => ({
     }
   },
 
+  // Store a refreshed token pair (called by the axios interceptor)
+  setTokens: (token, refreshToken) => {
+    saveAuthData(token, get().user, refreshToken);
+    set({ token, refreshToken });
+  },
+
   // Logout function
   logout: () => {
     console.log('🚪 Logging out...');
+
+    // Revoke the session server-side; local state is cleared regardless of the outcome
+    const { token, refreshToken } = get();
+    if (token || refreshToken) {
+      authAPI.logout(refreshToken, token).catch(() => {});
+    }
     
     // Clear localStorage
     clearAuthData();
@@ -242,6 +270,7 @@ export const useAuthStore = create((set, get) => ({
     set({
       user: null,
       token: null,
+      refreshToken: null,
       isAuthenticated: false,
       isLoading: false
     });
@@ -0,0 +1,48 @@
+#!/bin/bash
+# Measures the capacity of the server with platform threads and with virtual threads:
+# the highest throughput each mode sustains while the overall p99 stays under P99_MS.
+#
+# Usage: ./compare-threading.sh [rates...]
+# Env:   SERVER_JAR, PROFILES (database profile, default "inmemory,datagen"), P99_MS, DURATION
+# The server also runs with the loadtest profile, which lifts the per-IP login limit.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+SERVER_JAR=${SERVER_JAR:-../server/target/expense-tracker-server-1.0.0.jar}
+LOADTEST_JAR=${LOADTEST_JAR:-target/expense-tracker-loadtest-1.0.0.jar}
+PROFILES=${PROFILES:-inmemory,datagen}
+P99_MS=${P99_MS:-250}
+DURATION=${DURATION:-60}
+RATES=("$@")
+if [ ${#RATES[@]} -eq 0 ]; then
+  RATES=(50 100 200 400 800)
+fi
+OUT=${OUT:-results/threading-$(date +%Y%m%d-%H%M%S)}
+mkdir -p "$OUT"
+
+run_mode() {
+  local mode=$1 extra_profile=$2
+  local profiles=$PROFILES,loadtest
+  [ -n "$extra_profile" ] && profiles="$profiles,$extra_profile"
+
+  java -jar "$SERVER_JAR" --spring.profiles.active="$profiles" --datagen.end-date=2025-01-01 \
+    > "$OUT/server-$mode.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" RETURN
+
+  until curl -sf http://localhost:8080/api/health > /dev/null; do sleep 2; done
+
+  local reports=()
+  for rate in "${RATES[@]}"; do
+    java -jar "$LOADTEST_JAR" --rate="$rate" --duration="$DURATION" --warmup=15 \
+      --label="$mode-$rate" --output="$OUT/$mode-$rate.json"
+    reports+=("$OUT/$mode-$rate.json")
+  done
+  java -jar "$LOADTEST_JAR" capacity "$P99_MS" "${reports[@]}" > "$OUT/capacity-$mode.json"
+}
+
+run_mode platform ""
+run_mode virtual virtual
+
+echo "Platform threads:"; cat "$OUT/capacity-platform.json"
+echo "Virtual threads:";  cat "$OUT/capacity-virtual.json"
@@ -0,0 +1,73 @@
+#!/bin/bash
+# Measures time-to-ready of the server in three modes:
+#   default    the plain fat jar
+#   faststart  the fat jar with the faststart profile (lazy beans, deferred JPA, background schema check)
+#   cds        faststart, run unpacked with a class data sharing archive from a training run
+# Time-to-ready is from process launch until /actuator/health/readiness answers 200.
+#
+# Usage: ./measure-startup.sh [modes...]
+# Env:   SERVER_JAR, PROFILES (database profile with an existing schema, default "mysql"), RUNS
+set -euo pipefail
+
+cd "$(dirname "$0")"
+SERVER_JAR=${SERVER_JAR:-../server/target/expense-tracker-server-1.0.0.jar}
+PROFILES=${PROFILES:-mysql}
+RUNS=${RUNS:-5}
+MODES=("$@")
+if [ ${#MODES[@]} -eq 0 ]; then
+  MODES=(default faststart cds)
+fi
+OUT=${OUT:-results/startup-$(date +%Y%m%d-%H%M%S)}
+mkdir -p "$OUT"
+
+now_ms() { date +%s%3N; }
+
+# Same layout as the Docker image: application classes and libraries as plain jars
+prepare_cds() {
+  local dir=$OUT/cds jar
+  jar=$(realpath "$SERVER_JAR")
+  rm -rf "$dir" && mkdir -p "$dir/extracted" "$dir/lib"
+  (cd "$dir/extracted" && jar -xf "$jar")
+  cp "$dir"/extracted/BOOT-INF/lib/*.jar "$dir/lib/"
+  jar --create --file "$dir/application.jar" -C "$dir/extracted/BOOT-INF/classes" .
+  (cd "$dir" && printf -- '-cp application.jar:%s\n' "$(ls lib/*.jar | sort | paste -sd: -)" > classpath.args)
+  (cd "$dir" && java -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh \
+    -Dspring.profiles.active=inmemory -Djournal.dir=training/journal -Darchive.dir=training/archive \
+    @classpath.args com.expensetracker.ExpenseTrackerApplication > training.log 2>&1)
+}
+
+start_server() {
+  local mode=$1 log=$2
+  case $mode in
+    default)
+      java -jar "$SERVER_JAR" --spring.profiles.active="$PROFILES" > "$log" 2>&1 & ;;
+    faststart)
+      java -jar "$SERVER_JAR" --spring.profiles.active="$PROFILES,faststart" > "$log" 2>&1 & ;;
+    cds)
+      (cd "$OUT/cds" && exec java -XX:SharedArchiveFile=app.jsa -Xshare:auto @classpath.args \
+        com.expensetracker.ExpenseTrackerApplication --spring.profiles.active="$PROFILES,faststart") > "$log" 2>&1 & ;;
+    *)
+      echo "Unknown mode: $mode" >&2; exit 1 ;;
+  esac
+  SERVER_PID=$!
+}
+
+for mode in "${MODES[@]}"; do
+  [ "$mode" = cds ] && prepare_cds
+  for run in $(seq 1 "$RUNS"); do
+    log="$OUT/$mode-$run.log"
+    start=$(now_ms)
+    start_server "$mode" "$log"
+    until curl -sf http://localhost:8080/actuator/health/readiness > /dev/null; do
+      kill -0 "$SERVER_PID" 2>/dev/null || { echo "Server exited, see $log" >&2; exit 1; }
+      sleep 0.05
+    done
+    echo "$(( $(now_ms) - start ))" >> "$OUT/$mode.ms"
+    kill "$SERVER_PID"; wait "$SERVER_PID" 2>/dev/null || true
+  done
+done
+
+for mode in "${MODES[@]}"; do
+  median=$(sort -n "$OUT/$mode.ms" | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+  printf '%-10s median %6s ms  (runs: %s)\n' "$mode" "$median" "$(paste -sd' ' "$OUT/$mode.ms")"
+done | tee "$OUT/summary.txt"
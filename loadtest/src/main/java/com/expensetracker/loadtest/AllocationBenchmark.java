@@ -0,0 +1,110 @@
+package com.expensetracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares server allocation per row of the collected transaction list
+ * ({@code GET /api/transactions}, measured by {@code http.server.requests.allocation}) with the
+ * streamed one ({@code GET /api/transactions/stream}, measured by
+ * {@code transactions.stream.allocation}), for the same number of rows, one request at a time.
+ *
+ * <pre>
+ *   java -jar expense-tracker-loadtest.jar allocation 2000 50 --emails=datagen-user0@example.com --output=allocation.json
+ * </pre>
+ */
+public class AllocationBenchmark {
+
+    private final LoadTestConfig config;
+    private final int rows;
+    private final int iterations;
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public AllocationBenchmark(LoadTestConfig config, int rows, int iterations) {
+        this.config = config;
+        this.rows = rows;
+        this.iterations = iterations;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(config.getRequestTimeout())
+                .build();
+    }
+
+    public void run() throws IOException, InterruptedException {
+        Session session = Session.open(client, mapper, config.getBaseUrl(), config.getEmails().get(0),
+                config.getPassword());
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("collected", measure(session, "/api/transactions?page=0&size=" + rows,
+                "http.server.requests.allocation", "uri:/api/transactions"));
+        results.put("streamed", measure(session, "/api/transactions/stream?limit=" + rows,
+                "transactions.stream.allocation", null));
+        results.put("streamedNarrow", measure(session,
+                "/api/transactions/stream?limit=" + rows + "&fields=id,amount,transactionDate",
+                "transactions.stream.allocation", null));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", config.getLabel());
+        report.put("baseUrl", config.getBaseUrl());
+        report.put("rows", rows);
+        report.put("iterations", iterations);
+        report.put("results", results);
+        Report.write(report, config.getOutput());
+        System.out.println("Report written to " + config.getOutput());
+    }
+
+    private Map<String, Object> measure(Session session, String endpoint, String metric, String tag)
+            throws IOException, InterruptedException {
+        for (int i = 0; i < Math.max(1, iterations / 5); i++) {
+            fetch(session, endpoint);
+        }
+
+        Histogram latency = new Histogram(3_600_000_000L, 3);
+        long rowsReturned = 0;
+        long bytes = 0;
+        double[] before = ServerMetrics.totals(client, mapper, config.getBaseUrl(), session, metric, tag);
+        for (int i = 0; i < iterations; i++) {
+            long sent = System.nanoTime();
+            byte[] body = fetch(session, endpoint);
+            latency.recordValue((System.nanoTime() - sent) / 1000);
+            JsonNode data = mapper.readTree(body).path("data");
+            rowsReturned += data.size();
+            bytes = body.length;
+        }
+        double[] after = ServerMetrics.totals(client, mapper, config.getBaseUrl(), session, metric, tag);
+
+        double allocated = after[1] - before[1];
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rowsPerResponse", iterations > 0 ? rowsReturned / iterations : 0);
+        result.put("bytes", bytes);
+        result.put("latencyP50Ms", latency.getValueAtPercentile(50.0) / 1000.0);
+        result.put("latencyP99Ms", latency.getValueAtPercentile(99.0) / 1000.0);
+        result.put("allocatedPerResponse", after[0] > before[0] ? allocated / (after[0] - before[0]) : null);
+        result.put("allocatedPerRow", rowsReturned > 0 && after[0] > before[0] ? allocated / rowsReturned : null);
+        System.out.printf("%-70s %6d rows  p50 %8.2f ms  %s bytes allocated/row%n", endpoint,
+                result.get("rowsPerResponse"), result.get("latencyP50Ms"), result.get("allocatedPerRow"));
+        return result;
+    }
+
+    private byte[] fetch(Session session, String endpoint) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(config.getBaseUrl() + endpoint))
+                .header("Authorization", "Bearer " + session.getToken())
+                .timeout(config.getRequestTimeout())
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException(endpoint + ": HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,166 @@
+package com.expensetracker.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fetches the same listings as JSON, CBOR and dictionary-encoded CBOR, one request at a time,
+ * and compares payload size, latency, client decode time and the server's serialization time
+ * and CPU (read back from {@code /actuator/metrics/http.response.encode*}).
+ *
+ * <pre>
+ *   java -jar expense-tracker-loadtest.jar encoding 200 --emails=datagen-user0@example.com --output=encoding.json
+ * </pre>
+ */
+public class EncodingBenchmark {
+
+    private static final String[] ENDPOINTS = {
+            "/api/transactions/filter?limit=200",
+            "/api/transactions?page=0&size=100",
+            "/api/budgets",
+            "/api/bootstrap"
+    };
+
+    private enum Format {
+        JSON("json", "application/json"),
+        CBOR("cbor", "application/cbor"),
+        DICT_CBOR("dict-cbor", "application/vnd.expensetracker.dict+cbor");
+
+        private final String tag;
+        private final String mediaType;
+
+        Format(String tag, String mediaType) {
+            this.tag = tag;
+            this.mediaType = mediaType;
+        }
+    }
+
+    private final LoadTestConfig config;
+    private final int iterations;
+    private final HttpClient client;
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+
+    public EncodingBenchmark(LoadTestConfig config, int iterations) {
+        this.config = config;
+        this.iterations = iterations;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(config.getRequestTimeout())
+                .build();
+    }
+
+    public void run() throws IOException, InterruptedException {
+        Session session = Session.open(client, json, config.getBaseUrl(), config.getEmails().get(0),
+                config.getPassword());
+        int warmup = Math.max(1, iterations / 5);
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (String endpoint : ENDPOINTS) {
+            Map<String, Object> formats = new LinkedHashMap<>();
+            for (Format format : Format.values()) {
+                for (int i = 0; i < warmup; i++) {
+                    fetch(session, endpoint, format);
+                }
+                formats.put(format.tag, measure(session, endpoint, format));
+            }
+            endpoints.put(endpoint, formats);
+            print(endpoint, formats);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", config.getLabel());
+        report.put("baseUrl", config.getBaseUrl());
+        report.put("iterations", iterations);
+        report.put("endpoints", endpoints);
+        Report.write(report, config.getOutput());
+        System.out.println("Report written to " + config.getOutput());
+    }
+
+    private Map<String, Object> measure(Session session, String endpoint, Format format)
+            throws IOException, InterruptedException {
+        Histogram latency = new Histogram(3_600_000_000L, 3);
+        Histogram decode = new Histogram(3_600_000_000L, 3);
+        long bytes = 0;
+        double[] encodeBefore = serverTotals(session, "http.response.encode", format);
+        double[] cpuBefore = serverTotals(session, "http.response.encode.cpu", format);
+
+        for (int i = 0; i < iterations; i++) {
+            long sent = System.nanoTime();
+            byte[] body = fetch(session, endpoint, format);
+            long received = System.nanoTime();
+            (format == Format.JSON ? json : cbor).readTree(body);
+            long decoded = System.nanoTime();
+
+            latency.recordValue((received - sent) / 1000);
+            decode.recordValue((decoded - received) / 1000);
+            bytes = body.length;
+        }
+
+        double[] encodeAfter = serverTotals(session, "http.response.encode", format);
+        double[] cpuAfter = serverTotals(session, "http.response.encode.cpu", format);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("bytes", bytes);
+        result.put("latencyMs", summarize(latency));
+        result.put("clientDecodeMs", summarize(decode));
+        result.put("serverEncodeMeanMs", meanMillis(encodeBefore, encodeAfter));
+        result.put("serverEncodeCpuMeanMs", meanMillis(cpuBefore, cpuAfter));
+        return result;
+    }
+
+    private byte[] fetch(Session session, String endpoint, Format format) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(config.getBaseUrl() + endpoint))
+                .header("Authorization", "Bearer " + session.getToken())
+                .header("Accept", format.mediaType)
+                .timeout(config.getRequestTimeout())
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException(endpoint + " as " + format.mediaType + ": HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private double[] serverTotals(Session session, String metric, Format format)
+            throws IOException, InterruptedException {
+        return ServerMetrics.totals(client, json, config.getBaseUrl(), session, metric, "format:" + format.tag);
+    }
+
+    private static Double meanMillis(double[] before, double[] after) {
+        double count = after[0] - before[0];
+        return count > 0 ? (after[1] - before[1]) * 1000.0 / count : null;
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("mean", histogram.getMean() / 1000.0);
+        summary.put("p50", histogram.getValueAtPercentile(50.0) / 1000.0);
+        summary.put("p99", histogram.getValueAtPercentile(99.0) / 1000.0);
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(String endpoint, Map<String, Object> formats) {
+        System.out.println(endpoint);
+        long jsonBytes = (long) ((Map<String, Object>) formats.get(Format.JSON.tag)).get("bytes");
+        formats.forEach((format, value) -> {
+            Map<String, Object> result = (Map<String, Object>) value;
+            long bytes = (long) result.get("bytes");
+            System.out.printf("  %-10s %9d bytes (%5.1f%%)  p50 %7.2f ms  decode %6.2f ms  server encode %s ms, cpu %s ms%n",
+                    format, bytes, jsonBytes > 0 ? 100.0 * bytes / jsonBytes : 0.0,
+                    ((Map<String, Object>) result.get("latencyMs")).get("p50"),
+                    ((Map<String, Object>) result.get("clientDecodeMs")).get("mean"),
+                    result.get("serverEncodeMeanMs"), result.get("serverEncodeCpuMeanMs"));
+        });
+    }
+}
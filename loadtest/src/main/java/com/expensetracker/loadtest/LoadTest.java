@@ -0,0 +1,272 @@
+package com.expensetracker.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drives a weighted request mix against a running server and writes a JSON report.
+ *
+ * <pre>
+ *   java -jar expense-tracker-loadtest.jar --rate=200 --duration=120 --label=baseline --output=baseline.json
+ *   java -jar expense-tracker-loadtest.jar compare baseline.json candidate.json
+ *   java -jar expense-tracker-loadtest.jar capacity 250 rate-100.json rate-200.json rate-400.json
+ *   java -jar expense-tracker-loadtest.jar encoding 200 --output=encoding.json
+ *   java -jar expense-tracker-loadtest.jar allocation 2000 50 --output=allocation.json
+ * </pre>
+ *
+ * In the default open model, arrivals follow a fixed schedule independent of response times,
+ * so a slow server cannot throttle the load it receives.
+ */
+public class LoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final ExecutorService callbackExecutor;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private List<Session> sessions;
+
+    public LoadTest(LoadTestConfig config) {
+        this.config = config;
+        this.callbackExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(callbackExecutor)
+                .connectTimeout(config.getRequestTimeout())
+                .build();
+
+        this.operations = config.getMix().keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.getMix().get(operations[i]);
+            cumulativeWeights[i] = total;
+            stats.put(operations[i], new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && "compare".equals(args[0])) {
+            Map<String, Object> comparison = Report.compare(args[1], args[2]);
+            Report.printComparison(comparison);
+            if (args.length >= 4) {
+                Report.write(comparison, args[3]);
+            }
+            return;
+        }
+        if (args.length >= 3 && "capacity".equals(args[0])) {
+            String[] reports = Arrays.copyOfRange(args, 2, args.length);
+            Map<String, Object> capacity = Report.capacity(Double.parseDouble(args[1]), reports);
+            System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(capacity));
+            return;
+        }
+        if (args.length >= 2 && "encoding".equals(args[0])) {
+            LoadTestConfig config = LoadTestConfig.parse(Arrays.copyOfRange(args, 2, args.length));
+            new EncodingBenchmark(config, Integer.parseInt(args[1])).run();
+            return;
+        }
+        if (args.length >= 3 && "allocation".equals(args[0])) {
+            LoadTestConfig config = LoadTestConfig.parse(Arrays.copyOfRange(args, 3, args.length));
+            new AllocationBenchmark(config, Integer.parseInt(args[1]), Integer.parseInt(args[2])).run();
+            return;
+        }
+
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        LoadTest loadTest = new LoadTest(config);
+        try {
+            loadTest.run();
+        } finally {
+            loadTest.callbackExecutor.shutdownNow();
+        }
+    }
+
+    public void run() throws IOException, InterruptedException {
+        ObjectMapper mapper = new ObjectMapper();
+        sessions = new ArrayList<>();
+        for (String email : config.getEmails()) {
+            sessions.add(Session.open(client, mapper, config.getBaseUrl(), email, config.getPassword()));
+        }
+        System.out.printf("Logged in %d users, running %s model for %ds (+%ds warm-up)%n", sessions.size(),
+                config.getModel().name().toLowerCase(), config.getDuration().toSeconds(),
+                config.getWarmup().toSeconds());
+
+        Instant startedAt = Instant.now().plus(config.getWarmup());
+        long warmupEnd = System.nanoTime() + config.getWarmup().toNanos();
+        long end = warmupEnd + config.getDuration().toNanos();
+
+        if (config.getModel() == LoadTestConfig.Model.OPEN) {
+            runOpen(warmupEnd, end);
+        } else {
+            runClosed(warmupEnd, end);
+        }
+
+        Map<String, Object> report = Report.build(config, stats, startedAt, config.getDuration().toMillis() / 1000.0);
+        Report.write(report, config.getOutput());
+        System.out.println("Report written to " + config.getOutput());
+        System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter()
+                .writeValueAsString(report.get("overall")));
+    }
+
+    private void runOpen(long warmupEnd, long end) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(config.getSeed());
+        double meanIntervalNanos = 1_000_000_000.0 / config.getRate();
+        boolean warm = false;
+
+        double intended = System.nanoTime();
+        long sequence = 0;
+        while (true) {
+            // Poisson arrivals: exponentially distributed gaps around the mean interval
+            intended += config.isPoisson()
+                    ? -Math.log(1.0 - random.nextDouble()) * meanIntervalNanos
+                    : meanIntervalNanos;
+            long intendedStart = (long) intended;
+            if (intendedStart >= end) {
+                break;
+            }
+            if (!warm && intendedStart >= warmupEnd) {
+                warm = true;
+                stats.values().forEach(OperationStats::reset);
+            }
+            parkUntil(intendedStart);
+
+            Operation operation = pick(random);
+            if (inFlight.get() >= config.getMaxInFlight()) {
+                stats.get(operation).recordDropped();
+                continue;
+            }
+            Session session = sessions.get((int) (sequence++ % sessions.size()));
+            dispatch(operation, session, random.split(), intendedStart);
+        }
+        awaitDrain();
+    }
+
+    private void dispatch(Operation operation, Session session, SplittableRandom random, long intendedStart) {
+        HttpRequest request = operation.build(config.getBaseUrl(), session, random, config.getRequestTimeout());
+        inFlight.incrementAndGet();
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long done = System.nanoTime();
+                    inFlight.decrementAndGet();
+                    complete(operation, session, response, error, intendedStart, sent, done);
+                });
+    }
+
+    private void runClosed(long warmupEnd, long end) throws InterruptedException {
+        int workers = config.getConcurrency();
+        // With a rate, every worker follows its own schedule and latency is charged from it;
+        // without one, workers issue requests back to back (pure closed loop).
+        double perWorkerIntervalNanos = config.getRate() > 0 ? workers * 1_000_000_000.0 / config.getRate() : 0;
+        AtomicInteger resetDone = new AtomicInteger();
+
+        Thread[] threads = new Thread[workers];
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            SplittableRandom random = new SplittableRandom(config.getSeed() + w);
+            threads[w] = new Thread(() -> {
+                double intended = System.nanoTime();
+                long sequence = worker;
+                while (true) {
+                    long intendedStart = perWorkerIntervalNanos > 0 ? (long) intended : System.nanoTime();
+                    if (intendedStart >= end) {
+                        break;
+                    }
+                    if (intendedStart >= warmupEnd && resetDone.compareAndSet(0, 1)) {
+                        stats.values().forEach(OperationStats::reset);
+                    }
+                    parkUntil(intendedStart);
+
+                    Operation operation = pick(random);
+                    Session session = sessions.get((int) (sequence % sessions.size()));
+                    sequence += workers;
+                    HttpRequest request = operation.build(config.getBaseUrl(), session, random,
+                            config.getRequestTimeout());
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        complete(operation, session, response, null, intendedStart, sent, System.nanoTime());
+                    } catch (IOException e) {
+                        complete(operation, session, null, e, intendedStart, sent, System.nanoTime());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    intended += perWorkerIntervalNanos;
+                }
+            }, "loadtest-worker-" + w);
+            threads[w].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private void complete(Operation operation, Session session, HttpResponse<String> response, Throwable error,
+                          long intendedStart, long sent, long done) {
+        OperationStats operationStats = stats.get(operation);
+        long latency = done - intendedStart;
+        long service = done - sent;
+        if (error != null) {
+            operationStats.recordError(error.getClass().getSimpleName(), latency, service);
+            return;
+        }
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            operationStats.recordSuccess(latency, service);
+            if (operation == Operation.LOGIN) {
+                Matcher matcher = TOKEN.matcher(response.body());
+                if (matcher.find()) {
+                    session.setToken(matcher.group(1));
+                }
+            }
+        } else {
+            operationStats.recordError(Integer.toString(status), latency, service);
+        }
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private void awaitDrain() throws InterruptedException {
+        long deadline = System.nanoTime() + config.getRequestTimeout().toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
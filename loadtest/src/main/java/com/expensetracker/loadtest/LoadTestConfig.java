@@ -0,0 +1,130 @@
+package com.expensetracker.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options for a run. Arguments use the {@code --name=value} form.
+ */
+public class LoadTestConfig {
+
+    public enum Model { OPEN, CLOSED }
+
+    private String baseUrl = "http://localhost:8080";
+    private Model model = Model.OPEN;
+    private double rate = 50.0;
+    private boolean poisson = true;
+    private int concurrency = 16;
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration warmup = Duration.ofSeconds(10);
+    private int maxInFlight = 1000;
+    private Duration requestTimeout = Duration.ofSeconds(30);
+    private List<String> emails = new ArrayList<>();
+    private String password = "password123";
+    private long seed = 42;
+    private String label = "run";
+    private String output = "loadtest-report.json";
+    private Map<Operation, Integer> mix = new LinkedHashMap<>();
+
+    public static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        String userPrefix = "datagen-user";
+        String emailDomain = "example.com";
+        int userCount = 50;
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "base-url" -> config.baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "model" -> config.model = Model.valueOf(value.toUpperCase());
+                case "rate" -> config.rate = Double.parseDouble(value);
+                case "arrivals" -> config.poisson = "poisson".equalsIgnoreCase(value);
+                case "concurrency" -> config.concurrency = Integer.parseInt(value);
+                case "duration" -> config.duration = Duration.ofSeconds(Long.parseLong(value));
+                case "warmup" -> config.warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "max-in-flight" -> config.maxInFlight = Integer.parseInt(value);
+                case "timeout" -> config.requestTimeout = Duration.ofSeconds(Long.parseLong(value));
+                case "emails" -> config.emails = List.of(value.split(","));
+                case "user-prefix" -> userPrefix = value;
+                case "user-count" -> userCount = Integer.parseInt(value);
+                case "email-domain" -> emailDomain = value;
+                case "password" -> config.password = value;
+                case "seed" -> config.seed = Long.parseLong(value);
+                case "label" -> config.label = value;
+                case "output" -> config.output = value;
+                case "mix" -> config.mix = parseMix(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+
+        if (config.emails.isEmpty()) {
+            List<String> generated = new ArrayList<>(userCount);
+            for (int i = 0; i < userCount; i++) {
+                generated.add(userPrefix + i + "@" + emailDomain);
+            }
+            config.emails = generated;
+        }
+        if (config.mix.isEmpty()) {
+            config.mix = defaultMix();
+        }
+        return config;
+    }
+
+    // e.g. login:5,dashboard_summary:25,list_transactions:35,create_transaction:15,budgets:20
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            mix.put(operation, operation.getDefaultWeight());
+        }
+        return mix;
+    }
+
+    public Map<String, Object> toReportMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("baseUrl", baseUrl);
+        map.put("model", model.name().toLowerCase());
+        map.put("rate", rate);
+        map.put("arrivals", poisson ? "poisson" : "uniform");
+        map.put("concurrency", concurrency);
+        map.put("durationSeconds", duration.toSeconds());
+        map.put("warmupSeconds", warmup.toSeconds());
+        map.put("users", emails.size());
+        map.put("seed", seed);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((operation, weight) -> weights.put(operation.name().toLowerCase(), weight));
+        map.put("mix", weights);
+        return map;
+    }
+
+    public String getBaseUrl() { return baseUrl; }
+    public Model getModel() { return model; }
+    public double getRate() { return rate; }
+    public boolean isPoisson() { return poisson; }
+    public int getConcurrency() { return concurrency; }
+    public Duration getDuration() { return duration; }
+    public Duration getWarmup() { return warmup; }
+    public int getMaxInFlight() { return maxInFlight; }
+    public Duration getRequestTimeout() { return requestTimeout; }
+    public List<String> getEmails() { return emails; }
+    public String getPassword() { return password; }
+    public long getSeed() { return seed; }
+    public String getLabel() { return label; }
+    public String getOutput() { return output; }
+    public Map<Operation, Integer> getMix() { return mix; }
+}
@@ -0,0 +1,81 @@
+package com.expensetracker.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * The request types in the workload mix, with their default weights.
+ */
+public enum Operation {
+
+    LOGIN(5) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Session session, SplittableRandom random) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(session.loginBody()));
+        }
+    },
+
+    DASHBOARD_SUMMARY(25) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Session session, SplittableRandom random) {
+            return authorized(baseUrl + "/api/dashboard/summary", session).GET();
+        }
+    },
+
+    LIST_TRANSACTIONS(35) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Session session, SplittableRandom random) {
+            // Most users look at the first page, a few page further back
+            int page = random.nextDouble() < 0.8 ? 0 : 1 + random.nextInt(10);
+            return authorized(baseUrl + "/api/transactions?page=" + page + "&size=20", session).GET();
+        }
+    },
+
+    CREATE_TRANSACTION(15) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Session session, SplittableRandom random) {
+            long cents = 100 + random.nextInt(20_000);
+            String body = "{\"description\":\"Load test purchase\"," +
+                    "\"amount\":" + (cents / 100) + "." + String.format("%02d", cents % 100) + "," +
+                    "\"type\":\"expense\"," +
+                    "\"categoryId\":" + session.randomExpenseCategory(random) + "," +
+                    "\"transactionDate\":\"" + LocalDate.now() + "\"}";
+            return authorized(baseUrl + "/api/transactions", session)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    },
+
+    BUDGETS(20) {
+        @Override
+        HttpRequest.Builder request(String baseUrl, Session session, SplittableRandom random) {
+            return authorized(baseUrl + "/api/budgets", session).GET();
+        }
+    };
+
+    private final int defaultWeight;
+
+    Operation(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    abstract HttpRequest.Builder request(String baseUrl, Session session, SplittableRandom random);
+
+    HttpRequest build(String baseUrl, Session session, SplittableRandom random, Duration timeout) {
+        return request(baseUrl, session, random).timeout(timeout).build();
+    }
+
+    private static HttpRequest.Builder authorized(String url, Session session) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + session.getToken());
+    }
+}
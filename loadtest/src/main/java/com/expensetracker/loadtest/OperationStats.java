@@ -0,0 +1,86 @@
+package com.expensetracker.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters for one operation. Latency is measured from the request's
+ * intended start time, so a stalled server is charged for the requests that queued up behind
+ * it (coordinated-omission correction); service time is measured from the actual send.
+ */
+public class OperationStats {
+
+    // One hour in microseconds, three significant digits
+    private static final long HIGHEST_TRACKABLE_MICROS = 3_600_000_000L;
+
+    private final Recorder latency = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Recorder serviceTime = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+
+    public void recordSuccess(long latencyNanos, long serviceNanos) {
+        latency.recordValue(clamp(latencyNanos / 1000));
+        serviceTime.recordValue(clamp(serviceNanos / 1000));
+        successes.increment();
+    }
+
+    public void recordError(String reason, long latencyNanos, long serviceNanos) {
+        latency.recordValue(clamp(latencyNanos / 1000));
+        serviceTime.recordValue(clamp(serviceNanos / 1000));
+        errors.increment();
+        errorsByStatus.computeIfAbsent(reason, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * A request that was due but could not be sent because the in-flight cap was reached.
+     */
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    /**
+     * Discards everything recorded so far (used at the end of the warm-up period).
+     */
+    public void reset() {
+        latency.reset();
+        serviceTime.reset();
+        successes.reset();
+        errors.reset();
+        dropped.reset();
+        errorsByStatus.clear();
+    }
+
+    public Histogram latencyHistogram() {
+        return latency.getIntervalHistogram();
+    }
+
+    public Histogram serviceTimeHistogram() {
+        return serviceTime.getIntervalHistogram();
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public Map<String, LongAdder> getErrorsByStatus() {
+        return errorsByStatus;
+    }
+
+    private static long clamp(long micros) {
+        return Math.max(1, Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+}
@@ -0,0 +1,203 @@
+package com.expensetracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Machine-readable run report and run-to-run comparison.
+ */
+public final class Report {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+
+    private Report() {}
+
+    public static Map<String, Object> build(LoadTestConfig config, Map<Operation, OperationStats> stats,
+                                            Instant startedAt, double measuredSeconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", config.getLabel());
+        report.put("startedAt", startedAt.toString());
+        report.put("measuredSeconds", measuredSeconds);
+        report.put("config", config.toReportMap());
+        report.put("jvm", Map.of(
+                "version", System.getProperty("java.version"),
+                "processors", Runtime.getRuntime().availableProcessors()));
+
+        Histogram overall = null;
+        long totalSuccesses = 0;
+        long totalErrors = 0;
+        long totalDropped = 0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            Histogram latency = operationStats.latencyHistogram();
+            Histogram service = operationStats.serviceTimeHistogram();
+
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("successes", operationStats.getSuccesses());
+            operation.put("errors", operationStats.getErrors());
+            operation.put("dropped", operationStats.getDropped());
+            operation.put("throughput", operationStats.getSuccesses() / measuredSeconds);
+            Map<String, Long> errorsByStatus = new LinkedHashMap<>();
+            operationStats.getErrorsByStatus().forEach((status, count) -> errorsByStatus.put(status, count.sum()));
+            operation.put("errorsByStatus", errorsByStatus);
+            operation.put("latencyMs", summarize(latency));
+            operation.put("serviceTimeMs", summarize(service));
+            operation.put("latencyHistogram", encode(latency));
+            operations.put(entry.getKey().name().toLowerCase(), operation);
+
+            totalSuccesses += operationStats.getSuccesses();
+            totalErrors += operationStats.getErrors();
+            totalDropped += operationStats.getDropped();
+            if (overall == null) {
+                overall = latency.copy();
+            } else {
+                overall.add(latency);
+            }
+        }
+
+        Map<String, Object> total = new LinkedHashMap<>();
+        total.put("successes", totalSuccesses);
+        total.put("errors", totalErrors);
+        total.put("dropped", totalDropped);
+        total.put("throughput", totalSuccesses / measuredSeconds);
+        if (overall != null) {
+            total.put("latencyMs", summarize(overall));
+        }
+        report.put("overall", total);
+        report.put("operations", operations);
+        return report;
+    }
+
+    public static void write(Map<String, Object> report, String path) throws IOException {
+        MAPPER.writeValue(new File(path), report);
+    }
+
+    /**
+     * Compares two reports written by {@link #write}. Returns a comparison document with the
+     * relative change of throughput and latency percentiles per operation (positive = higher).
+     */
+    public static Map<String, Object> compare(String baselinePath, String candidatePath) throws IOException {
+        JsonNode baseline = MAPPER.readTree(new File(baselinePath));
+        JsonNode candidate = MAPPER.readTree(new File(candidatePath));
+
+        Map<String, Object> comparison = new LinkedHashMap<>();
+        comparison.put("baseline", baseline.path("label").asText());
+        comparison.put("candidate", candidate.path("label").asText());
+        comparison.put("overall", compareNode(baseline.path("overall"), candidate.path("overall")));
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        Iterator<String> names = baseline.path("operations").fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            JsonNode other = candidate.path("operations").path(name);
+            if (!other.isMissingNode()) {
+                operations.put(name, compareNode(baseline.path("operations").path(name), other));
+            }
+        }
+        comparison.put("operations", operations);
+        return comparison;
+    }
+
+    /**
+     * For a set of runs of the same server at increasing rates, returns the highest throughput
+     * reached while the overall p99 stayed within the given bound.
+     */
+    public static Map<String, Object> capacity(double p99BoundMs, String... reportPaths) throws IOException {
+        double best = 0;
+        String bestLabel = null;
+        Map<String, Object> runs = new LinkedHashMap<>();
+        for (String path : reportPaths) {
+            JsonNode report = MAPPER.readTree(new File(path));
+            double throughput = report.path("overall").path("throughput").asDouble();
+            double p99 = report.path("overall").path("latencyMs").path("p99").asDouble();
+            boolean withinBound = p99 <= p99BoundMs;
+            runs.put(report.path("label").asText(path), Map.of(
+                    "throughput", throughput, "p99", p99, "withinBound", withinBound));
+            if (withinBound && throughput > best) {
+                best = throughput;
+                bestLabel = report.path("label").asText(path);
+            }
+        }
+        Map<String, Object> capacity = new LinkedHashMap<>();
+        capacity.put("p99BoundMs", p99BoundMs);
+        capacity.put("maxThroughput", best);
+        capacity.put("bestRun", bestLabel);
+        capacity.put("runs", runs);
+        return capacity;
+    }
+
+    public static void printComparison(Map<String, Object> comparison) {
+        System.out.printf("%-20s %12s %12s %12s %12s%n", "operation", "throughput", "p50", "p99", "p99.9");
+        printRow("overall", comparison.get("overall"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> operations = (Map<String, Object>) comparison.get("operations");
+        operations.forEach(Report::printRow);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printRow(String name, Object row) {
+        Map<String, Object> values = (Map<String, Object>) row;
+        System.out.printf("%-20s %12s %12s %12s %12s%n", name,
+                percent(values.get("throughput")), percent(values.get("p50")),
+                percent(values.get("p99")), percent(values.get("p99.9")));
+    }
+
+    private static String percent(Object value) {
+        return value == null ? "-" : String.format("%+.1f%%", ((Number) value).doubleValue());
+    }
+
+    private static Map<String, Object> compareNode(JsonNode baseline, JsonNode candidate) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("throughput", change(baseline.path("throughput"), candidate.path("throughput")));
+        for (String percentile : new String[]{"p50", "p90", "p99", "p99.9", "max"}) {
+            delta.put(percentile, change(baseline.path("latencyMs").path(percentile),
+                    candidate.path("latencyMs").path(percentile)));
+        }
+        delta.put("errors", candidate.path("errors").asLong() - baseline.path("errors").asLong());
+        return delta;
+    }
+
+    private static Double change(JsonNode baseline, JsonNode candidate) {
+        if (baseline.isMissingNode() || candidate.isMissingNode() || baseline.asDouble() == 0) {
+            return null;
+        }
+        return (candidate.asDouble() - baseline.asDouble()) / baseline.asDouble() * 100.0;
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("mean", histogram.getMean() / 1000.0);
+        for (double percentile : PERCENTILES) {
+            String key = "p" + (percentile == Math.rint(percentile)
+                    ? Integer.toString((int) percentile) : Double.toString(percentile));
+            summary.put(key, histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        summary.put("max", histogram.getMaxValue() / 1000.0);
+        return summary;
+    }
+
+    // Compressed HdrHistogram encoding, so runs can be merged or re-plotted later
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
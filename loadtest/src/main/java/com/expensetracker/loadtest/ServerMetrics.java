@@ -0,0 +1,46 @@
+package com.expensetracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Reads server-side meters from {@code /actuator/metrics}, so benchmarks can attribute the
+ * server's cost to the requests they send by taking the difference around them.
+ */
+final class ServerMetrics {
+
+    private ServerMetrics() {
+    }
+
+    /**
+     * {count, total} of a timer (total in seconds) or distribution summary, optionally narrowed
+     * to one {@code name:value} tag; zeros while the meter does not exist yet.
+     */
+    static double[] totals(HttpClient client, ObjectMapper mapper, String baseUrl, Session session, String metric,
+                           String tag) throws IOException, InterruptedException {
+        String uri = baseUrl + "/actuator/metrics/" + metric + (tag != null ? "?tag=" + tag : "");
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(uri))
+                .header("Authorization", "Bearer " + session.getToken())
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        double[] totals = new double[2];
+        if (response.statusCode() != 200) {
+            return totals;
+        }
+        for (JsonNode measurement : mapper.readTree(response.body()).path("measurements")) {
+            switch (measurement.path("statistic").asText()) {
+                case "COUNT" -> totals[0] = measurement.path("value").asDouble();
+                case "TOTAL", "TOTAL_TIME" -> totals[1] = measurement.path("value").asDouble();
+                default -> {
+                }
+            }
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,81 @@
+package com.expensetracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * A logged-in virtual user: its token and the ids needed to build write requests.
+ */
+public class Session {
+
+    private final String email;
+    private final String loginBody;
+    private final List<Long> expenseCategoryIds = new ArrayList<>();
+    private volatile String token;
+
+    private Session(String email, String loginBody) {
+        this.email = email;
+        this.loginBody = loginBody;
+    }
+
+    public static Session open(HttpClient client, ObjectMapper mapper, String baseUrl, String email,
+                               String password) throws IOException, InterruptedException {
+        String loginBody = mapper.writeValueAsString(Map.of("email", email, "password", password));
+        Session session = new Session(email, loginBody);
+
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(loginBody))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (login.statusCode() != 200) {
+            throw new IOException("Login failed for " + email + ": HTTP " + login.statusCode());
+        }
+        session.token = mapper.readTree(login.body()).path("token").asText();
+
+        HttpResponse<String> categories = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/categories"))
+                .header("Authorization", "Bearer " + session.token)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        JsonNode root = mapper.readTree(categories.body());
+        JsonNode list = root.isArray() ? root : root.path("data");
+        for (JsonNode category : list) {
+            if ("expense".equals(category.path("type").asText())) {
+                session.expenseCategoryIds.add(category.path("id").asLong());
+            }
+        }
+        if (session.expenseCategoryIds.isEmpty()) {
+            throw new IOException("User " + email + " has no expense categories");
+        }
+        return session;
+    }
+
+    long randomExpenseCategory(SplittableRandom random) {
+        return expenseCategoryIds.get(random.nextInt(expenseCategoryIds.size()));
+    }
+
+    String loginBody() {
+        return loginBody;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    void setToken(String token) {
+        this.token = token;
+    }
+}
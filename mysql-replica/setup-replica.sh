@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# Starts replication on mysql-replica from the current binlog position of mysql.
+set -euo pipefail
+
+PRIMARY="mysql -h mysql -uroot -p${MYSQL_ROOT_PASSWORD} -N -B"
+REPLICA="mysql -h mysql-replica -uroot -p${MYSQL_ROOT_PASSWORD}"
+
+$PRIMARY -e "CREATE USER IF NOT EXISTS 'repl'@'%' IDENTIFIED WITH mysql_native_password BY 'replpass';
+             GRANT REPLICATION SLAVE ON *.* TO 'repl'@'%';"
+
+read -r LOG_FILE LOG_POS _ < <($PRIMARY -e "SHOW MASTER STATUS")
+echo "Primary at ${LOG_FILE}:${LOG_POS}"
+
+$REPLICA -e "STOP REPLICA;
+             CHANGE REPLICATION SOURCE TO SOURCE_HOST='mysql', SOURCE_USER='repl', SOURCE_PASSWORD='replpass',
+               SOURCE_LOG_FILE='${LOG_FILE}', SOURCE_LOG_POS=${LOG_POS}, SOURCE_CONNECT_RETRY=5;
+             START REPLICA;"
+
+$REPLICA -e "SHOW REPLICA STATUS\G" | grep -E "Replica_(IO|SQL)_Running:|Seconds_Behind_Source"
@@ -0,0 +1,150 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient concurrency limiter driven by database latency. Repository call times are averaged
+ * per window (short-term RTT) and compared with a slowly moving baseline (long-term RTT):
+ * when queries get slower than the baseline the limit shrinks proportionally, when they stay
+ * at the baseline it grows by about sqrt(limit) per window.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority { CRITICAL, NORMAL, LOW }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${loadshedding.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${loadshedding.min-limit:5}")
+    private int minLimit;
+
+    @Value("${loadshedding.max-limit:500}")
+    private int maxLimit;
+
+    @Value("${loadshedding.window-ms:100}")
+    private long windowMs;
+
+    // Latency may rise this much over the baseline before the limit starts shrinking
+    @Value("${loadshedding.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    @Value("${loadshedding.smoothing:0.2}")
+    private double smoothing;
+
+    // Windows averaged into the long-term RTT
+    @Value("${loadshedding.long-window:600}")
+    private int longWindow;
+
+    // Share of the limit low-priority work may use, so it is shed before anything else
+    @Value("${loadshedding.low-priority-share:0.5}")
+    private double lowPriorityShare;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlightInWindow = new AtomicInteger();
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+    private volatile double limit;
+    private volatile double longRttNanos;
+    private volatile double shortRttNanos;
+
+    @PostConstruct
+    void init() {
+        limit = initialLimit;
+        Gauge.builder("loadshedding.limit", this, l -> l.limit).register(meterRegistry);
+        Gauge.builder("loadshedding.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("loadshedding.rtt.short", this, l -> l.shortRttNanos / 1_000_000.0)
+                .baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("loadshedding.rtt.long", this, l -> l.longRttNanos / 1_000_000.0)
+                .baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    /**
+     * Admits a request without blocking. Critical requests are always admitted (and counted),
+     * so login and writes keep flowing while the limit sheds everything else.
+     */
+    public boolean tryAcquire(Priority priority) {
+        int cap = switch (priority) {
+            case CRITICAL -> Integer.MAX_VALUE;
+            case NORMAL -> (int) limit;
+            case LOW -> Math.max(1, (int) (limit * lowPriorityShare));
+        };
+        while (true) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                maxInFlightInWindow.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Records one repository call. Closes the current window and recomputes the limit when the
+     * window has elapsed; only the thread that wins the CAS does the update.
+     */
+    public void recordLatency(long nanos) {
+        windowRttSum.add(nanos);
+        windowSamples.increment();
+
+        long start = windowStart.get();
+        long now = System.nanoTime();
+        if (now - start >= TimeUnit.MILLISECONDS.toNanos(windowMs) && windowStart.compareAndSet(start, now)) {
+            long samples = windowSamples.sumThenReset();
+            long sum = windowRttSum.sumThenReset();
+            int peakInFlight = maxInFlightInWindow.getAndSet(inFlight.get());
+            if (samples > 0) {
+                update((double) sum / samples, peakInFlight);
+            }
+        }
+    }
+
+    private void update(double rtt, int peakInFlight) {
+        shortRttNanos = rtt;
+        double longRtt = longRttNanos == 0 ? rtt : longRttNanos + (rtt - longRttNanos) / longWindow;
+        // After a sustained slowdown the baseline drifts up; pull it back once latency recovers
+        if (longRtt / rtt > 2) {
+            longRtt *= 0.95;
+        }
+        longRttNanos = longRtt;
+
+        double current = limit;
+        // Demand well below the limit says nothing about capacity; don't grow on it
+        if (peakInFlight < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / rtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,168 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples the bytes allocated by the request thread around each request and records them
+ * per endpoint as the {@code http.server.requests.allocation} distribution summary. For async
+ * requests (streamed responses) the initial dispatch, the async worker (measured by
+ * {@link AsyncAllocationInterceptor}) and the final dispatch are added up and recorded when the
+ * last dispatch ends.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "metrics.allocation.enabled", havingValue = "true", matchIfMissing = true)
+public class AllocationMetricsFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_NAME = "http.server.requests.allocation";
+    public static final String DEBUG_HEADER = "X-Allocated-Bytes";
+
+    // Bytes allocated so far by the request, across dispatches and async worker threads
+    private static final String ALLOCATED = AllocationMetricsFilter.class.getName() + ".allocated";
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${metrics.allocation.debug-header:false}")
+    private boolean debugHeader;
+
+    public AllocationMetricsFilter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean
+                && sunBean.isThreadAllocatedMemorySupported()) {
+            if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+            }
+            this.threadMXBean = sunBean;
+        } else {
+            this.threadMXBean = null;
+        }
+    }
+
+    // The async result is dispatched back through the filters; that is when the request ends
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (threadMXBean == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // The header has to be written before the body is committed, so buffer the body
+        // only when the debug header is switched on. The async dispatch reuses the wrapper.
+        HttpServletResponse target = response;
+        if (debugHeader) {
+            ContentCachingResponseWrapper existing =
+                    WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            target = existing != null ? existing : new ContentCachingResponseWrapper(response);
+        }
+
+        // Set up front: the async worker may finish before this dispatch returns
+        AtomicLong total = (AtomicLong) request.getAttribute(ALLOCATED);
+        if (total == null) {
+            total = new AtomicLong();
+            request.setAttribute(ALLOCATED, total);
+        }
+
+        long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            long after = threadMXBean.getCurrentThreadAllocatedBytes();
+            // -1 is returned for threads that do not support the measurement (e.g. virtual threads)
+            long allocated = add(total, before >= 0 && after >= before ? after - before : -1);
+            if (!request.isAsyncStarted()) {
+                if (allocated >= 0) {
+                    record(request, response, allocated);
+                    if (debugHeader) {
+                        response.setHeader(DEBUG_HEADER, Long.toString(allocated));
+                    }
+                }
+                if (target instanceof ContentCachingResponseWrapper wrapper) {
+                    wrapper.copyBodyToResponse();
+                }
+            }
+        }
+    }
+
+    // A part that could not be measured makes the whole request unmeasured (-1)
+    private static long add(AtomicLong total, long allocated) {
+        return total.accumulateAndGet(allocated, (a, b) -> a < 0 || b < 0 ? -1 : a + b);
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long allocated) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder(METRIC_NAME)
+                .description("Bytes allocated while handling a request, async work included")
+                .baseUnit("bytes")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .tag("status", Integer.toString(response.getStatus()))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(allocated);
+    }
+
+    /**
+     * Adds what the async worker thread allocates while producing the response to the request's
+     * total. Registered for MVC async processing in {@link AsyncConfig}.
+     */
+    public static class AsyncAllocationInterceptor implements CallableProcessingInterceptor {
+
+        private static final ThreadLocal<Long> START = new ThreadLocal<>();
+
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            START.set(currentThreadAllocatedBytes());
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            Long start = START.get();
+            START.remove();
+            Object total = request.getAttribute(ALLOCATED, RequestAttributes.SCOPE_REQUEST);
+            if (start != null && total instanceof AtomicLong allocated) {
+                long end = currentThreadAllocatedBytes();
+                add(allocated, start >= 0 && end >= start ? end - start : -1);
+            }
+        }
+
+        private static long currentThreadAllocatedBytes() {
+            return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()
+                    ? bean.getCurrentThreadAllocatedBytes() : -1;
+        }
+    }
+}
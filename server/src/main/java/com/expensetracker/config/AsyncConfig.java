@@ -0,0 +1,97 @@
+package com.expensetracker.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Enables @Async and @Scheduled. The executors come from Spring Boot's auto-configuration,
+ * which switches them to virtual threads when spring.threads.virtual.enabled=true.
+ * <p>
+ * Async MVC responses (streamed transaction lists) get their own bounded executor, so a burst
+ * of streams can neither queue up without limit nor starve the background work on the shared
+ * applicationTaskExecutor (search rebuild, tag backfill, data loading, schema check).
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig implements WebMvcConfigurer {
+
+    @Value("${stream.threads:8}")
+    private int streamThreads;
+
+    @Value("${stream.queue-capacity:16}")
+    private int streamQueueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Deliberately not a bean: an Executor bean would replace Boot's applicationTaskExecutor
+    private AsyncTaskExecutor streamExecutor;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamExecutor());
+        configurer.registerCallableInterceptors(new AllocationMetricsFilter.AsyncAllocationInterceptor());
+    }
+
+    private synchronized AsyncTaskExecutor streamExecutor() {
+        if (streamExecutor != null) {
+            return streamExecutor;
+        }
+        if (virtualThreads) {
+            // No queue: streams over the limit are rejected with 503 straight away
+            BoundedVirtualExecutor virtual = new BoundedVirtualExecutor("stream-", streamThreads);
+            virtual.setTaskDecorator(new PrimaryPinDecorator());
+            streamExecutor = virtual;
+            return streamExecutor;
+        }
+
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(streamThreads);
+        pool.setMaxPoolSize(streamThreads);
+        pool.setQueueCapacity(streamQueueCapacity);
+        pool.setThreadNamePrefix("stream-");
+        pool.setTaskDecorator(new PrimaryPinDecorator());
+        // A full queue fails the request with 503 instead of letting streams pile up
+        pool.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        pool.initialize();
+        streamExecutor = pool;
+        return streamExecutor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (streamExecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Carries the submitting request's read-your-writes pin over to the worker thread.
+     */
+    private static class PrimaryPinDecorator implements TaskDecorator {
+
+        @Override
+        public Runnable decorate(Runnable runnable) {
+            boolean primaryPinned = ReplicaRoutingContext.isPrimaryPinned();
+            return () -> {
+                ReplicaRoutingContext.setPrimaryPinned(primaryPinned);
+                try {
+                    runnable.run();
+                } finally {
+                    ReplicaRoutingContext.clear();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.expensetracker.config;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs each task on a new virtual thread, at most {@code limit} at a time. A task over the
+ * limit is rejected with {@link TaskRejectedException}, like a full thread pool with an abort
+ * policy, where {@link SimpleAsyncTaskExecutor#setConcurrencyLimit} would block the submitting
+ * thread until a slot frees up.
+ */
+public class BoundedVirtualExecutor implements AsyncTaskExecutor {
+
+    private final SimpleAsyncTaskExecutor delegate;
+    private final Semaphore permits;
+
+    public BoundedVirtualExecutor(String threadNamePrefix, int limit) {
+        delegate = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        delegate.setVirtualThreads(true);
+        permits = new Semaphore(limit);
+    }
+
+    public void setTaskDecorator(TaskDecorator taskDecorator) {
+        delegate.setTaskDecorator(taskDecorator);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            throw new TaskRejectedException("Executor " + delegate.getThreadNamePrefix() + " is at its limit");
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+}
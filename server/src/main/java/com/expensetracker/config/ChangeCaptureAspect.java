@@ -0,0 +1,198 @@
+package com.expensetracker.config;
+
+import com.expensetracker.entity.Account;
+import com.expensetracker.entity.Budget;
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.OutboxEvent;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.AccountRepository;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.OutboxEventRepository;
+import com.expensetracker.repository.TransactionRepository;
+import com.expensetracker.service.InvalidationBus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Transactional outbox: every save or delete through the transaction, account, budget and
+ * category repositories also writes an {@link OutboxEvent}, in the caller's transaction or,
+ * if there is none, in one spanning both writes. Either both commit or neither does. After the
+ * commit, the writing instance's caches are invalidated right away; other instances follow
+ * through the outbox.
+ *
+ * <p>Only {@code save(entity)} and {@code delete(entity)} are captured, since the event needs
+ * the owning user. {@code deleteById}, {@code saveAll}, {@code deleteAllByIdInBatch} and
+ * {@code @Modifying} queries bypass the outbox; a caller using them (such as the archiver's
+ * batch delete) is responsible for the caches and consumers it skips.
+ */
+@Aspect
+@Component
+public class ChangeCaptureAspect {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Lazy
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Around("(execution(* org.springframework.data.repository.CrudRepository+.save(..))"
+            + " || execution(* org.springframework.data.repository.CrudRepository+.delete(..)))"
+            + " && (target(com.expensetracker.repository.TransactionRepository)"
+            + " || target(com.expensetracker.repository.AccountRepository)"
+            + " || target(com.expensetracker.repository.BudgetRepository)"
+            + " || target(com.expensetracker.repository.CategoryRepository))")
+    public Object capture(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Object argument = joinPoint.getArgs()[0];
+        String aggregateType = aggregateType(joinPoint.getTarget());
+        boolean created = "save".equals(method) && idOf(argument) == null;
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            return transactionTemplate.execute(status -> {
+                Object result = proceed(joinPoint);
+                OutboxEvent event;
+                if ("save".equals(method)) {
+                    event = new OutboxEvent(aggregateType, idOf(result), userIdOf(result),
+                            created ? "created" : "updated", snapshot(result));
+                } else {
+                    event = new OutboxEvent(aggregateType, idOf(argument), userIdOf(argument), "deleted", null);
+                }
+                outboxEventRepository.save(event);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        invalidationBus.entityChanged(aggregateType, event.getUserId());
+                    }
+                });
+                return result;
+            });
+        } catch (WrappedThrowable e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new WrappedThrowable(e);
+        }
+    }
+
+    private static String aggregateType(Object repository) {
+        if (repository instanceof TransactionRepository) {
+            return "transaction";
+        }
+        if (repository instanceof AccountRepository) {
+            return "account";
+        }
+        if (repository instanceof BudgetRepository) {
+            return "budget";
+        }
+        return "category";
+    }
+
+    private static Long idOf(Object entity) {
+        if (entity instanceof Transaction transaction) {
+            return transaction.getId();
+        }
+        if (entity instanceof Account account) {
+            return account.getId();
+        }
+        if (entity instanceof Budget budget) {
+            return budget.getId();
+        }
+        if (entity instanceof Category category) {
+            return category.getId();
+        }
+        return null;
+    }
+
+    private static Long userIdOf(Object entity) {
+        User user = null;
+        if (entity instanceof Transaction transaction) {
+            user = transaction.getUser();
+        } else if (entity instanceof Account account) {
+            user = account.getUser();
+        } else if (entity instanceof Budget budget) {
+            user = budget.getUser();
+        } else if (entity instanceof Category category) {
+            user = category.getUser();
+        }
+        return user != null ? user.getId() : null;
+    }
+
+    // Flat copy of the columns consumers care about; associations become ids
+    private String snapshot(Object entity) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        if (entity instanceof Transaction transaction) {
+            data.put("description", transaction.getDescription());
+            data.put("amount", transaction.getAmount());
+            data.put("type", transaction.getType());
+            data.put("transactionDate", toString(transaction.getTransactionDate()));
+            data.put("categoryId", transaction.getCategory() != null ? transaction.getCategory().getId() : null);
+            data.put("accountId", transaction.getAccount() != null ? transaction.getAccount().getId() : null);
+            data.put("notes", transaction.getNotes());
+            data.put("tags", transaction.getTags());
+            data.put("isRecurring", transaction.getIsRecurring());
+        } else if (entity instanceof Account account) {
+            data.put("name", account.getName());
+            data.put("type", account.getType());
+            data.put("balance", account.getBalance());
+            data.put("currency", account.getCurrency());
+            data.put("isActive", account.getIsActive());
+        } else if (entity instanceof Budget budget) {
+            data.put("amount", budget.getAmount());
+            data.put("period", budget.getPeriod());
+            data.put("startDate", toString(budget.getStartDate()));
+            data.put("endDate", toString(budget.getEndDate()));
+            data.put("categoryId", budget.getCategory() != null ? budget.getCategory().getId() : null);
+            data.put("isActive", budget.getIsActive());
+        } else if (entity instanceof Category category) {
+            data.put("name", category.getName());
+            data.put("type", category.getType());
+            data.put("icon", category.getIcon());
+            data.put("color", category.getColor());
+            data.put("isActive", category.getIsActive());
+        }
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize change snapshot", e);
+        }
+    }
+
+    private static String toString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static class WrappedThrowable extends RuntimeException {
+        WrappedThrowable(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,512 @@
+package com.expensetracker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates a large, reproducible dataset for performance work. Every user draws from its own
+ * random stream derived from {@code datagen.seed} and the user index, so the generated content
+ * does not depend on chunking or thread scheduling. Rows are written with batched JDBC inserts.
+ *
+ * <p>Activate with the {@code datagen} profile, e.g. {@code --spring.profiles.active=inmemory,datagen}.
+ */
+@Component
+@Profile("datagen")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class DataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (first_name, last_name, email, password, is_active, default_currency, " +
+            "date_format, theme, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CATEGORY =
+            "INSERT INTO categories (name, type, icon, color, is_active, user_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ACCOUNT =
+            "INSERT INTO accounts (name, type, balance, currency, is_active, user_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TRANSACTION =
+            "INSERT INTO transactions (description, amount, type, transaction_date, notes, tags, is_recurring, " +
+            "recurring_type, user_id, category_id, account_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_BUDGET =
+            "INSERT INTO budgets (amount, spent, period, start_date, alert_threshold, is_active, user_id, " +
+            "category_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_ACCOUNT_BALANCE =
+            "UPDATE accounts SET balance = balance + ? WHERE id = ?";
+
+    private static final int USERS_PER_CHUNK = 50;
+
+    private static final String[] TAGS = {"work", "travel", "family", "reimbursable", "gift", "online"};
+
+    // Spending profile per default expense category: median amount, log-normal sigma, merchants
+    private static final Map<String, SpendProfile> SPEND_PROFILES = Map.of(
+            "Food & Dining", new SpendProfile(24, 0.6,
+                    "Starbucks", "Chipotle", "Whole Foods", "Trader Joe's", "McDonald's", "Local Bistro",
+                    "Pizza Hut", "Safeway", "Subway", "Sushi Place"),
+            "Transportation", new SpendProfile(18, 0.7,
+                    "Uber", "Lyft", "Shell", "Chevron", "Metro Card", "Parking Garage", "Amtrak"),
+            "Shopping", new SpendProfile(45, 0.9,
+                    "Amazon", "Target", "Walmart", "Best Buy", "IKEA", "Costco", "Nike", "Etsy"),
+            "Entertainment", new SpendProfile(30, 0.7,
+                    "AMC Theatres", "Steam", "Concert Tickets", "Bowling Alley", "Museum", "Arcade"),
+            "Bills & Utilities", new SpendProfile(90, 0.5,
+                    "Comcast", "AT&T", "Water Utility", "Gas Company", "Verizon"),
+            "Healthcare", new SpendProfile(60, 1.0,
+                    "CVS Pharmacy", "Walgreens", "Dental Clinic", "Urgent Care", "Optometrist"),
+            "Education", new SpendProfile(80, 1.1,
+                    "Coursera", "Udemy", "Bookstore", "University Fees", "Language School")
+    );
+
+    @Value("${datagen.users:100}")
+    private int users;
+
+    @Value("${datagen.transactions-per-user:1000}")
+    private int transactionsPerUser;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${datagen.threads:4}")
+    private int threads;
+
+    @Value("${datagen.history-days:730}")
+    private int historyDays;
+
+    @Value("${datagen.end-date:}")
+    private String endDateProperty;
+
+    @Value("${datagen.email-prefix:datagen-user}")
+    private String emailPrefix;
+
+    @Value("${datagen.password:password123}")
+    private String password;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final AtomicLong transactionRows = new AtomicLong();
+
+    @Override
+    public void run(String... args) throws Exception {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, email(0));
+        if (existing != null && existing > 0) {
+            logger.info("Generated dataset already present ({} exists), skipping", email(0));
+            return;
+        }
+
+        LocalDate endDate = endDateProperty.isBlank() ? LocalDate.now() : LocalDate.parse(endDateProperty);
+        // Hash once and share it; BCrypt per generated user would dominate the run time
+        String passwordHash = passwordEncoder.encode(password);
+
+        logger.info("Generating {} users x {} transactions (seed={}, threads={}, batch={})",
+                users, transactionsPerUser, seed, threads, batchSize);
+        long started = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int from = 0; from < users; from += USERS_PER_CHUNK) {
+                int chunkFrom = from;
+                int chunkTo = Math.min(users, from + USERS_PER_CHUNK);
+                chunks.add(executor.submit(() -> generateChunk(chunkFrom, chunkTo, endDate, passwordHash)));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Generated {} users and {} transactions in {} ms", users, transactionRows.get(), elapsedMs);
+        // The password comes from datagen.password; keep it out of the logs
+        logger.info("Generated users log in as {} ... {}", email(0), email(users - 1));
+    }
+
+    private void generateChunk(int from, int to, LocalDate endDate, String passwordHash) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Timestamp now = Timestamp.valueOf(endDate.atStartOfDay());
+
+            List<Object[]> userRows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                userRows.add(new Object[]{"Generated", "User " + i, email(i), passwordHash, true,
+                        "USD", "MM/dd/yyyy", "light", now, now});
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER, userRows);
+
+            Map<String, Long> userIds = new HashMap<>();
+            List<Object> emails = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                emails.add(email(i));
+            }
+            jdbcTemplate.query("SELECT id, email FROM users WHERE email IN (" + placeholders(emails.size()) + ")",
+                    rs -> { userIds.put(rs.getString("email"), rs.getLong("id")); }, emails.toArray());
+
+            List<Object[]> categoryRows = new ArrayList<>();
+            List<Object[]> accountRows = new ArrayList<>();
+            for (Long userId : userIds.values()) {
+                for (String[] category : DataLoader.DEFAULT_CATEGORIES) {
+                    categoryRows.add(new Object[]{category[0], category[3], category[1], category[2], true,
+                            userId, now, now});
+                }
+                for (String[] account : DataLoader.DEFAULT_ACCOUNTS) {
+                    accountRows.add(new Object[]{account[0], account[1], new BigDecimal(account[2]), account[3],
+                            true, userId, now, now});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_CATEGORY, categoryRows);
+            jdbcTemplate.batchUpdate(INSERT_ACCOUNT, accountRows);
+
+            List<Object> ids = new ArrayList<>(userIds.values());
+            Map<Long, Map<String, Long>> categoryIds = new HashMap<>();
+            jdbcTemplate.query("SELECT id, user_id, name FROM categories WHERE user_id IN (" +
+                    placeholders(ids.size()) + ")", rs -> {
+                categoryIds.computeIfAbsent(rs.getLong("user_id"), k -> new HashMap<>())
+                        .put(rs.getString("name"), rs.getLong("id"));
+            }, ids.toArray());
+            Map<Long, Map<String, Long>> accountIds = new HashMap<>();
+            jdbcTemplate.query("SELECT id, user_id, name FROM accounts WHERE user_id IN (" +
+                    placeholders(ids.size()) + ")", rs -> {
+                accountIds.computeIfAbsent(rs.getLong("user_id"), k -> new HashMap<>())
+                        .put(rs.getString("name"), rs.getLong("id"));
+            }, ids.toArray());
+
+            List<GeneratedTransaction> batch = new ArrayList<>(batchSize);
+            List<Object[]> budgetRows = new ArrayList<>();
+            Map<Long, Long> balanceDeltaCents = new HashMap<>();
+
+            for (int i = from; i < to; i++) {
+                Long userId = userIds.get(email(i));
+                UserDataset dataset = new UserDataset(i, userId, categoryIds.get(userId),
+                        accountIds.get(userId), endDate);
+                dataset.generate(transaction -> {
+                    batch.add(transaction);
+                    if (transaction.accountId != null) {
+                        long signed = "income".equals(transaction.type) ? transaction.cents : -transaction.cents;
+                        balanceDeltaCents.merge(transaction.accountId, signed, Long::sum);
+                    }
+                    if (batch.size() >= batchSize) {
+                        flush(batch);
+                    }
+                });
+                budgetRows.addAll(dataset.budgets(now));
+            }
+            flush(batch);
+
+            jdbcTemplate.batchUpdate(INSERT_BUDGET, budgetRows);
+            List<Object[]> balanceRows = new ArrayList<>(balanceDeltaCents.size());
+            balanceDeltaCents.forEach((accountId, cents) ->
+                    balanceRows.add(new Object[]{BigDecimal.valueOf(cents, 2), accountId}));
+            jdbcTemplate.batchUpdate(UPDATE_ACCOUNT_BALANCE, balanceRows);
+        });
+        logger.debug("Generated users {}..{}", from, to - 1);
+    }
+
+    private void flush(List<GeneratedTransaction> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                GeneratedTransaction t = batch.get(i);
+                Timestamp created = Timestamp.valueOf(t.date.atTime(12, 0));
+                ps.setString(1, t.description);
+                ps.setBigDecimal(2, BigDecimal.valueOf(t.cents, 2));
+                ps.setString(3, t.type);
+                ps.setDate(4, Date.valueOf(t.date));
+                ps.setString(5, t.notes);
+                ps.setString(6, t.tags);
+                ps.setBoolean(7, t.recurringType != null);
+                ps.setString(8, t.recurringType);
+                ps.setLong(9, t.userId);
+                ps.setLong(10, t.categoryId);
+                if (t.accountId != null) {
+                    ps.setLong(11, t.accountId);
+                } else {
+                    ps.setNull(11, Types.BIGINT);
+                }
+                ps.setTimestamp(12, created);
+                ps.setTimestamp(13, created);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+        transactionRows.addAndGet(batch.size());
+        batch.clear();
+    }
+
+    private String email(int index) {
+        return emailPrefix + index + "@example.com";
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static long mixSeed(long seed, long index) {
+        long z = seed + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private interface TransactionSink {
+        void accept(GeneratedTransaction transaction);
+    }
+
+    private static final class GeneratedTransaction {
+        String description;
+        long cents;
+        String type;
+        LocalDate date;
+        String notes;
+        String tags;
+        String recurringType;
+        long userId;
+        long categoryId;
+        Long accountId;
+    }
+
+    private static final class SpendProfile {
+        final double median;
+        final double sigma;
+        final String[] merchants;
+        final double[] merchantWeights;
+
+        SpendProfile(double median, double sigma, String... merchants) {
+            this.median = median;
+            this.sigma = sigma;
+            this.merchants = merchants;
+            this.merchantWeights = zipfCumulative(merchants.length, 1.0);
+        }
+    }
+
+    /**
+     * Per-user generator. All randomness comes from a stream seeded by (seed, user index).
+     */
+    private final class UserDataset {
+
+        private final SplittableRandom random;
+        private final long userId;
+        private final Map<String, Long> categories;
+        private final Map<String, Long> accounts;
+        private final LocalDate endDate;
+
+        // Expense categories ordered by this user's preference (Zipf-weighted picks)
+        private final List<String> expenseRanking = new ArrayList<>();
+        private final double[] expenseWeights;
+
+        UserDataset(int index, long userId, Map<String, Long> categories, Map<String, Long> accounts,
+                    LocalDate endDate) {
+            this.random = new SplittableRandom(mixSeed(seed, index));
+            this.userId = userId;
+            this.categories = categories;
+            this.accounts = accounts;
+            this.endDate = endDate;
+
+            for (String[] category : DataLoader.DEFAULT_CATEGORIES) {
+                if ("expense".equals(category[3])) {
+                    expenseRanking.add(category[0]);
+                }
+            }
+            // Fisher-Yates with the user's own stream
+            for (int i = expenseRanking.size() - 1; i > 0; i--) {
+                Collections.swap(expenseRanking, i, random.nextInt(i + 1));
+            }
+            expenseWeights = zipfCumulative(expenseRanking.size(), 1.1);
+        }
+
+        void generate(TransactionSink sink) {
+            int recurringBudget = transactionsPerUser / 5;
+            int produced = generateRecurring(sink, recurringBudget);
+            for (int i = produced; i < transactionsPerUser; i++) {
+                sink.accept(randomTransaction());
+            }
+        }
+
+        private int generateRecurring(TransactionSink sink, int budget) {
+            long salaryCents = cents(logNormal(4500, 0.35));
+            long rentCents = cents(logNormal(1400, 0.3));
+            boolean streaming = random.nextDouble() < 0.7;
+            boolean music = random.nextDouble() < 0.5;
+            int streams = 2 + (streaming ? 1 : 0) + (music ? 1 : 0);
+
+            int months = Math.min(historyDays / 30, budget / streams);
+            int produced = 0;
+            LocalDate firstOfMonth = endDate.withDayOfMonth(1);
+            for (int m = 0; m < months; m++) {
+                LocalDate month = firstOfMonth.minusMonths(m);
+                sink.accept(recurring("Monthly Salary", salaryCents, "income", month, "Salary", "Checking Account"));
+                sink.accept(recurring("Rent", rentCents, "expense", month.plusDays(2), "Bills & Utilities",
+                        "Checking Account"));
+                produced += 2;
+                if (streaming) {
+                    sink.accept(recurring("Netflix", 1599, "expense", month.plusDays(14), "Entertainment",
+                            "Credit Card"));
+                    produced++;
+                }
+                if (music) {
+                    sink.accept(recurring("Spotify", 999, "expense", month.plusDays(20), "Entertainment",
+                            "Credit Card"));
+                    produced++;
+                }
+            }
+            return produced;
+        }
+
+        private GeneratedTransaction recurring(String description, long cents, String type, LocalDate date,
+                                               String category, String account) {
+            GeneratedTransaction t = new GeneratedTransaction();
+            t.description = description;
+            t.cents = cents;
+            t.type = type;
+            t.date = date.isAfter(endDate) ? endDate : date;
+            t.recurringType = "monthly";
+            t.userId = userId;
+            t.categoryId = categories.get(category);
+            t.accountId = accounts.get(account);
+            return t;
+        }
+
+        private GeneratedTransaction randomTransaction() {
+            GeneratedTransaction t = new GeneratedTransaction();
+            t.userId = userId;
+            // Quadratic-ish skew towards recent dates
+            t.date = endDate.minusDays((long) (historyDays * Math.pow(random.nextDouble(), 1.7)));
+
+            if (random.nextDouble() < 0.05) {
+                boolean freelance = random.nextBoolean();
+                t.type = "income";
+                t.description = freelance ? "Client Invoice" : "Dividend Payment";
+                t.categoryId = categories.get(freelance ? "Freelance" : "Investment");
+                t.cents = cents(logNormal(freelance ? 800 : 120, 0.8));
+                t.accountId = accounts.get(freelance ? "Checking Account" : "Savings Account");
+            } else {
+                String category = expenseRanking.get(pick(expenseWeights));
+                SpendProfile profile = SPEND_PROFILES.get(category);
+                t.type = "expense";
+                t.description = profile.merchants[pick(profile.merchantWeights)];
+                t.categoryId = categories.get(category);
+                t.cents = cents(logNormal(profile.median, profile.sigma));
+
+                double accountRoll = random.nextDouble();
+                if (accountRoll < 0.5) {
+                    t.accountId = accounts.get("Credit Card");
+                } else if (accountRoll < 0.95) {
+                    t.accountId = accounts.get("Checking Account");
+                } else {
+                    t.accountId = null;
+                }
+            }
+
+            if (random.nextDouble() < 0.1) {
+                t.tags = TAGS[random.nextInt(TAGS.length)];
+            }
+            if (random.nextDouble() < 0.05) {
+                t.notes = "Generated note " + random.nextInt(1000);
+            }
+            return t;
+        }
+
+        List<Object[]> budgets(Timestamp now) {
+            List<Object[]> rows = new ArrayList<>();
+            LocalDate start = endDate.withDayOfMonth(1);
+            int count = 3 + random.nextInt(3);
+            for (int i = 0; i < count && i < expenseRanking.size(); i++) {
+                String category = expenseRanking.get(i);
+                SpendProfile profile = SPEND_PROFILES.get(category);
+                long amount = Math.max(50, Math.round(profile.median * (20 - i * 4) / 10.0) * 10);
+                rows.add(new Object[]{BigDecimal.valueOf(amount * 100, 2), BigDecimal.ZERO, "monthly",
+                        Date.valueOf(start), 80, true, userId, categories.get(category), now, now});
+            }
+            return rows;
+        }
+
+        private double logNormal(double median, double sigma) {
+            // Box-Muller; the log of the result is normally distributed around log(median)
+            double u1 = 1.0 - random.nextDouble();
+            double u2 = random.nextDouble();
+            double gaussian = Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+            return median * Math.exp(sigma * gaussian);
+        }
+
+        private int pick(double[] cumulative) {
+            double roll = random.nextDouble();
+            for (int i = 0; i < cumulative.length; i++) {
+                if (roll < cumulative[i]) {
+                    return i;
+                }
+            }
+            return cumulative.length - 1;
+        }
+    }
+
+    private static long cents(double amount) {
+        return Math.max(1, Math.round(amount * 100));
+    }
+
+    private static double[] zipfCumulative(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+}
@@ -6,15 +6,48 @@ import com.expensetracker.entity.Account;
 import com.expensetracker.service.UserService;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.AccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class DataLoader implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataLoader.class);
+
+    // name, icon, color, type
+    static final String[][] DEFAULT_CATEGORIES = {
+            // Expense categories
+            {"Food & Dining", "🍽️", "#FF6B6B", "expense"},
+            {"Transportation", "🚗", "#4ECDC4", "expense"},
+            {"Shopping", "🛍️", "#45B7D1", "expense"},
+            {"Entertainment", "🎬", "#96CEB4", "expense"},
+            {"Bills & Utilities", "⚡", "#FFEAA7", "expense"},
+            {"Healthcare", "🏥", "#DDA0DD", "expense"},
+            {"Education", "📚", "#98D8C8", "expense"},
+
+            // Income categories
+            {"Salary", "💼", "#6C5CE7", "income"},
+            {"Freelance", "💻", "#A29BFE", "income"},
+            {"Investment", "📈", "#FD79A8", "income"}
+    };
+
+    // name, type, initial balance, currency
+    static final String[][] DEFAULT_ACCOUNTS = {
+            {"Checking Account", "checking", "5000.00", "USD"},
+            {"Savings Account", "savings", "15000.00", "USD"},
+            {"Credit Card", "credit", "0.00", "USD"}
+    };
+
     @Autowired
     private UserService userService;
 
@@ -24,8 +57,35 @@ public class DataLoader implements CommandLineRunner {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private ObjectProvider<SchemaCheck> schemaCheck;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${startup.data-loader-async:false}")
+    private boolean async;
+
     @Override
     public void run(String... args) throws Exception {
+        // When the schema is checked in the background, wait for it
+        SchemaCheck check = schemaCheck.getIfAvailable();
+        CompletableFuture<Void> schemaReady = check != null ? check.whenChecked() : CompletableFuture.completedFuture(null);
+        if (!async) {
+            schemaReady.join();
+            loadSampleData();
+            return;
+        }
+        // Off the startup path
+        schemaReady.thenRunAsync(this::loadSampleData, taskExecutor)
+                .exceptionally(e -> {
+                    logger.error("Loading sample data failed: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    private void loadSampleData() {
         // Check if data already exists
         if (categoryRepository.count() > 0) {
             return; // Data already loaded
@@ -46,19 +106,9 @@ public class DataLoader implements CommandLineRunner {
     }
 
     private void createDefaultCategories(User user) {
-        // Expense categories
-        createCategory("Food & Dining", "🍽️", "#FF6B6B", "expense", user);
-        createCategory("Transportation", "🚗", "#4ECDC4", "expense", user);
-        createCategory("Shopping", "🛍️", "#45B7D1", "expense", user);
-        createCategory("Entertainment", "🎬", "#96CEB4", "expense", user);
-        createCategory("Bills & Utilities", "⚡", "#FFEAA7", "expense", user);
-        createCategory("Healthcare", "🏥", "#DDA0DD", "expense", user);
-        createCategory("Education", "📚", "#98D8C8", "expense", user);
-
-        // Income categories
-        createCategory("Salary", "💼", "#6C5CE7", "income", user);
-        createCategory("Freelance", "💻", "#A29BFE", "income", user);
-        createCategory("Investment", "📈", "#FD79A8", "income", user);
+        for (String[] category : DEFAULT_CATEGORIES) {
+            createCategory(category[0], category[1], category[2], category[3], user);
+        }
     }
 
     private void createCategory(String name, String icon, String color, String type, User user) {
@@ -69,9 +119,9 @@ public class DataLoader implements CommandLineRunner {
     }
 
     private void createDefaultAccounts(User user) {
-        createAccount("Checking Account", "checking", new BigDecimal("5000.00"), "USD", user);
-        createAccount("Savings Account", "savings", new BigDecimal("15000.00"), "USD", user);
-        createAccount("Credit Card", "credit", new BigDecimal("0.00"), "USD", user);
+        for (String[] account : DEFAULT_ACCOUNTS) {
+            createAccount(account[0], account[1], new BigDecimal(account[2]), account[3], user);
+        }
     }
 
     private void createAccount(String name, String type, BigDecimal balance, String currency, User user) {
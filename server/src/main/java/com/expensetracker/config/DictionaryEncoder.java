@@ -0,0 +1,125 @@
+package com.expensetracker.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites a response tree for the dictionary-encoded media type. Every list of rows that
+ * reference categories or accounts (transactions, budgets) becomes a table:
+ * {@code {"columns": [...], "rows": [[...], ...]}}, so field names are sent once per list.
+ * Category and account names, icons and colors leave the rows and are sent once per response
+ * in a {@code "dictionary"}, to be looked up by the {@code categoryId} and {@code accountId}
+ * columns.
+ */
+final class DictionaryEncoder {
+
+    private static final String[] CATEGORY_FIELDS = {"categoryName", "categoryIcon", "categoryColor"};
+    private static final String[] ACCOUNT_FIELDS = {"accountName"};
+
+    private final JsonNodeFactory nodes = JsonNodeFactory.instance;
+    private final Map<Long, ObjectNode> categories = new LinkedHashMap<>();
+    private final Map<Long, ObjectNode> accounts = new LinkedHashMap<>();
+
+    private DictionaryEncoder() {
+    }
+
+    static JsonNode encode(JsonNode root) {
+        DictionaryEncoder encoder = new DictionaryEncoder();
+        JsonNode body = encoder.rewrite(root);
+        if (encoder.categories.isEmpty() && encoder.accounts.isEmpty()) {
+            return body;
+        }
+        ObjectNode dictionary = encoder.nodes.objectNode();
+        dictionary.set("categories", encoder.nodes.arrayNode().addAll(encoder.categories.values()));
+        dictionary.set("accounts", encoder.nodes.arrayNode().addAll(encoder.accounts.values()));
+        if (body.isObject() && !body.has("dictionary")) {
+            ((ObjectNode) body).set("dictionary", dictionary);
+            return body;
+        }
+        ObjectNode wrapper = encoder.nodes.objectNode();
+        wrapper.set("dictionary", dictionary);
+        wrapper.set("data", body);
+        return wrapper;
+    }
+
+    private JsonNode rewrite(JsonNode node) {
+        if (node.isArray()) {
+            if (isTable(node)) {
+                return table((ArrayNode) node);
+            }
+            ArrayNode array = (ArrayNode) node;
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, rewrite(array.get(i)));
+            }
+        } else if (node.isObject()) {
+            ObjectNode object = (ObjectNode) node;
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                field.setValue(rewrite(field.getValue()));
+            }
+        }
+        return node;
+    }
+
+    // Rows with an id that reference a category or an account
+    private static boolean isTable(JsonNode array) {
+        if (array.isEmpty()) {
+            return false;
+        }
+        for (JsonNode row : array) {
+            if (!row.isObject() || !row.has("id") || !row.has("categoryId") && !row.has("accountId")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ObjectNode table(ArrayNode array) {
+        Set<String> columns = new LinkedHashSet<>();
+        for (JsonNode row : array) {
+            ObjectNode object = (ObjectNode) row;
+            extract(object, "categoryId", CATEGORY_FIELDS, categories);
+            extract(object, "accountId", ACCOUNT_FIELDS, accounts);
+            object.fieldNames().forEachRemaining(columns::add);
+        }
+
+        ArrayNode rows = nodes.arrayNode(array.size());
+        for (JsonNode row : array) {
+            ArrayNode values = nodes.arrayNode(columns.size());
+            for (String column : columns) {
+                JsonNode value = row.get(column);
+                values.add(value != null ? value : nodes.nullNode());
+            }
+            rows.add(values);
+        }
+        ObjectNode table = nodes.objectNode();
+        ArrayNode header = table.putArray("columns");
+        columns.forEach(header::add);
+        table.set("rows", rows);
+        return table;
+    }
+
+    // Moves the referenced entity's fields from the row into the dictionary
+    private void extract(ObjectNode row, String idField, String[] fields, Map<Long, ObjectNode> dictionary) {
+        JsonNode id = row.get(idField);
+        if (id == null || !id.canConvertToLong()) {
+            return;
+        }
+        ObjectNode entry = dictionary.computeIfAbsent(id.asLong(), key -> nodes.objectNode().put("id", key));
+        for (String field : fields) {
+            JsonNode value = row.remove(field);
+            if (value != null && !value.isNull() && !entry.has(field)) {
+                entry.set(field, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.expensetracker.config;
+
+import com.expensetracker.dto.BudgetResponse;
+import com.expensetracker.dto.TransactionResponse;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Lets list endpoints return a subset of a response's fields ({@code fields=}). The responses
+ * below get the "fields" property filter through a mix-in, so the DTOs stay plain and only
+ * the web ObjectMapper knows about it. Without a filter on the request, every field is written.
+ */
+@Configuration
+public class JacksonConfig {
+
+    public static final String FIELDS_FILTER = "fields";
+
+    @JsonFilter(FIELDS_FILTER)
+    private interface FieldsFilterMixIn {
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldsFilterCustomizer() {
+        return builder -> builder
+                .mixIn(TransactionResponse.class, FieldsFilterMixIn.class)
+                .mixIn(BudgetResponse.class, FieldsFilterMixIn.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.expensetracker.config;
+
+import com.expensetracker.config.AdaptiveConcurrencyLimiter.Priority;
+import com.expensetracker.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Admission control in front of everything else, so overload is rejected before it costs a
+ * JWT check or a connection. Login, registration, health checks and transaction writes are
+ * always admitted; reports and exports only get part of the limit and are shed first; other
+ * requests may wait briefly for a slot before being shed with 503.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "loadshedding.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${loadshedding.low-priority-paths:/api/**/export,/api/**/export/**,/api/**/import,/api/**/import/**,/api/reports/**}")
+    private List<String> lowPriorityPaths;
+
+    @Value("${loadshedding.queue-timeout-ms:50}")
+    private long queueTimeoutMs;
+
+    @Value("${loadshedding.max-queued:100}")
+    private int maxQueued;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Priority priority = classify(request);
+        if (!admit(priority)) {
+            meterRegistry.counter("loadshedding.rejected", "priority", priority.name().toLowerCase()).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("Server is busy, please retry shortly"));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // A streamed response keeps its slot until the stream ends
+            RequestCompletion.onComplete(request, limiter::release);
+        }
+    }
+
+    private boolean admit(Priority priority) {
+        if (limiter.tryAcquire(priority)) {
+            return true;
+        }
+        if (priority != Priority.NORMAL || queueTimeoutMs <= 0) {
+            return false;
+        }
+
+        // Short bounded wait: absorbs bursts without letting a queue build up behind the limit
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+            while (System.nanoTime() - deadline < 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                if (limiter.tryAcquire(priority)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private Priority classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if (path.startsWith("/api/auth/") || path.equals("/api/health") || path.startsWith("/actuator/")) {
+            return Priority.CRITICAL;
+        }
+        if (path.startsWith("/api/transactions") && !"GET".equals(method) && !"HEAD".equals(method)) {
+            return Priority.CRITICAL;
+        }
+        for (String pattern : lowPriorityPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return Priority.LOW;
+            }
+        }
+        return Priority.NORMAL;
+    }
+}
@@ -0,0 +1,84 @@
+package com.expensetracker.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pins a user's reads to the primary for datasource.replica.sticky-window-ms after they write,
+ * so they never read their own data from a replica that hasn't caught up yet. Runs after the
+ * security chain so the user is known. The window is tracked per instance.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 10)
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    @Value("${datasource.replica.sticky-window-ms:5000}")
+    private long stickyWindowMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String user = currentUser();
+        boolean write = isWrite(request.getMethod());
+        if (user != null && write) {
+            // Recorded up front too: the response may reach the client before this filter returns
+            lastWriteNanos.put(user, System.nanoTime());
+        }
+
+        // Auth endpoints stay on the primary: a user who just registered must be able to log in
+        boolean authRequest = request.getRequestURI().startsWith("/api/auth/");
+        ReplicaRoutingContext.setPrimaryPinned(authRequest || (user != null && isRecentWriter(user)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingContext.clear();
+            if (user != null && write) {
+                lastWriteNanos.put(user, System.nanoTime());
+            }
+        }
+    }
+
+    private boolean isRecentWriter(String user) {
+        Long last = lastWriteNanos.get(user);
+        return last != null && System.nanoTime() - last < TimeUnit.MILLISECONDS.toNanos(stickyWindowMs);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(stickyWindowMs);
+        lastWriteNanos.values().removeIf(last -> last - cutoff < 0);
+    }
+
+    private static boolean isWrite(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
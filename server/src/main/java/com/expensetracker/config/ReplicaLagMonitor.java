@@ -0,0 +1,98 @@
+package com.expensetracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures replica lag with a heartbeat row: the primary's row is stamped with the current time
+ * and each replica's copy is read back. Replicas lagging more than datasource.replica.max-lag-ms,
+ * or failing the check, are taken out of rotation until they catch up.
+ */
+@Component
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${datasource.replica.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    private final Map<String, Double> lagMs = new ConcurrentHashMap<>();
+    private JdbcTemplate primary;
+
+    @PostConstruct
+    void init() {
+        primary = new JdbcTemplate(primaryDataSource);
+        primary.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT NOT NULL PRIMARY KEY, beat BIGINT NOT NULL)");
+        for (String name : routingDataSource.getReplicas().keySet()) {
+            lagMs.put(name, Double.NaN);
+            Gauge.builder("datasource.replica.lag", lagMs, lags -> lags.getOrDefault(name, Double.NaN))
+                    .tag("replica", name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval-ms:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("UPDATE replica_heartbeat SET beat = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat) VALUES (1, ?)", now);
+            }
+        } catch (Exception e) {
+            logger.warn("Replica heartbeat write failed, routing all reads to the primary: {}", e.getMessage());
+            routingDataSource.setHealthyReplicas(List.of());
+            return;
+        }
+
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, HikariDataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            String name = replica.getKey();
+            try {
+                Long beat = new JdbcTemplate(replica.getValue())
+                        .queryForObject("SELECT beat FROM replica_heartbeat WHERE id = 1", Long.class);
+                // The stamp is written every interval, so lag is measured to within one interval
+                long lag = beat == null ? Long.MAX_VALUE : Math.max(0, now - beat);
+                lagMs.put(name, (double) lag);
+                if (lag <= maxLagMs) {
+                    healthy.add(name);
+                }
+            } catch (Exception e) {
+                lagMs.put(name, Double.NaN);
+                logger.debug("Replica {} check failed: {}", name, e.getMessage());
+            }
+        }
+
+        if (healthy.size() != routingDataSource.getHealthyReplicas().size()) {
+            logger.info("Healthy replicas: {} of {}", healthy.size(), routingDataSource.getReplicas().size());
+        }
+        routingDataSource.setHealthyReplicas(healthy);
+    }
+}
@@ -0,0 +1,28 @@
+package com.expensetracker.config;
+
+/**
+ * Per-thread routing hint for {@link ReplicaRoutingDataSource}. When the primary is pinned,
+ * read-only transactions on this thread go to the primary as well (read-your-writes).
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {}
+
+    public static boolean isPrimaryPinned() {
+        return Boolean.TRUE.equals(PRIMARY_PINNED.get());
+    }
+
+    public static void setPrimaryPinned(boolean pinned) {
+        if (pinned) {
+            PRIMARY_PINNED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_PINNED.remove();
+        }
+    }
+
+    public static void clear() {
+        PRIMARY_PINNED.remove();
+    }
+}
@@ -0,0 +1,32 @@
+package com.expensetracker.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the time of every Spring Data repository call to the adaptive concurrency limiter.
+ * When the call starts its own transaction this includes the wait for a pooled connection,
+ * which is where overload shows up first.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "loadshedding.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryLatencyAspect {
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            limiter.recordLatency(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.expensetracker.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Runs cleanup when a request is really done. A filter's chain returns as soon as an async
+ * request (e.g. a streamed response) has started; per-request limits must stay taken until
+ * the async part completes, times out or fails.
+ */
+public final class RequestCompletion {
+
+    private RequestCompletion() {}
+
+    /**
+     * Runs {@code action} now, or once the async request started by this dispatch completes.
+     * Call after the filter chain has returned.
+     */
+    public static void onComplete(HttpServletRequest request, Runnable action) {
+        if (!request.isAsyncStarted()) {
+            action.run();
+            return;
+        }
+        // onComplete also follows onTimeout and onError
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                action.run();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // A new async cycle drops the listeners; stay registered for it
+                event.getAsyncContext().addListener(this);
+            }
+        });
+    }
+}
@@ -0,0 +1,199 @@
+package com.expensetracker.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response encodings chosen by the {@code Accept} header. JSON stays the default;
+ * {@code application/cbor} writes the same documents as CBOR, and {@link #DICTIONARY_CBOR}
+ * writes them as CBOR after {@link DictionaryEncoder} has turned lists of transactions and
+ * budgets into column/row tables with their categories and accounts sent once. Every encoding
+ * records its serialization time and CPU time ({@code http.response.encode},
+ * {@code http.response.encode.cpu}) and payload size ({@code http.response.bytes}) by format.
+ */
+@Configuration
+public class ResponseEncodingConfig implements WebMvcConfigurer {
+
+    public static final MediaType DICTIONARY_CBOR = MediaType.parseMediaType("application/vnd.expensetracker.dict+cbor");
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring MVC's own CBOR converter does not get Boot's Jackson customizations (field filters)
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter);
+
+        ObjectMapper cborMapper = objectMapperBuilder.factory(new CBORFactory())
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter json) {
+                MeteredJsonConverter metered = new MeteredJsonConverter(json.getObjectMapper());
+                metered.setSupportedMediaTypes(json.getSupportedMediaTypes());
+                converters.set(i, metered);
+                converters.add(i + 1, new MeteredCborConverter(cborMapper));
+                return;
+            }
+        }
+        converters.add(new MeteredCborConverter(cborMapper));
+    }
+
+    private void record(String format, long startNanos, long startCpu, long bytes) {
+        Timer.builder("http.response.encode")
+                .description("Time spent serializing and writing response bodies")
+                .tag("format", format)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (startCpu >= 0) {
+            Timer.builder("http.response.encode.cpu")
+                    .description("CPU time of the request thread spent serializing response bodies")
+                    .tag("format", format)
+                    .register(meterRegistry)
+                    .record(THREADS.getCurrentThreadCpuTime() - startCpu, TimeUnit.NANOSECONDS);
+        }
+        DistributionSummary.builder("http.response.bytes")
+                .description("Encoded response body size")
+                .baseUnit("bytes")
+                .tag("format", format)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    private static long threadCpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private class MeteredJsonConverter extends MappingJackson2HttpMessageConverter {
+
+        MeteredJsonConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            long start = System.nanoTime();
+            long startCpu = threadCpuTime();
+            CountingOutputMessage counting = new CountingOutputMessage(outputMessage);
+            super.writeInternal(object, type, counting);
+            record("json", start, startCpu, counting.getCount());
+        }
+    }
+
+    private class MeteredCborConverter extends MappingJackson2CborHttpMessageConverter {
+
+        MeteredCborConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+            setSupportedMediaTypes(List.of(MediaType.APPLICATION_CBOR, DICTIONARY_CBOR));
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            long start = System.nanoTime();
+            long startCpu = threadCpuTime();
+            CountingOutputMessage counting = new CountingOutputMessage(outputMessage);
+            MediaType contentType = outputMessage.getHeaders().getContentType();
+            if (contentType != null && contentType.equalsTypeAndSubtype(DICTIONARY_CBOR)) {
+                super.writeInternal(DictionaryEncoder.encode(toTree(object)), null, counting);
+                record("dict-cbor", start, startCpu, counting.getCount());
+            } else {
+                super.writeInternal(object, type, counting);
+                record("cbor", start, startCpu, counting.getCount());
+            }
+        }
+
+        // Serializes through the same writer, filters included, into a tree instead of bytes
+        private JsonNode toTree(Object object) throws IOException {
+            ObjectMapper mapper = getObjectMapper();
+            ObjectWriter writer = mapper.writer();
+            Object value = object;
+            if (object instanceof MappingJacksonValue wrapper) {
+                value = wrapper.getValue();
+                if (wrapper.getFilters() != null) {
+                    writer = writer.with(wrapper.getFilters());
+                }
+                if (wrapper.getSerializationView() != null) {
+                    writer = writer.withView(wrapper.getSerializationView());
+                }
+            }
+            TokenBuffer buffer = new TokenBuffer(mapper, false);
+            writer.writeValue(buffer, value);
+            return mapper.readTree(buffer.asParser());
+        }
+    }
+
+    private static class CountingOutputMessage implements HttpOutputMessage {
+
+        private final HttpOutputMessage delegate;
+        private long count;
+        private OutputStream body;
+
+        CountingOutputMessage(HttpOutputMessage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterOutputStream(delegate.getBody()) {
+                    @Override
+                    public void write(int b) throws IOException {
+                        out.write(b);
+                        count++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                        count += len;
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.expensetracker.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.TargetType;
+import org.hibernate.tool.schema.internal.ExceptionHandlerCollectingImpl;
+import org.hibernate.tool.schema.internal.ExceptionHandlerHaltImpl;
+import org.hibernate.tool.schema.spi.CommandAcceptanceException;
+import org.hibernate.tool.schema.spi.ContributableMatcher;
+import org.hibernate.tool.schema.spi.ExceptionHandler;
+import org.hibernate.tool.schema.spi.ExecutionOptions;
+import org.hibernate.tool.schema.spi.SchemaFilter;
+import org.hibernate.tool.schema.spi.SchemaManagementException;
+import org.hibernate.tool.schema.spi.SchemaManagementTool;
+import org.hibernate.tool.schema.spi.ScriptTargetOutput;
+import org.hibernate.tool.schema.spi.TargetDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Moves schema management out of context startup. With spring.jpa.hibernate.ddl-auto=none and
+ * startup.schema-check=validate or update, the database schema is compared with the entity
+ * mappings on a background thread as soon as the context has started, alongside the runners.
+ * In update mode a schema that is behind (or missing) is brought up to date the way
+ * ddl-auto=update would have done it. Readiness is only reported once the check is done, and
+ * the warm-up and data loading wait for it.
+ */
+@Component
+@ConditionalOnExpression("'${startup.schema-check:off}' != 'off'")
+public class SchemaCheck implements HibernatePropertiesCustomizer, Integrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaCheck.class);
+
+    // Update statements go to the database only, not to a script
+    private static final TargetDescriptor DATABASE = new TargetDescriptor() {
+        @Override
+        public EnumSet<TargetType> getTargetTypes() {
+            return EnumSet.of(TargetType.DATABASE);
+        }
+
+        @Override
+        public ScriptTargetOutput getScriptTargetOutput() {
+            return null;
+        }
+    };
+
+    @Value("${startup.schema-check}")
+    private String mode;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    // Captured while the session factory is built
+    private volatile Metadata metadata;
+    private volatile ServiceRegistry serviceRegistry;
+
+    private final CompletableFuture<Void> checked = new CompletableFuture<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(this));
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.serviceRegistry = sessionFactory.getServiceRegistry();
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        this.metadata = null;
+        this.serviceRegistry = null;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted() {
+        taskExecutor.execute(() -> {
+            try {
+                check();
+            } catch (RuntimeException e) {
+                logger.error("Schema check failed: {}", e.getMessage());
+            } finally {
+                checked.complete(null);
+            }
+        });
+    }
+
+    /**
+     * Holds the ready event until the check is done: readiness turns to ACCEPTING_TRAFFIC right
+     * after the ready listeners return, and must not before the schema is usable.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!checked.isDone()) {
+            logger.info("Waiting for the schema check before reporting ready");
+        }
+        checked.join();
+    }
+
+    /**
+     * Completes once the schema has been checked and, in update mode, updated.
+     */
+    public CompletableFuture<Void> whenChecked() {
+        return checked;
+    }
+
+    private void check() {
+        if (metadata == null) {
+            logger.warn("Schema check skipped: Hibernate metadata was not captured");
+            return;
+        }
+        long start = System.nanoTime();
+        SchemaManagementTool tool = serviceRegistry.requireService(SchemaManagementTool.class);
+        Map<String, Object> settings = serviceRegistry.requireService(ConfigurationService.class).getSettings();
+        try {
+            tool.getSchemaValidator(settings).doValidation(metadata,
+                    options(settings, ExceptionHandlerHaltImpl.INSTANCE), ContributableMatcher.ALL);
+            logger.info("Schema matches the entity mappings (checked in {} ms)", (System.nanoTime() - start) / 1_000_000);
+            return;
+        } catch (SchemaManagementException e) {
+            if (!"update".equals(mode)) {
+                logger.error("Schema does not match the entity mappings: {}", e.getMessage());
+                return;
+            }
+            logger.warn("Schema is behind the entity mappings, updating: {}", e.getMessage());
+        }
+
+        ExceptionHandlerCollectingImpl failures = new ExceptionHandlerCollectingImpl();
+        tool.getSchemaMigrator(settings).doMigration(metadata, options(settings, failures), ContributableMatcher.ALL,
+                DATABASE);
+        // Like ddl-auto=update, failed statements are reported but do not stop the application
+        for (CommandAcceptanceException exception : failures.getExceptions()) {
+            logger.warn("Schema update statement failed: {}", exception.getMessage());
+        }
+        logger.info("Schema updated in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static ExecutionOptions options(Map<String, Object> settings, ExceptionHandler exceptionHandler) {
+        return new ExecutionOptions() {
+            @Override
+            public Map<String, Object> getConfigurationValues() {
+                return settings;
+            }
+
+            @Override
+            public boolean shouldManageNamespaces() {
+                return false;
+            }
+
+            @Override
+            public ExceptionHandler getExceptionHandler() {
+                return exceptionHandler;
+            }
+
+            @Override
+            public SchemaFilter getSchemaFilter() {
+                return SchemaFilter.ALL;
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.expensetracker.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Support for the {@code faststart} profile, which turns on spring.main.lazy-initialization.
+ * A lazy bean is only created when something first uses it, so a bean that does its own work
+ * (scheduled jobs, setup in @PostConstruct such as opening the journal or subscribing to the
+ * invalidation bus) might never be created. Those beans stay eager.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter backgroundBeansStayEager() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && doesOwnWork(beanType);
+    }
+
+    private static boolean doesOwnWork(Class<?> beanType) {
+        if (!beanType.getName().startsWith("com.expensetracker.")) {
+            return false;
+        }
+        return !MethodIntrospector.selectMethods(beanType, (ReflectionUtils.MethodFilter) method ->
+                method.isAnnotationPresent(Scheduled.class) || method.isAnnotationPresent(PostConstruct.class))
+                .isEmpty();
+    }
+}
@@ -0,0 +1,239 @@
+package com.expensetracker.config;
+
+import com.expensetracker.entity.Account;
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.AccountRepository;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.TransactionRepository;
+import com.expensetracker.security.JwtUtil;
+import com.expensetracker.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms up a new instance before it takes traffic. Runners run before Spring Boot marks the
+ * application ready, so readiness stays at REFUSING_TRAFFIC while the hot read endpoints are
+ * called over loopback HTTP as a synthetic user: the full request path (JWT check, controllers,
+ * Hibernate queries, Jackson) gets compiled by the JIT instead of on live requests.
+ *
+ * <p>Rounds continue until {@code warmup.max-iterations}, or earlier once the JIT has settled
+ * (little compilation time for {@code warmup.settle-rounds} rounds in a row), bounded by
+ * {@code warmup.max-duration-seconds}. The duration is recorded as {@code warmup.duration}.
+ */
+@Component
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<SchemaCheck> schemaCheck;
+
+    @Value("${warmup.email:warmup@expense-tracker.internal}")
+    private String email;
+
+    @Value("${warmup.paths}")
+    private List<String> paths;
+
+    @Value("${warmup.seed-transactions:200}")
+    private int seedTransactions;
+
+    @Value("${warmup.concurrency:4}")
+    private int concurrency;
+
+    @Value("${warmup.min-iterations:20}")
+    private int minIterations;
+
+    @Value("${warmup.max-iterations:300}")
+    private int maxIterations;
+
+    @Value("${warmup.settle-rounds:5}")
+    private int settleRounds;
+
+    @Value("${warmup.settle-compile-ms:20}")
+    private long settleCompileMs;
+
+    @Value("${warmup.max-duration-seconds:90}")
+    private long maxDurationSeconds;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+        long start = System.nanoTime();
+        String outcome;
+        try {
+            // The warm-up writes seed data and exercises every hot query
+            SchemaCheck check = schemaCheck.getIfAvailable();
+            if (check != null) {
+                check.whenChecked().join();
+            }
+            outcome = warmUp(start);
+        } catch (Exception e) {
+            // A failed warm-up only costs latency; never keep the instance from starting
+            logger.warn("Warm-up aborted: {}", e.getMessage());
+            outcome = "failed";
+        }
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.timer("warmup.duration", "outcome", outcome).record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Warm-up finished ({}) in {} ms", outcome, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private String warmUp(long start) {
+        User user = warmupUser();
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId());
+        String baseUrl = "http://localhost:" + environment.getProperty("local.server.port", "8080");
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        List<HttpRequest> requests = new ArrayList<>();
+        for (String path : paths) {
+            requests.add(HttpRequest.newBuilder(URI.create(baseUrl + path.trim()))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build());
+        }
+
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean canSettle = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long deadline = start + TimeUnit.SECONDS.toNanos(maxDurationSeconds);
+        long lastCompileMs = canSettle ? compiler.getTotalCompilationTime() : 0;
+        int quietRounds = 0;
+
+        for (int round = 1; round <= maxIterations; round++) {
+            runRound(client, requests);
+            if (System.nanoTime() > deadline) {
+                return "timeout";
+            }
+            if (canSettle) {
+                long compileMs = compiler.getTotalCompilationTime();
+                quietRounds = compileMs - lastCompileMs <= settleCompileMs ? quietRounds + 1 : 0;
+                lastCompileMs = compileMs;
+                if (round >= minIterations && quietRounds >= settleRounds) {
+                    logger.debug("JIT settled after {} warm-up rounds", round);
+                    return "settled";
+                }
+            }
+        }
+        return "iterations";
+    }
+
+    private void runRound(HttpClient client, List<HttpRequest> requests) {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            for (HttpRequest request : requests) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+        }
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            String status;
+            try {
+                status = Integer.toString(response.join().statusCode());
+            } catch (Exception e) {
+                status = "error";
+            }
+            meterRegistry.counter("warmup.requests", "status", status).increment();
+        }
+    }
+
+    /**
+     * The synthetic user, created with some categories, accounts and transactions on first use.
+     * Its password is random and never stored anywhere, so nobody can log in as it.
+     */
+    private User warmupUser() {
+        User existing = userService.findByEmail(email).orElse(null);
+        if (existing != null) {
+            return existing;
+        }
+        byte[] password = new byte[24];
+        new SecureRandom().nextBytes(password);
+        User user;
+        try {
+            user = userService.createUser(new User("Warm-up", "User", email,
+                    Base64.getUrlEncoder().encodeToString(password)));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it at the same time
+            return userService.findByEmail(email).orElseThrow();
+        }
+
+        List<Category> categories = new ArrayList<>();
+        for (String[] row : DataLoader.DEFAULT_CATEGORIES) {
+            Category category = new Category(row[0], row[3], user);
+            category.setIcon(row[1]);
+            category.setColor(row[2]);
+            categories.add(categoryRepository.save(category));
+        }
+        List<Account> accounts = new ArrayList<>();
+        for (String[] row : DataLoader.DEFAULT_ACCOUNTS) {
+            Account account = new Account(row[0], row[1], new BigDecimal(row[2]), user);
+            account.setCurrency(row[3]);
+            accounts.add(accountRepository.save(account));
+        }
+
+        SplittableRandom random = new SplittableRandom(email.hashCode());
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < seedTransactions; i++) {
+            Category category = categories.get(random.nextInt(categories.size()));
+            Transaction transaction = new Transaction("Warm-up " + i,
+                    BigDecimal.valueOf(random.nextInt(100, 50000), 2), category.getType(),
+                    today.minusDays(random.nextInt(365)), user, category);
+            transaction.setAccount(accounts.get(random.nextInt(accounts.size())));
+            transactionRepository.save(transaction);
+        }
+        return user;
+    }
+}
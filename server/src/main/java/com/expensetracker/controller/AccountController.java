@@ -8,6 +8,7 @@ import com.expensetracker.entity.User;
 import com.expensetracker.repository.AccountRepository;
 import com.expensetracker.security.JwtUtil;
 import com.expensetracker.service.UserService;
+import com.expensetracker.service.VersionedCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -32,6 +33,12 @@ public class AccountController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ResponseMapper responseMapper;
+
+    @Autowired
+    private VersionedCache versionedCache;
+
     private User getUserFromToken(String authHeader) {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
@@ -41,24 +48,6 @@ public class AccountController {
         return null;
     }
 
-    private AccountResponse convertToResponse(Account account) {
-        AccountResponse response = new AccountResponse();
-        response.setId(account.getId());
-        response.setName(account.getName());
-        response.setType(account.getType());
-        response.setBalance(account.getBalance());
-        response.setCurrency(account.getCurrency());
-        response.setDescription(account.getDescription());
-        response.setBankName(account.getBankName());
-        response.setAccountNumber(account.getAccountNumber());
-        response.setIsActive(account.getIsActive());
-        response.setIcon(account.getIcon());
-        response.setColor(account.getColor());
-        response.setCreatedAt(account.getCreatedAt());
-        response.setUpdatedAt(account.getUpdatedAt());
-        return response;
-    }
-
     @GetMapping
     public ResponseEntity<?> getAllAccounts(@RequestHeader("Authorization") String authHeader) {
         User user = getUserFromToken(authHeader);
@@ -68,10 +57,10 @@ public class AccountController {
         }
 
         try {
-            List<Account> accounts = accountRepository.findByUserIdAndIsActiveTrue(user.getId());
-            List<AccountResponse> response = accounts.stream()
-                    .map(this::convertToResponse)
-                    .collect(Collectors.toList());
+            List<AccountResponse> response = versionedCache.get(user.getId(), "accounts", "active",
+                    () -> accountRepository.findByUserIdAndIsActiveTrue(user.getId()).stream()
+                            .map(responseMapper::toResponse)
+                            .collect(Collectors.toList()));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -112,7 +101,7 @@ public class AccountController {
             account.setUser(user);
 
             Account savedAccount = accountRepository.save(account);
-            AccountResponse response = convertToResponse(savedAccount);
+            AccountResponse response = responseMapper.toResponse(savedAccount);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -163,7 +152,7 @@ public class AccountController {
             account.setColor(request.getColor());
 
             Account updatedAccount = accountRepository.save(account);
-            AccountResponse response = convertToResponse(updatedAccount);
+            AccountResponse response = responseMapper.toResponse(updatedAccount);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -222,7 +211,7 @@ public class AccountController {
                 return ResponseEntity.notFound().build();
             }
 
-            AccountResponse response = convertToResponse(accountOpt.get());
+            AccountResponse response = responseMapper.toResponse(accountOpt.get());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -1,14 +1,23 @@
 package com.expensetracker.controller;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.expensetracker.dto.ApiResponse;
 import com.expensetracker.dto.JwtResponse;
 import com.expensetracker.dto.LoginRequest;
+import com.expensetracker.dto.RefreshTokenRequest;
 import com.expensetracker.dto.RegisterRequest;
 import com.expensetracker.entity.User;
 import com.expensetracker.security.JwtUtil;
+import com.expensetracker.security.LoginAttemptLimiter;
+import com.expensetracker.security.TokenRevocationService;
+import com.expensetracker.service.PasswordHashingService;
+import com.expensetracker.service.RefreshTokenService;
 import com.expensetracker.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,6 +28,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -34,8 +46,40 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                                                 HttpServletRequest request) {
+        long start = System.nanoTime();
+        long waitNanos = loginAttemptLimiter.tryAttempt(loginRequest.getEmail(), request.getRemoteAddr());
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            return CompletableFuture.completedFuture(recordLogin(start, ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                    .body(ApiResponse.error("Too many login attempts, retry in " + retryAfter + "s"))));
+        }
+
+        // Hashing runs on its own bounded pool; the request thread is released meanwhile
+        return passwordHashingService.<ResponseEntity<?>>submit(() -> authenticate(loginRequest))
+                .exceptionally(this::hashingFailed)
+                .thenApply(response -> recordLogin(start, response));
+    }
+
+    private ResponseEntity<?> authenticate(LoginRequest loginRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -52,15 +96,10 @@ public class AuthController {
             }
 
             User user = userOptional.get();
-            String jwt = jwtUtil.generateToken(user.getEmail(), user.getId());
-
-            return ResponseEntity.ok(new JwtResponse(jwt,
-                    user.getId(),
-                    user.getEmail(),
-                    user.getFirstName(),
-                    user.getLastName()));
+            return ResponseEntity.ok(issueTokens(user, refreshTokenService.issue(user)));
 
         } catch (BadCredentialsException e) {
+            loginAttemptLimiter.recordFailure(loginRequest.getEmail());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error("Invalid email or password!"));
         } catch (Exception e) {
@@ -70,7 +109,21 @@ public class AuthController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody RegisterRequest registerRequest,
+                                                             HttpServletRequest request) {
+        // Registration hashes a password too, so it shares the per-IP budget and the hashing pool
+        long waitNanos = loginAttemptLimiter.tryAttempt(null, request.getRemoteAddr());
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                    .body(ApiResponse.error("Too many attempts, retry in " + retryAfter + "s")));
+        }
+        return passwordHashingService.<ResponseEntity<?>>submit(() -> register(registerRequest))
+                .exceptionally(this::hashingFailed);
+    }
+
+    private ResponseEntity<?> register(RegisterRequest registerRequest) {
         try {
             // Check if email already exists
             if (userService.existsByEmail(registerRequest.getEmail())) {
@@ -88,14 +141,7 @@ public class AuthController {
 
             User savedUser = userService.createUser(user);
 
-            // Generate JWT token
-            String jwt = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getId());
-
-            return ResponseEntity.ok(new JwtResponse(jwt,
-                    savedUser.getId(),
-                    savedUser.getEmail(),
-                    savedUser.getFirstName(),
-                    savedUser.getLastName()));
+            return ResponseEntity.ok(issueTokens(savedUser, refreshTokenService.issue(savedUser)));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -103,22 +149,109 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        try {
+            Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+            if (rotation.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(ApiResponse.error("Invalid or expired refresh token"));
+            }
+            return ResponseEntity.ok(issueTokens(rotation.get().getUser(), rotation.get().getRefreshToken()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("An error occurred while refreshing the token"));
+        }
+    }
+
+    /**
+     * Revokes the presented access token and the refresh token family it belongs to.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                    @RequestBody(required = false) RefreshTokenRequest refreshRequest) {
+        try {
+            DecodedJWT jwt = verifyHeader(authHeader);
+            if (jwt != null) {
+                tokenRevocationService.revokeToken(jwt);
+            }
+            if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+                refreshTokenService.revoke(refreshRequest.getRefreshToken());
+            }
+            return ResponseEntity.ok(ApiResponse.success("Logged out successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("An error occurred during logout"));
+        }
+    }
+
+    /**
+     * Signs the user out on every device: all refresh tokens and every access token issued so far.
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll(@RequestHeader("Authorization") String authHeader) {
+        try {
+            DecodedJWT jwt = verifyHeader(authHeader);
+            if (jwt == null || tokenRevocationService.isRevoked(jwt)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(ApiResponse.error("Invalid token"));
+            }
+            Long userId = jwt.getClaim("userId").asLong();
+            refreshTokenService.revokeAll(userId);
+            tokenRevocationService.revokeAllForUser(userId);
+            return ResponseEntity.ok(ApiResponse.success("Logged out from all devices"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("An error occurred during logout"));
+        }
+    }
+
+    private JwtResponse issueTokens(User user, String refreshToken) {
+        JwtResponse response = new JwtResponse(jwtUtil.generateToken(user.getEmail(), user.getId()),
+                user.getId(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName());
+        response.setRefreshToken(refreshToken);
+        response.setExpiresIn(jwtUtil.getExpirationSeconds());
+        return response;
+    }
+
+    private DecodedJWT verifyHeader(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        return jwtUtil.verify(authHeader.substring(7));
+    }
+
+    private ResponseEntity<?> hashingFailed(Throwable e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.error("Server is busy, please retry shortly"));
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("An error occurred during authentication"));
+    }
+
+    private ResponseEntity<?> recordLogin(long start, ResponseEntity<?> response) {
+        meterRegistry.timer("auth.login", "status", Integer.toString(response.getStatusCode().value()))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return response;
+    }
+
     @GetMapping("/validate")
     public ResponseEntity<?> validateToken(@RequestHeader("Authorization") String authHeader) {
         try {
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                
-                if (jwtUtil.validateToken(token) && !jwtUtil.isTokenExpired(token)) {
-                    String email = jwtUtil.getEmailFromToken(token);
-                    
-                    Optional<User> userOptional = userService.findByEmail(email);
-                    if (userOptional.isPresent()) {
-                        User user = userOptional.get();
-                        return ResponseEntity.ok(ApiResponse.success("Token is valid", 
-                            new JwtResponse(token, user.getId(), user.getEmail(), 
-                                          user.getFirstName(), user.getLastName())));
-                    }
+            DecodedJWT jwt = verifyHeader(authHeader);
+            if (jwt != null && !tokenRevocationService.isRevoked(jwt)) {
+                Optional<User> userOptional = userService.findByEmail(jwt.getSubject());
+                if (userOptional.isPresent()) {
+                    User user = userOptional.get();
+                    return ResponseEntity.ok(ApiResponse.success("Token is valid",
+                        new JwtResponse(jwt.getToken(), user.getId(), user.getEmail(),
+                                      user.getFirstName(), user.getLastName())));
                 }
             }
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -0,0 +1,131 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.AccountResponse;
+import com.expensetracker.dto.ApiResponse;
+import com.expensetracker.dto.BootstrapResponse;
+import com.expensetracker.dto.BudgetResponse;
+import com.expensetracker.dto.CategoryResponse;
+import com.expensetracker.dto.DashboardSummary;
+import com.expensetracker.dto.TransactionResponse;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.AccountRepository;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.security.JwtUtil;
+import com.expensetracker.service.ParallelQueryService;
+import com.expensetracker.service.TransactionService;
+import com.expensetracker.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Everything the initial screen needs in one round trip. The sections are loaded concurrently;
+ * a section that fails or times out is left null and reported in {@code errors}.
+ */
+@RestController
+@RequestMapping("/api/bootstrap")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class BootstrapController {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private ParallelQueryService parallelQueryService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ResponseMapper responseMapper;
+
+    private User getUserFromToken(String authHeader) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7);
+            String email = jwtUtil.getEmailFromToken(token);
+            return userService.findByEmail(email).orElse(null);
+        }
+        return null;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getBootstrap(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "5") int recentLimit) {
+
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        try {
+            // Entities are converted on the worker, inside its transaction, so lazy associations resolve there
+            ParallelQueryService.FanOut fanOut = parallelQueryService.fanOut();
+            CompletableFuture<BigDecimal> income = fanOut.submit("totalIncome",
+                    () -> transactionService.getTotalIncomeByUser(user));
+            CompletableFuture<BigDecimal> expenses = fanOut.submit("totalExpenses",
+                    () -> transactionService.getTotalExpensesByUser(user));
+            CompletableFuture<Long> count = fanOut.submit("totalTransactions",
+                    () -> transactionService.countByUser(user));
+            CompletableFuture<List<TransactionResponse>> recent = fanOut.submit("recentTransactions",
+                    () -> transactionService.getRecentTransactions(user, recentLimit).stream()
+                            .map(responseMapper::toResponse)
+                            .collect(Collectors.toList()));
+            CompletableFuture<List<CategoryResponse>> categories = fanOut.submit("categories",
+                    () -> categoryRepository.findByUserIdAndIsActiveTrue(user.getId()).stream()
+                            .map(responseMapper::toResponse)
+                            .collect(Collectors.toList()));
+            CompletableFuture<List<AccountResponse>> accounts = fanOut.submit("accounts",
+                    () -> accountRepository.findByUserIdAndIsActiveTrue(user.getId()).stream()
+                            .map(responseMapper::toResponse)
+                            .collect(Collectors.toList()));
+            CompletableFuture<List<BudgetResponse>> budgets = fanOut.submit("budgets",
+                    () -> budgetRepository.findByUserIdAndIsActiveTrue(user.getId()).stream()
+                            .map(responseMapper::toResponse)
+                            .collect(Collectors.toList()));
+
+            BootstrapResponse response = new BootstrapResponse();
+            BigDecimal totalIncome = fanOut.get("totalIncome", income);
+            BigDecimal totalExpenses = fanOut.get("totalExpenses", expenses);
+            Long totalTransactions = fanOut.get("totalTransactions", count);
+            if (totalIncome != null && totalExpenses != null && totalTransactions != null) {
+                response.setSummary(new DashboardSummary(totalIncome, totalExpenses,
+                        totalIncome.subtract(totalExpenses), Math.toIntExact(totalTransactions)));
+            }
+            response.setRecentTransactions(fanOut.get("recentTransactions", recent));
+            response.setCategories(fanOut.get("categories", categories));
+            response.setAccounts(fanOut.get("accounts", accounts));
+            response.setBudgets(fanOut.get("budgets", budgets));
+            response.setErrors(fanOut.getErrors());
+
+            if (fanOut.getErrors().size() == fanOut.size()) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(ApiResponse.error("Failed to retrieve bootstrap data"));
+            }
+            return ResponseEntity.ok(ApiResponse.success("Bootstrap data retrieved successfully", response));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve bootstrap data"));
+        }
+    }
+}
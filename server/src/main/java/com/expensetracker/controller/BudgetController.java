@@ -8,8 +8,8 @@ import com.expensetracker.entity.Category;
 import com.expensetracker.entity.User;
 import com.expensetracker.repository.BudgetRepository;
 import com.expensetracker.repository.CategoryRepository;
-import com.expensetracker.repository.TransactionRepository;
 import com.expensetracker.security.JwtUtil;
+import com.expensetracker.service.SingleFlight;
 import com.expensetracker.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,10 +17,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -35,7 +35,7 @@ public class BudgetController {
     private CategoryRepository categoryRepository;
 
     @Autowired
-    private TransactionRepository transactionRepository;
+    private SingleFlight singleFlight;
 
     @Autowired
     private UserService userService;
@@ -43,6 +43,9 @@ public class BudgetController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ResponseMapper responseMapper;
+
     private User getUserFromToken(String authHeader) {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
@@ -52,63 +55,35 @@ public class BudgetController {
         return null;
     }
 
-    private BudgetResponse convertToResponse(Budget budget) {
-        BudgetResponse response = new BudgetResponse();
-        response.setId(budget.getId());
-        response.setAmount(budget.getAmount());
-        response.setPeriod(budget.getPeriod());
-        response.setStartDate(budget.getStartDate());
-        response.setEndDate(budget.getEndDate());
-        response.setAlertThreshold(budget.getAlertThreshold());
-        response.setIsActive(budget.getIsActive());
-        response.setNotes(budget.getNotes());
-        response.setCreatedAt(budget.getCreatedAt());
-        response.setUpdatedAt(budget.getUpdatedAt());
-
-        if (budget.getCategory() != null) {
-            response.setCategoryId(budget.getCategory().getId());
-            response.setCategoryName(budget.getCategory().getName());
-            response.setCategoryIcon(budget.getCategory().getIcon());
-            response.setCategoryColor(budget.getCategory().getColor());
-        }
-
-        // Calculate spent amount based on budget period
-        BigDecimal spent = calculateSpentAmount(budget);
-        response.setSpent(spent != null ? spent : BigDecimal.ZERO);
-
-        return response;
-    }
-
-    private BigDecimal calculateSpentAmount(Budget budget) {
-        if (budget.getCategory() == null || budget.getUser() == null) {
-            return BigDecimal.ZERO;
-        }
-
-        LocalDate endDate = budget.getEndDate() != null ? budget.getEndDate() : LocalDate.now();
-        
-        return transactionRepository.getSpentByCategoryAndDateRange(
-                budget.getUser().getId(),
-                budget.getCategory().getId(),
-                budget.getStartDate(),
-                endDate
-        );
-    }
-
     @GetMapping
-    public ResponseEntity<?> getAllBudgets(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getAllBudgets(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) List<String> fields) {
+
         User user = getUserFromToken(authHeader);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error("Invalid token"));
         }
 
+        Set<String> selected;
         try {
-            List<Budget> budgets = budgetRepository.findByUserIdAndIsActiveTrue(user.getId());
-            List<BudgetResponse> response = budgets.stream()
-                    .map(this::convertToResponse)
+            selected = FieldSelection.parse(fields, BudgetResponse.class);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+
+        try {
+            Supplier<List<BudgetResponse>> load = () -> budgetRepository.findByUserIdAndIsActiveTrue(user.getId()).stream()
+                    .map(budget -> responseMapper.toResponse(budget, selected))
                     .collect(Collectors.toList());
+            // Duplicate concurrent requests (several devices, SPA re-renders) share one computation;
+            // field selections vary too much to share
+            List<BudgetResponse> response = selected == null
+                    ? singleFlight.execute("budgets", user.getId(), load)
+                    : load.get();
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(FieldSelection.apply(response, selected));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Failed to fetch budgets: " + e.getMessage()));
@@ -156,7 +131,8 @@ public class BudgetController {
             budget.setCategory(category);
 
             Budget savedBudget = budgetRepository.save(budget);
-            BudgetResponse response = convertToResponse(savedBudget);
+            singleFlight.forget(user.getId());
+            BudgetResponse response = responseMapper.toResponse(savedBudget);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -216,7 +192,8 @@ public class BudgetController {
             budget.setNotes(request.getNotes());
 
             Budget updatedBudget = budgetRepository.save(budget);
-            BudgetResponse response = convertToResponse(updatedBudget);
+            singleFlight.forget(user.getId());
+            BudgetResponse response = responseMapper.toResponse(updatedBudget);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -248,6 +225,7 @@ public class BudgetController {
             // Soft delete by setting isActive to false
             budget.setIsActive(false);
             budgetRepository.save(budget);
+            singleFlight.forget(user.getId());
 
             return ResponseEntity.ok(ApiResponse.success("Budget deleted successfully"));
         } catch (Exception e) {
@@ -274,7 +252,7 @@ public class BudgetController {
                 return ResponseEntity.notFound().build();
             }
 
-            BudgetResponse response = convertToResponse(budgetOpt.get());
+            BudgetResponse response = responseMapper.toResponse(budgetOpt.get());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
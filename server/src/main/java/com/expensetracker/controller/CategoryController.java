@@ -8,6 +8,7 @@ import com.expensetracker.entity.User;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.security.JwtUtil;
 import com.expensetracker.service.UserService;
+import com.expensetracker.service.VersionedCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -32,6 +33,12 @@ public class CategoryController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ResponseMapper responseMapper;
+
+    @Autowired
+    private VersionedCache versionedCache;
+
     private User getUserFromToken(String authHeader) {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
@@ -41,20 +48,6 @@ public class CategoryController {
         return null;
     }
 
-    private CategoryResponse convertToResponse(Category category) {
-        CategoryResponse response = new CategoryResponse();
-        response.setId(category.getId());
-        response.setName(category.getName());
-        response.setType(category.getType());
-        response.setIcon(category.getIcon());
-        response.setColor(category.getColor());
-        response.setDescription(category.getDescription());
-        response.setIsActive(category.getIsActive());
-        response.setCreatedAt(category.getCreatedAt());
-        response.setUpdatedAt(category.getUpdatedAt());
-        return response;
-    }
-
     @GetMapping
     public ResponseEntity<?> getAllCategories(@RequestHeader("Authorization") String authHeader) {
         User user = getUserFromToken(authHeader);
@@ -64,10 +57,10 @@ public class CategoryController {
         }
 
         try {
-            List<Category> categories = categoryRepository.findByUserIdAndIsActiveTrue(user.getId());
-            List<CategoryResponse> response = categories.stream()
-                    .map(this::convertToResponse)
-                    .collect(Collectors.toList());
+            List<CategoryResponse> response = versionedCache.get(user.getId(), "categories", "active",
+                    () -> categoryRepository.findByUserIdAndIsActiveTrue(user.getId()).stream()
+                            .map(responseMapper::toResponse)
+                            .collect(Collectors.toList()));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -104,7 +97,7 @@ public class CategoryController {
             category.setUser(user);
 
             Category savedCategory = categoryRepository.save(category);
-            CategoryResponse response = convertToResponse(savedCategory);
+            CategoryResponse response = responseMapper.toResponse(savedCategory);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -151,7 +144,7 @@ public class CategoryController {
             }
 
             Category updatedCategory = categoryRepository.save(category);
-            CategoryResponse response = convertToResponse(updatedCategory);
+            CategoryResponse response = responseMapper.toResponse(updatedCategory);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -210,7 +203,7 @@ public class CategoryController {
                 return ResponseEntity.notFound().build();
             }
 
-            CategoryResponse response = convertToResponse(categoryOpt.get());
+            CategoryResponse response = responseMapper.toResponse(categoryOpt.get());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
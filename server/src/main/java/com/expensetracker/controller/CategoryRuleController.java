@@ -0,0 +1,256 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.ApiResponse;
+import com.expensetracker.dto.CategoryRuleRequest;
+import com.expensetracker.dto.CategoryRuleResponse;
+import com.expensetracker.entity.Account;
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.CategoryRule;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.AccountRepository;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.CategoryRuleRepository;
+import com.expensetracker.security.JwtUtil;
+import com.expensetracker.service.CategorizationService;
+import com.expensetracker.service.RuleMatcher;
+import com.expensetracker.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/rules")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class CategoryRuleController {
+
+    @Autowired
+    private CategoryRuleRepository categoryRuleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CategorizationService categorizationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${rules.max-per-user:1000}")
+    private long maxRulesPerUser;
+
+    private User getUserFromToken(String authHeader) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7);
+            String email = jwtUtil.getEmailFromToken(token);
+            return userService.findByEmail(email).orElse(null);
+        }
+        return null;
+    }
+
+    private CategoryRuleResponse convertToResponse(CategoryRule rule) {
+        CategoryRuleResponse response = new CategoryRuleResponse();
+        response.setId(rule.getId());
+        response.setKeyword(rule.getKeyword());
+        response.setMinAmount(rule.getMinAmount());
+        response.setMaxAmount(rule.getMaxAmount());
+        response.setPriority(rule.getPriority());
+        response.setIsActive(rule.getIsActive());
+        response.setCreatedAt(rule.getCreatedAt());
+        response.setUpdatedAt(rule.getUpdatedAt());
+
+        if (rule.getCategory() != null) {
+            response.setCategoryId(rule.getCategory().getId());
+            response.setCategoryName(rule.getCategory().getName());
+            response.setCategoryType(rule.getCategory().getType());
+        }
+
+        if (rule.getAccount() != null) {
+            response.setAccountId(rule.getAccount().getId());
+            response.setAccountName(rule.getAccount().getName());
+        }
+
+        return response;
+    }
+
+    // Validates the request against the user's categories and accounts; returns an error message or null
+    private String applyRequest(CategoryRule rule, CategoryRuleRequest request, User user) {
+        Optional<Category> categoryOpt = categoryRepository.findById(request.getCategoryId());
+        if (categoryOpt.isEmpty() || !categoryOpt.get().getUser().getId().equals(user.getId())) {
+            return "Invalid category";
+        }
+
+        Account account = null;
+        if (request.getAccountId() != null) {
+            Optional<Account> accountOpt = accountRepository.findById(request.getAccountId());
+            if (accountOpt.isEmpty() || !accountOpt.get().getUser().getId().equals(user.getId())) {
+                return "Invalid account";
+            }
+            account = accountOpt.get();
+        }
+
+        String keyword = RuleMatcher.normalizeKeyword(request.getKeyword());
+        if (keyword.isEmpty() && account == null && request.getMinAmount() == null && request.getMaxAmount() == null) {
+            return "A rule needs a keyword, an account or an amount range";
+        }
+        if (request.getMinAmount() != null && request.getMaxAmount() != null
+                && request.getMinAmount().compareTo(request.getMaxAmount()) > 0) {
+            return "Minimum amount cannot exceed maximum amount";
+        }
+
+        rule.setKeyword(keyword.isEmpty() ? null : keyword);
+        rule.setCategory(categoryOpt.get());
+        rule.setAccount(account);
+        rule.setMinAmount(request.getMinAmount());
+        rule.setMaxAmount(request.getMaxAmount());
+        rule.setPriority(request.getPriority() != null ? request.getPriority() : CategoryRule.DEFAULT_PRIORITY);
+        rule.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
+        return null;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getAllRules(@RequestHeader("Authorization") String authHeader) {
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        try {
+            List<CategoryRuleResponse> response = categoryRuleRepository.findByUserIdOrderByPriorityAscIdAsc(user.getId())
+                    .stream()
+                    .map(this::convertToResponse)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(ApiResponse.success("Rules retrieved successfully", response));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve rules"));
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createRule(
+            @Valid @RequestBody CategoryRuleRequest request,
+            @RequestHeader("Authorization") String authHeader) {
+
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        try {
+            if (categoryRuleRepository.countByUserId(user.getId()) >= maxRulesPerUser) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Rule limit reached (" + maxRulesPerUser + ")"));
+            }
+
+            CategoryRule rule = new CategoryRule();
+            rule.setUser(user);
+            String error = applyRequest(rule, request, user);
+            if (error != null) {
+                return ResponseEntity.badRequest().body(ApiResponse.error(error));
+            }
+
+            CategoryRule savedRule = categoryRuleRepository.save(rule);
+            categorizationService.rulesChanged(user.getId());
+
+            return ResponseEntity.ok(ApiResponse.success("Rule created successfully", convertToResponse(savedRule)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to create rule"));
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateRule(
+            @PathVariable Long id,
+            @Valid @RequestBody CategoryRuleRequest request,
+            @RequestHeader("Authorization") String authHeader) {
+
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        try {
+            Optional<CategoryRule> ruleOpt = categoryRuleRepository.findById(id);
+            if (ruleOpt.isEmpty() || !ruleOpt.get().getUser().getId().equals(user.getId())) {
+                return ResponseEntity.notFound().build();
+            }
+
+            CategoryRule rule = ruleOpt.get();
+            String error = applyRequest(rule, request, user);
+            if (error != null) {
+                return ResponseEntity.badRequest().body(ApiResponse.error(error));
+            }
+
+            CategoryRule savedRule = categoryRuleRepository.save(rule);
+            categorizationService.rulesChanged(user.getId());
+
+            return ResponseEntity.ok(ApiResponse.success("Rule updated successfully", convertToResponse(savedRule)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to update rule"));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteRule(
+            @PathVariable Long id,
+            @RequestHeader("Authorization") String authHeader) {
+
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        try {
+            Optional<CategoryRule> ruleOpt = categoryRuleRepository.findById(id);
+            if (ruleOpt.isEmpty() || !ruleOpt.get().getUser().getId().equals(user.getId())) {
+                return ResponseEntity.notFound().build();
+            }
+
+            categoryRuleRepository.delete(ruleOpt.get());
+            categorizationService.rulesChanged(user.getId());
+
+            return ResponseEntity.ok(ApiResponse.success("Rule deleted successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to delete rule"));
+        }
+    }
+
+    @PostMapping("/apply")
+    public ResponseEntity<?> applyRules(@RequestHeader("Authorization") String authHeader) {
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        try {
+            Map<String, Long> result = categorizationService.recategorize(user);
+            return ResponseEntity.ok(ApiResponse.success("Rules applied successfully", result));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to apply rules"));
+        }
+    }
+}
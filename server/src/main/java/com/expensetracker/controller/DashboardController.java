@@ -5,6 +5,7 @@ import com.expensetracker.dto.DashboardSummary;
 import com.expensetracker.entity.Transaction;
 import com.expensetracker.entity.User;
 import com.expensetracker.security.JwtUtil;
+import com.expensetracker.service.ParallelQueryService;
 import com.expensetracker.service.TransactionService;
 import com.expensetracker.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -27,6 +29,9 @@ public class DashboardController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ParallelQueryService parallelQueryService;
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -48,14 +53,19 @@ public class DashboardController {
         }
 
         try {
-            // Get financial summary
-            BigDecimal totalIncome = transactionService.getTotalIncomeByUser(user);
-            BigDecimal totalExpenses = transactionService.getTotalExpensesByUser(user);
-            BigDecimal netBalance = transactionService.getNetBalance(user);
-            
-            // Get total transaction count
-            List<Transaction> allTransactions = transactionService.getAllTransactionsByUser(user);
-            int totalTransactions = allTransactions.size();
+            // The aggregates are independent, so run them concurrently
+            ParallelQueryService.FanOut fanOut = parallelQueryService.fanOut();
+            CompletableFuture<BigDecimal> income = fanOut.submit("totalIncome",
+                    () -> transactionService.getTotalIncomeByUser(user));
+            CompletableFuture<BigDecimal> expenses = fanOut.submit("totalExpenses",
+                    () -> transactionService.getTotalExpensesByUser(user));
+            CompletableFuture<Long> count = fanOut.submit("totalTransactions",
+                    () -> transactionService.countByUser(user));
+
+            BigDecimal totalIncome = fanOut.require("totalIncome", income);
+            BigDecimal totalExpenses = fanOut.require("totalExpenses", expenses);
+            BigDecimal netBalance = totalIncome.subtract(totalExpenses);
+            int totalTransactions = Math.toIntExact(fanOut.require("totalTransactions", count));
 
             DashboardSummary summary = new DashboardSummary(
                     totalIncome,
@@ -83,11 +93,7 @@ public class DashboardController {
         }
 
         try {
-            List<Transaction> transactions = transactionService.getAllTransactionsByUser(user);
-            // Take only the first 'limit' transactions since they're already sorted by date desc
-            List<Transaction> recentTransactions = transactions.stream()
-                    .limit(limit)
-                    .toList();
+            List<Transaction> recentTransactions = transactionService.getRecentTransactions(user, limit);
 
             return ResponseEntity.ok(ApiResponse.success("Recent transactions retrieved successfully", recentTransactions));
         } catch (Exception e) {
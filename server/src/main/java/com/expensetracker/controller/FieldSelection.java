@@ -0,0 +1,64 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.config.JacksonConfig;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The {@code fields=} parameter of list endpoints: which properties of a response type to
+ * write. Only types registered in {@link JacksonConfig} can be narrowed.
+ */
+final class FieldSelection {
+
+    private FieldSelection() {
+    }
+
+    /**
+     * The requested fields, or null when the parameter is absent and every field is wanted.
+     *
+     * @throws IllegalArgumentException naming the first field the response type does not have
+     */
+    static Set<String> parse(List<String> fields, Class<?> responseType) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        Set<String> known = new LinkedHashSet<>();
+        for (Field field : responseType.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                known.add(field.getName());
+            }
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!known.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        return selected.isEmpty() ? null : selected;
+    }
+
+    /**
+     * The body, written with only the selected fields of the narrowable responses it contains.
+     */
+    static Object apply(Object body, Set<String> fields) {
+        if (fields == null) {
+            return body;
+        }
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(JacksonConfig.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return value;
+    }
+}
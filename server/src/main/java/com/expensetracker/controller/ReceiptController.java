@@ -0,0 +1,313 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.ApiResponse;
+import com.expensetracker.dto.ReceiptResponse;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.ArchivedReceiptRepository;
+import com.expensetracker.repository.TransactionRepository;
+import com.expensetracker.security.JwtUtil;
+import com.expensetracker.service.ReceiptStore;
+import com.expensetracker.service.ReceiptThumbnailService;
+import com.expensetracker.service.TransactionService;
+import com.expensetracker.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Receipt upload and download. Receipts are content-addressed ({@link ReceiptStore}), so the
+ * download URL never changes meaning: the hash is the ETag and responses are cacheable forever.
+ * Downloads honour single byte ranges and are sent without copying through the heap, by Tomcat's
+ * sendfile where available and {@link FileChannel#transferTo} otherwise.
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ReceiptController {
+
+    // Tomcat sends the file itself (FileChannel.transferTo to the socket) after the handler returns
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    static final long[] UNSATISFIABLE = new long[0];
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ArchivedReceiptRepository archivedReceiptRepository;
+
+    @Autowired
+    private ReceiptStore receiptStore;
+
+    @Autowired
+    private ReceiptThumbnailService thumbnailService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User getUserFromToken(String authHeader) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7);
+            String email = jwtUtil.getEmailFromToken(token);
+            return userService.findByEmail(email).orElse(null);
+        }
+        return null;
+    }
+
+    @PostMapping("/transactions/{id}/receipt")
+    public ResponseEntity<?> uploadReceipt(
+            @PathVariable Long id,
+            @RequestParam("file") MultipartFile file,
+            @RequestHeader("Authorization") String authHeader) {
+
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        try {
+            Optional<Transaction> transactionOpt = transactionService.getTransactionById(id);
+            if (transactionOpt.isEmpty() || !transactionOpt.get().getUser().getId().equals(user.getId())) {
+                return ResponseEntity.notFound().build();
+            }
+            if (file.isEmpty()) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Receipt file is empty"));
+            }
+
+            // Multipart parts are spooled to disk by the container; this streams from there
+            ReceiptStore.StoredReceipt stored;
+            try (InputStream content = file.getInputStream()) {
+                stored = receiptStore.store(content);
+            }
+
+            Transaction transaction = transactionOpt.get();
+            transaction.setReceiptUrl(ReceiptStore.urlOf(stored.getHash()));
+            transactionService.updateTransaction(transaction);
+            thumbnailService.request(stored.getHash(), stored.getContentType());
+
+            return ResponseEntity.ok(ApiResponse.success("Receipt uploaded successfully", convertToResponse(stored)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to upload receipt"));
+        }
+    }
+
+    @DeleteMapping("/transactions/{id}/receipt")
+    public ResponseEntity<?> removeReceipt(
+            @PathVariable Long id,
+            @RequestHeader("Authorization") String authHeader) {
+
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        try {
+            Optional<Transaction> transactionOpt = transactionService.getTransactionById(id);
+            if (transactionOpt.isEmpty() || !transactionOpt.get().getUser().getId().equals(user.getId())) {
+                return ResponseEntity.notFound().build();
+            }
+            // The blob stays; other transactions may point at the same content
+            Transaction transaction = transactionOpt.get();
+            transaction.setReceiptUrl(null);
+            transactionService.updateTransaction(transaction);
+            return ResponseEntity.ok(ApiResponse.success("Receipt removed successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to remove receipt"));
+        }
+    }
+
+    @GetMapping("/receipts/{hash}")
+    public ResponseEntity<?> downloadReceipt(
+            @PathVariable String hash,
+            @RequestHeader("Authorization") String authHeader,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        Path blob = receiptStore.find(hash);
+        if (blob == null || !ownsReceipt(user, hash)) {
+            return ResponseEntity.notFound().build();
+        }
+        String contentType = ReceiptStore.contentTypeOf(blob);
+        String extension = "application/pdf".equals(contentType) ? "pdf" : contentType.substring("image/".length());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "inline; filename=\"receipt-" + hash.substring(0, 12) + "." + extension + "\"");
+        sendFile(blob, contentType, "\"" + hash + "\"", request, response);
+        return null;
+    }
+
+    @GetMapping("/receipts/{hash}/thumbnail")
+    public ResponseEntity<?> downloadThumbnail(
+            @PathVariable String hash,
+            @RequestHeader("Authorization") String authHeader,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        Path blob = receiptStore.find(hash);
+        if (blob == null || !ownsReceipt(user, hash)) {
+            return ResponseEntity.notFound().build();
+        }
+        Path thumbnail = receiptStore.thumbnailPath(hash);
+        if (!Files.isRegularFile(thumbnail)) {
+            String contentType = ReceiptStore.contentTypeOf(blob);
+            if (!contentType.startsWith("image/")) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("No thumbnail for this receipt type"));
+            }
+            // Generation was dropped or is still queued
+            thumbnailService.request(hash, contentType);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.error("Thumbnail is not ready yet"));
+        }
+        sendFile(thumbnail, "image/jpeg", "\"" + hash + "-thumbnail\"", request, response);
+        return null;
+    }
+
+    // Any of the user's transactions, current or archived, referencing the receipt
+    private boolean ownsReceipt(User user, String hash) {
+        String url = ReceiptStore.urlOf(hash);
+        return transactionRepository.existsByUserIdAndReceiptUrl(user.getId(), url)
+                || archivedReceiptRepository.existsByUserIdAndReceiptUrl(user.getId(), url);
+    }
+
+    private void sendFile(Path file, String contentType, String etag, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        long size = Files.size(file);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Content at a URL never changes
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        // A stale If-Range validator means the client wants the whole file
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        long[] range = ifRange == null || ifRange.equals(etag) ? byteRange(request.getHeader(HttpHeaders.RANGE), size) : null;
+        if (range == UNSATISFIABLE) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            return;
+        }
+        long start = 0;
+        long length = size;
+        if (range != null) {
+            start = range[0];
+            length = range[1] - range[0] + 1;
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range[0] + "-" + range[1] + "/" + size);
+        }
+        response.setContentType(contentType);
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, output);
+            }
+        }
+    }
+
+    /**
+     * The single byte range requested, as {start, end} inclusive; null to send the whole file
+     * (no, malformed or multiple ranges) and {@link #UNSATISFIABLE} if it starts past the end.
+     */
+    static long[] byteRange(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return UNSATISFIABLE;
+                }
+                return size == 0 ? UNSATISFIABLE : new long[]{Math.max(0, size - suffix), size - 1};
+            }
+            long start = Long.parseLong(spec.substring(0, dash));
+            long end = dash == spec.length() - 1 ? size - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), size - 1);
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return end < start ? null : new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private ReceiptResponse convertToResponse(ReceiptStore.StoredReceipt stored) {
+        ReceiptResponse response = new ReceiptResponse();
+        response.setReceiptUrl(ReceiptStore.urlOf(stored.getHash()));
+        if (stored.getContentType().startsWith("image/")) {
+            response.setThumbnailUrl(ReceiptStore.urlOf(stored.getHash()) + "/thumbnail");
+        }
+        response.setContentType(stored.getContentType());
+        response.setSize(stored.getSize());
+        response.setSha256(stored.getHash());
+        return response;
+    }
+}
@@ -0,0 +1,141 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.AccountResponse;
+import com.expensetracker.dto.BudgetResponse;
+import com.expensetracker.dto.CategoryResponse;
+import com.expensetracker.dto.TransactionResponse;
+import com.expensetracker.entity.Account;
+import com.expensetracker.entity.Budget;
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.service.TransactionService;
+import com.expensetracker.service.TransactionTagService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Entity to response conversion, shared by the resource controllers and the bootstrap endpoint
+ * so that both return the same shapes.
+ */
+@Component
+public class ResponseMapper {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    public TransactionResponse toResponse(Transaction transaction) {
+        TransactionResponse response = new TransactionResponse();
+        response.setId(transaction.getId());
+        response.setDescription(transaction.getDescription());
+        response.setAmount(transaction.getAmount());
+        response.setType(transaction.getType());
+        response.setTransactionDate(transaction.getTransactionDate());
+        response.setNotes(transaction.getNotes());
+        response.setReceiptUrl(transaction.getReceiptUrl());
+        response.setTags(TransactionTagService.parse(transaction.getTags()));
+        response.setCreatedAt(transaction.getCreatedAt());
+        response.setUpdatedAt(transaction.getUpdatedAt());
+
+        if (transaction.getCategory() != null) {
+            response.setCategoryId(transaction.getCategory().getId());
+            response.setCategoryName(transaction.getCategory().getName());
+            response.setCategoryIcon(transaction.getCategory().getIcon());
+            response.setCategoryColor(transaction.getCategory().getColor());
+        }
+
+        if (transaction.getAccount() != null) {
+            response.setAccountId(transaction.getAccount().getId());
+            response.setAccountName(transaction.getAccount().getName());
+        }
+
+        return response;
+    }
+
+    public CategoryResponse toResponse(Category category) {
+        CategoryResponse response = new CategoryResponse();
+        response.setId(category.getId());
+        response.setName(category.getName());
+        response.setType(category.getType());
+        response.setIcon(category.getIcon());
+        response.setColor(category.getColor());
+        response.setDescription(category.getDescription());
+        response.setIsActive(category.getIsActive());
+        response.setCreatedAt(category.getCreatedAt());
+        response.setUpdatedAt(category.getUpdatedAt());
+        return response;
+    }
+
+    public AccountResponse toResponse(Account account) {
+        AccountResponse response = new AccountResponse();
+        response.setId(account.getId());
+        response.setName(account.getName());
+        response.setType(account.getType());
+        response.setBalance(account.getBalance());
+        response.setCurrency(account.getCurrency());
+        response.setDescription(account.getDescription());
+        response.setBankName(account.getBankName());
+        response.setAccountNumber(account.getAccountNumber());
+        response.setIsActive(account.getIsActive());
+        response.setIcon(account.getIcon());
+        response.setColor(account.getColor());
+        response.setCreatedAt(account.getCreatedAt());
+        response.setUpdatedAt(account.getUpdatedAt());
+        return response;
+    }
+
+    public BudgetResponse toResponse(Budget budget) {
+        return toResponse(budget, null);
+    }
+
+    // With a field selection, the category is only loaded and the spent total only summed when selected
+    public BudgetResponse toResponse(Budget budget, Set<String> fields) {
+        BudgetResponse response = new BudgetResponse();
+        response.setId(budget.getId());
+        response.setAmount(budget.getAmount());
+        response.setPeriod(budget.getPeriod());
+        response.setStartDate(budget.getStartDate());
+        response.setEndDate(budget.getEndDate());
+        response.setAlertThreshold(budget.getAlertThreshold());
+        response.setIsActive(budget.getIsActive());
+        response.setNotes(budget.getNotes());
+        response.setCreatedAt(budget.getCreatedAt());
+        response.setUpdatedAt(budget.getUpdatedAt());
+
+        if (budget.getCategory() != null) {
+            response.setCategoryId(budget.getCategory().getId());
+            if (fields == null || fields.contains("categoryName") || fields.contains("categoryIcon")
+                    || fields.contains("categoryColor")) {
+                response.setCategoryName(budget.getCategory().getName());
+                response.setCategoryIcon(budget.getCategory().getIcon());
+                response.setCategoryColor(budget.getCategory().getColor());
+            }
+        }
+
+        // Calculate spent amount based on budget period
+        if (fields == null || fields.contains("spent")) {
+            BigDecimal spent = calculateSpentAmount(budget);
+            response.setSpent(spent != null ? spent : BigDecimal.ZERO);
+        }
+
+        return response;
+    }
+
+    private BigDecimal calculateSpentAmount(Budget budget) {
+        if (budget.getCategory() == null || budget.getUser() == null) {
+            return BigDecimal.ZERO;
+        }
+
+        LocalDate endDate = budget.getEndDate() != null ? budget.getEndDate() : LocalDate.now();
+
+        return transactionService.getSpentByCategoryAndDateRange(
+                budget.getUser(),
+                budget.getCategory().getId(),
+                budget.getStartDate(),
+                endDate
+        );
+    }
+}
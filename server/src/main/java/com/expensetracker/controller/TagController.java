@@ -0,0 +1,92 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.ApiResponse;
+import com.expensetracker.entity.User;
+import com.expensetracker.security.JwtUtil;
+import com.expensetracker.service.TransactionService;
+import com.expensetracker.service.TransactionTagService;
+import com.expensetracker.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tags")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class TagController {
+
+    // Bounds used when the caller gives no date range: the whole history
+    private static final LocalDate EARLIEST = LocalDate.of(1970, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionTagService transactionTagService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User getUserFromToken(String authHeader) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7);
+            String email = jwtUtil.getEmailFromToken(token);
+            return userService.findByEmail(email).orElse(null);
+        }
+        return null;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getTags(@RequestHeader("Authorization") String authHeader) {
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        try {
+            List<TransactionTagService.TagTotal> tags = transactionTagService.countByTag(user.getId());
+            return ResponseEntity.ok(ApiResponse.success("Tags retrieved successfully", tags));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve tags"));
+        }
+    }
+
+    @GetMapping("/spend")
+    public ResponseEntity<?> getSpendByTag(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "expense") String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        if (!"expense".equals(type) && !"income".equals(type)) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Type must be either 'income' or 'expense'"));
+        }
+
+        try {
+            List<TransactionTagService.TagTotal> totals = transactionService.getTagTotals(user, type,
+                    startDate != null ? startDate : EARLIEST, endDate != null ? endDate : LATEST);
+            return ResponseEntity.ok(ApiResponse.success("Tag totals retrieved successfully", totals));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve tag totals"));
+        }
+    }
+}
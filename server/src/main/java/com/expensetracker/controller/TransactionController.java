@@ -1,25 +1,45 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.dto.ApiResponse;
+import com.expensetracker.dto.SuggestionResponse;
+import com.expensetracker.dto.TransactionPageResponse;
 import com.expensetracker.dto.TransactionRequest;
 import com.expensetracker.dto.TransactionResponse;
 import com.expensetracker.entity.*;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.AccountRepository;
+import com.expensetracker.repository.TransactionFilter;
 import com.expensetracker.security.JwtUtil;
+import com.expensetracker.service.CategorizationService;
+import com.expensetracker.service.SuggestionIndex;
+import com.expensetracker.service.SuggestionTrie;
+import com.expensetracker.service.TransactionFilterService;
 import com.expensetracker.service.TransactionService;
+import com.expensetracker.service.TransactionStreamService;
+import com.expensetracker.service.TransactionTagService;
 import com.expensetracker.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -42,6 +62,27 @@ public class TransactionController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ResponseMapper responseMapper;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private CategorizationService categorizationService;
+
+    @Autowired
+    private TransactionFilterService transactionFilterService;
+
+    @Autowired
+    private TransactionStreamService transactionStreamService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${stream.max-rows:100000}")
+    private int streamMaxRows;
+
     private User getUserFromToken(String authHeader) {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
@@ -51,29 +92,13 @@ public class TransactionController {
         return null;
     }
 
-    private TransactionResponse convertToResponse(Transaction transaction) {
-        TransactionResponse response = new TransactionResponse();
-        response.setId(transaction.getId());
-        response.setDescription(transaction.getDescription());
-        response.setAmount(transaction.getAmount());
-        response.setType(transaction.getType());
-        response.setTransactionDate(transaction.getTransactionDate());
-        response.setNotes(transaction.getNotes());
-        response.setCreatedAt(transaction.getCreatedAt());
-        response.setUpdatedAt(transaction.getUpdatedAt());
-
-        if (transaction.getCategory() != null) {
-            response.setCategoryId(transaction.getCategory().getId());
-            response.setCategoryName(transaction.getCategory().getName());
-            response.setCategoryIcon(transaction.getCategory().getIcon());
-            response.setCategoryColor(transaction.getCategory().getColor());
-        }
-
-        if (transaction.getAccount() != null) {
-            response.setAccountId(transaction.getAccount().getId());
-            response.setAccountName(transaction.getAccount().getName());
-        }
-
+    private SuggestionResponse convertToResponse(SuggestionTrie.Suggestion suggestion) {
+        SuggestionResponse response = new SuggestionResponse();
+        response.setDescription(suggestion.getDescription());
+        response.setCategoryId(suggestion.getCategoryId());
+        response.setAccountId(suggestion.getAccountId());
+        response.setUses(suggestion.getUses());
+        response.setLastUsed(suggestion.getLastUsed());
         return response;
     }
 
@@ -81,7 +106,10 @@ public class TransactionController {
     public ResponseEntity<?> getAllTransactions(
             @RequestHeader("Authorization") String authHeader,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(defaultValue = "any") String tagMode,
+            @RequestParam(required = false) List<String> fields) {
         
         User user = getUserFromToken(authHeader);
         if (user == null) {
@@ -89,18 +117,231 @@ public class TransactionController {
                     .body(ApiResponse.error("Invalid token"));
         }
 
+        Set<String> selected;
+        try {
+            selected = FieldSelection.parse(fields, TransactionResponse.class);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+
         try {
             Pageable pageable = PageRequest.of(page, size);
-            Page<Transaction> transactions = transactionService.getTransactionsByUser(user, pageable);
+            List<String> tagFilter = TransactionTagService.normalize(tags);
+            List<Transaction> transactions;
+            if (!tagFilter.isEmpty()) {
+                transactions = transactionService.getTransactionsByTags(user, tagFilter,
+                        "all".equalsIgnoreCase(tagMode), pageable).getContent();
+            } else if (selected != null) {
+                transactions = transactionService.getTransactionsByUser(user, pageable, selected);
+            } else {
+                transactions = transactionService.getTransactionsByUser(user, pageable).getContent();
+            }
             
-            List<TransactionResponse> responseList = transactions.getContent().stream()
+            List<TransactionResponse> responseList = transactions.stream()
+                    .map(responseMapper::toResponse)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(FieldSelection.apply(
+                    ApiResponse.success("Transactions retrieved successfully", responseList), selected));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve transactions"));
+        }
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<?> filterTransactions(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) List<Long> accountIds,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "approximate") String count,
+            @RequestParam(required = false) List<String> fields) {
+
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        if (limit < 1 || limit > 200) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Limit must be between 1 and 200"));
+        }
+
+        TransactionFilterService.CountMode countMode;
+        TransactionFilter filter = new TransactionFilter();
+        try {
+            countMode = TransactionFilterService.CountMode.valueOf(count.toUpperCase(Locale.ROOT));
+            filter.setCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Invalid cursor or count mode"));
+        }
+        Set<String> selected;
+        try {
+            selected = FieldSelection.parse(fields, TransactionResponse.class);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+        if (types != null && types.stream().anyMatch(type -> !"income".equals(type) && !"expense".equals(type))) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Type must be either 'income' or 'expense'"));
+        }
+        filter.setStartDate(startDate);
+        filter.setEndDate(endDate);
+        filter.setTypes(types);
+        filter.setCategoryIds(categoryIds);
+        filter.setAccountIds(accountIds);
+        filter.setMinAmount(minAmount);
+        filter.setMaxAmount(maxAmount);
+        filter.setText(q);
+
+        try {
+            TransactionFilterService.Result result = transactionFilterService.filter(user, filter, limit, countMode,
+                    selected);
+
+            TransactionPageResponse response = new TransactionPageResponse();
+            response.setTransactions(result.getTransactions().stream()
+                    .map(responseMapper::toResponse)
+                    .collect(Collectors.toList()));
+            response.setNextCursor(result.getNextCursor());
+            response.setTotalCount(result.getCount());
+            response.setTotalExact(result.isCountExact());
+            response.setPlan(result.getShape().name().toLowerCase(Locale.ROOT));
+            response.setPartial(result.isPartial());
+
+            return ResponseEntity.ok(FieldSelection.apply(
+                    ApiResponse.success("Transactions retrieved successfully", response), selected));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to filter transactions"));
+        }
+    }
+
+    /**
+     * All matching transactions in the same {@code ApiResponse} shape as the list endpoints, written
+     * row by row from a database cursor instead of being collected first. Errors found before the
+     * first byte get the usual error response; a failure mid-stream cuts the JSON short.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamTransactions(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) List<Long> accountIds,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) List<String> fields) {
+
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return streamError(HttpStatus.UNAUTHORIZED, "Invalid token");
+        }
+
+        int rows = limit != null ? limit : streamMaxRows;
+        if (rows < 1 || rows > streamMaxRows) {
+            return streamError(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + streamMaxRows);
+        }
+        Set<String> selected;
+        try {
+            selected = FieldSelection.parse(fields, TransactionResponse.class);
+        } catch (IllegalArgumentException e) {
+            return streamError(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (types != null && types.stream().anyMatch(type -> !"income".equals(type) && !"expense".equals(type))) {
+            return streamError(HttpStatus.BAD_REQUEST, "Type must be either 'income' or 'expense'");
+        }
+        TransactionFilter filter = new TransactionFilter();
+        filter.setStartDate(startDate);
+        filter.setEndDate(endDate);
+        filter.setTypes(types);
+        filter.setCategoryIds(categoryIds);
+        filter.setAccountIds(accountIds);
+
+        StreamingResponseBody body = out -> {
+            TransactionJsonWriter writer = new TransactionJsonWriter(objectMapper, out,
+                    "Transactions retrieved successfully", selected);
+            transactionStreamService.stream(user, filter, rows, selected, writer);
+            writer.close();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // The stream executor and its queue are full
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<?> streamRejected(TaskRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ApiResponse.error("Too many streams in progress, please retry shortly"));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamError(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(StreamUtils.nonClosing(out), ApiResponse.error(message)));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestDescriptions(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
+
+        // Called on every keystroke: the user id comes from the token, without a user lookup
+        Long userId = authHeader.startsWith("Bearer ") ? jwtUtil.getUserIdFromToken(authHeader.substring(7)) : null;
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        try {
+            List<SuggestionResponse> responseList = suggestionIndex.suggest(userId, prefix, limit).stream()
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
 
+            return ResponseEntity.ok(ApiResponse.success("Suggestions retrieved successfully", responseList));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve suggestions"));
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTransactions(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        User user = getUserFromToken(authHeader);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token"));
+        }
+
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Limit must be between 1 and 100"));
+        }
+
+        try {
+            List<TransactionResponse> responseList = transactionService.searchTransactions(user, q, limit).stream()
+                    .map(responseMapper::toResponse)
+                    .collect(Collectors.toList());
+
             return ResponseEntity.ok(ApiResponse.success("Transactions retrieved successfully", responseList));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Failed to retrieve transactions"));
+                    .body(ApiResponse.error("Failed to search transactions"));
         }
     }
 
@@ -122,7 +363,7 @@ public class TransactionController {
                 return ResponseEntity.notFound().build();
             }
 
-            TransactionResponse response = convertToResponse(transactionOpt.get());
+            TransactionResponse response = responseMapper.toResponse(transactionOpt.get());
             return ResponseEntity.ok(ApiResponse.success("Transaction retrieved successfully", response));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -142,8 +383,19 @@ public class TransactionController {
         }
 
         try {
+            // Without a category, the user's rules choose one
+            Long categoryId = request.getCategoryId();
+            if (categoryId == null) {
+                categoryId = categorizationService.categorize(user.getId(), request.getDescription(),
+                        request.getAmount(), request.getType(), request.getAccountId());
+                if (categoryId == null) {
+                    return ResponseEntity.badRequest()
+                            .body(ApiResponse.error("Category is required: no categorization rule matches"));
+                }
+            }
+
             // Validate category
-            Optional<Category> categoryOpt = categoryRepository.findById(request.getCategoryId());
+            Optional<Category> categoryOpt = categoryRepository.findById(categoryId);
             if (categoryOpt.isEmpty() || !categoryOpt.get().getUser().getId().equals(user.getId())) {
                 return ResponseEntity.badRequest()
                         .body(ApiResponse.error("Invalid category"));
@@ -170,6 +422,7 @@ public class TransactionController {
             );
             transaction.setAccount(account);
             transaction.setNotes(request.getNotes());
+            transaction.setTags(TransactionTagService.format(request.getTags()));
 
             Transaction savedTransaction = transactionService.createTransaction(transaction);
             
@@ -185,7 +438,7 @@ public class TransactionController {
                 accountRepository.save(account);
             }
             
-            TransactionResponse response = convertToResponse(savedTransaction);
+            TransactionResponse response = responseMapper.toResponse(savedTransaction);
 
             return ResponseEntity.ok(ApiResponse.success("Transaction created successfully", response));
         } catch (Exception e) {
@@ -213,8 +466,10 @@ public class TransactionController {
                 return ResponseEntity.notFound().build();
             }
 
-            // Validate category
-            Optional<Category> categoryOpt = categoryRepository.findById(request.getCategoryId());
+            // Validate category; without one the transaction keeps its current category
+            Long categoryId = request.getCategoryId() != null
+                    ? request.getCategoryId() : transactionOpt.get().getCategory().getId();
+            Optional<Category> categoryOpt = categoryRepository.findById(categoryId);
             if (categoryOpt.isEmpty() || !categoryOpt.get().getUser().getId().equals(user.getId())) {
                 return ResponseEntity.badRequest()
                         .body(ApiResponse.error("Invalid category"));
@@ -251,6 +506,9 @@ public class TransactionController {
             transaction.setAccount(newAccount);
             transaction.setTransactionDate(request.getTransactionDate());
             transaction.setNotes(request.getNotes());
+            if (request.getTags() != null) {
+                transaction.setTags(TransactionTagService.format(request.getTags()));
+            }
 
             Transaction updatedTransaction = transactionService.updateTransaction(transaction);
             
@@ -264,7 +522,7 @@ public class TransactionController {
                 accountRepository.save(newAccount);
             }
             
-            TransactionResponse response = convertToResponse(updatedTransaction);
+            TransactionResponse response = responseMapper.toResponse(updatedTransaction);
 
             return ResponseEntity.ok(ApiResponse.success("Transaction updated successfully", response));
         } catch (Exception e) {
@@ -306,7 +564,7 @@ public class TransactionController {
                 accountRepository.save(account);
             }
 
-            transactionService.deleteTransaction(id);
+            transactionService.deleteTransaction(transaction);
             return ResponseEntity.ok(ApiResponse.success("Transaction deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,172 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.service.TransactionStreamService;
+import com.expensetracker.service.TransactionTagService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.StreamUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Set;
+
+/**
+ * Writes {@code ApiResponse.success(message, List<TransactionResponse>)} as a stream: the
+ * envelope is opened up front, each row goes out through one generator as it arrives, and
+ * {@link #close()} ends the list. The JSON matches what Jackson writes for the same response,
+ * field order, nulls and {@code fields=} selection included. Field names are pre-encoded once.
+ */
+final class TransactionJsonWriter implements TransactionStreamService.RowWriter, Closeable {
+
+    private static final SerializableString SUCCESS = new SerializedString("success");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString DATA = new SerializedString("data");
+
+    private static final int ID = 0;
+    private static final int DESCRIPTION = 1;
+    private static final int AMOUNT = 2;
+    private static final int TYPE = 3;
+    private static final int CATEGORY_ID = 4;
+    private static final int CATEGORY_NAME = 5;
+    private static final int CATEGORY_ICON = 6;
+    private static final int CATEGORY_COLOR = 7;
+    private static final int ACCOUNT_ID = 8;
+    private static final int ACCOUNT_NAME = 9;
+    private static final int TRANSACTION_DATE = 10;
+    private static final int NOTES = 11;
+    private static final int RECEIPT_URL = 12;
+    private static final int TAGS = 13;
+    private static final int CREATED_AT = 14;
+    private static final int UPDATED_AT = 15;
+
+    // In TransactionResponse declaration order, which is the order Jackson writes them in
+    private static final SerializableString[] NAMES = {
+            new SerializedString("id"),
+            new SerializedString("description"),
+            new SerializedString("amount"),
+            new SerializedString("type"),
+            new SerializedString("categoryId"),
+            new SerializedString("categoryName"),
+            new SerializedString("categoryIcon"),
+            new SerializedString("categoryColor"),
+            new SerializedString("accountId"),
+            new SerializedString("accountName"),
+            new SerializedString("transactionDate"),
+            new SerializedString("notes"),
+            new SerializedString("receiptUrl"),
+            new SerializedString("tags"),
+            new SerializedString("createdAt"),
+            new SerializedString("updatedAt")
+    };
+
+    private final JsonGenerator generator;
+    private final boolean[] selected = new boolean[NAMES.length];
+
+    /**
+     * Opens the envelope. {@code fields} are the selected response fields, or null for all.
+     */
+    TransactionJsonWriter(ObjectMapper objectMapper, OutputStream out, String message, Set<String> fields)
+            throws IOException {
+        for (int i = 0; i < NAMES.length; i++) {
+            selected[i] = fields == null || fields.contains(NAMES[i].getValue());
+        }
+        generator = objectMapper.getFactory().createGenerator(StreamUtils.nonClosing(out), JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeFieldName(SUCCESS);
+        generator.writeBoolean(true);
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(message);
+        generator.writeFieldName(DATA);
+        generator.writeStartArray();
+    }
+
+    @Override
+    public void write(TransactionStreamService.Row row) throws IOException {
+        generator.writeStartObject();
+        number(ID, row.getId());
+        string(DESCRIPTION, row.getDescription());
+        number(AMOUNT, row.getAmount());
+        string(TYPE, row.getType());
+        number(CATEGORY_ID, row.getCategoryId());
+        string(CATEGORY_NAME, row.getCategoryName());
+        string(CATEGORY_ICON, row.getCategoryIcon());
+        string(CATEGORY_COLOR, row.getCategoryColor());
+        number(ACCOUNT_ID, row.getAccountId());
+        string(ACCOUNT_NAME, row.getAccountName());
+        temporal(TRANSACTION_DATE, row.getTransactionDate(), DateTimeFormatter.ISO_LOCAL_DATE);
+        string(NOTES, row.getNotes());
+        string(RECEIPT_URL, row.getReceiptUrl());
+        if (field(TAGS)) {
+            generator.writeStartArray();
+            for (String tag : TransactionTagService.parse(row.getTags())) {
+                generator.writeString(tag);
+            }
+            generator.writeEndArray();
+        }
+        temporal(CREATED_AT, row.getCreatedAt(), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        temporal(UPDATED_AT, row.getUpdatedAt(), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Ends the list and the envelope and flushes; the underlying stream stays open. Not called
+     * after a failed stream, so that a cut-short list cannot pass for a complete one.
+     */
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    private boolean field(int index) throws IOException {
+        if (selected[index]) {
+            generator.writeFieldName(NAMES[index]);
+        }
+        return selected[index];
+    }
+
+    private void string(int index, String value) throws IOException {
+        if (field(index)) {
+            string(value);
+        }
+    }
+
+    private void number(int index, Long value) throws IOException {
+        if (field(index)) {
+            if (value != null) {
+                generator.writeNumber(value);
+            } else {
+                generator.writeNull();
+            }
+        }
+    }
+
+    private void number(int index, BigDecimal value) throws IOException {
+        if (field(index)) {
+            generator.writeNumber(value);
+        }
+    }
+
+    // Formatted as Jackson's java.time serializers do with timestamps disabled
+    private void temporal(int index, TemporalAccessor value, DateTimeFormatter format) throws IOException {
+        if (field(index)) {
+            string(value != null ? format.format(value) : null);
+        }
+    }
+
+    private void string(String value) throws IOException {
+        if (value != null) {
+            generator.writeString(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+}
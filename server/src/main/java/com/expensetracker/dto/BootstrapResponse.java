@@ -0,0 +1,67 @@
+package com.expensetracker.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class BootstrapResponse {
+
+    private DashboardSummary summary;
+    private List<TransactionResponse> recentTransactions;
+    private List<CategoryResponse> categories;
+    private List<AccountResponse> accounts;
+    private List<BudgetResponse> budgets;
+    // Sections that failed or timed out, by name; their fields above are null
+    private Map<String, String> errors;
+
+    // Constructors
+    public BootstrapResponse() {}
+
+    // Getters and Setters
+    public DashboardSummary getSummary() {
+        return summary;
+    }
+
+    public void setSummary(DashboardSummary summary) {
+        this.summary = summary;
+    }
+
+    public List<TransactionResponse> getRecentTransactions() {
+        return recentTransactions;
+    }
+
+    public void setRecentTransactions(List<TransactionResponse> recentTransactions) {
+        this.recentTransactions = recentTransactions;
+    }
+
+    public List<CategoryResponse> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategoryResponse> categories) {
+        this.categories = categories;
+    }
+
+    public List<AccountResponse> getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(List<AccountResponse> accounts) {
+        this.accounts = accounts;
+    }
+
+    public List<BudgetResponse> getBudgets() {
+        return budgets;
+    }
+
+    public void setBudgets(List<BudgetResponse> budgets) {
+        this.budgets = budgets;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,86 @@
+package com.expensetracker.dto;
+
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+
+public class CategoryRuleRequest {
+
+    @Size(max = 100, message = "Keyword cannot exceed 100 characters")
+    private String keyword;
+
+    @NotNull(message = "Category ID is required")
+    private Long categoryId;
+
+    private Long accountId;
+
+    @DecimalMin(value = "0", message = "Minimum amount cannot be negative")
+    private BigDecimal minAmount;
+
+    @DecimalMin(value = "0", message = "Maximum amount cannot be negative")
+    private BigDecimal maxAmount;
+
+    @Min(value = 0, message = "Priority cannot be negative")
+    private Integer priority;
+
+    private Boolean isActive = true;
+
+    // Constructors
+    public CategoryRuleRequest() {}
+
+    // Getters and Setters
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+}
@@ -3,6 +3,8 @@ package com.expensetracker.dto;
 public class JwtResponse {
     
     private String token;
+    private String refreshToken;
+    private Long expiresIn;
     private String type = "Bearer";
     private Long id;
     private String email;
@@ -29,6 +31,22 @@ public class JwtResponse {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public Long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(Long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+
     public String getType() {
         return type;
     }
@@ -0,0 +1,68 @@
+package com.expensetracker.dto;
+
+import java.util.List;
+
+public class TransactionPageResponse {
+
+    private List<TransactionResponse> transactions;
+    // Pass as cursor to get the next page; null on the last page
+    private String nextCursor;
+    // Matching transactions over all pages; null when not requested
+    private Long totalCount;
+    private boolean totalExact;
+    private String plan;
+    // Text matched while the search index was rebuilding; matches may be missing
+    private boolean partial;
+
+    // Constructors
+    public TransactionPageResponse() {}
+
+    // Getters and Setters
+    public List<TransactionResponse> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<TransactionResponse> transactions) {
+        this.transactions = transactions;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(Long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+
+    public void setTotalExact(boolean totalExact) {
+        this.totalExact = totalExact;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public void setPlan(String plan) {
+        this.plan = plan;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+}
@@ -3,6 +3,7 @@ package com.expensetracker.dto;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 public class TransactionRequest {
     
@@ -18,7 +19,7 @@ public class TransactionRequest {
     @Pattern(regexp = "^(income|expense)$", message = "Type must be either 'income' or 'expense'")
     private String type;
     
-    @NotNull(message = "Category ID is required")
+    // Optional on create: the user's categorization rules pick one when it is missing
     private Long categoryId;
     
     private Long accountId;
@@ -29,6 +30,10 @@ public class TransactionRequest {
     @Size(max = 500, message = "Notes cannot exceed 500 characters")
     private String notes;
 
+    // Null leaves the tags of an existing transaction unchanged
+    @Size(max = 10, message = "A transaction can have at most 10 tags")
+    private List<String> tags;
+
     // Constructors
     public TransactionRequest() {}
 
@@ -99,4 +104,12 @@ public class TransactionRequest {
     public void setNotes(String notes) {
         this.notes = notes;
     }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.expensetracker.dto;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class TransactionResponse {
     
@@ -18,6 +19,8 @@ public class TransactionResponse {
     private String accountName;
     private LocalDate transactionDate;
     private String notes;
+    private String receiptUrl;
+    private List<String> tags;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -121,6 +124,22 @@ public class TransactionResponse {
         this.notes = notes;
     }
 
+    public String getReceiptUrl() {
+        return receiptUrl;
+    }
+
+    public void setReceiptUrl(String receiptUrl) {
+        this.receiptUrl = receiptUrl;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,69 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * A receipt referenced by an archived transaction, so that receipt access checks don't need to
+ * open archive segments. Written in the same transaction as the segment row.
+ */
+@Entity
+@Table(name = "archived_receipts", indexes = {
+        @Index(name = "idx_archived_receipts_user_url", columnList = "user_id, receipt_url")
+})
+public class ArchivedReceipt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "receipt_url", nullable = false)
+    private String receiptUrl;
+
+    @Column(name = "segment_id", nullable = false)
+    private Long segmentId;
+
+    // Constructors
+    public ArchivedReceipt() {}
+
+    public ArchivedReceipt(Long userId, String receiptUrl, Long segmentId) {
+        this.userId = userId;
+        this.receiptUrl = receiptUrl;
+        this.segmentId = segmentId;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getReceiptUrl() {
+        return receiptUrl;
+    }
+
+    public void setReceiptUrl(String receiptUrl) {
+        this.receiptUrl = receiptUrl;
+    }
+
+    public Long getSegmentId() {
+        return segmentId;
+    }
+
+    public void setSegmentId(Long segmentId) {
+        this.segmentId = segmentId;
+    }
+}
@@ -0,0 +1,131 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "category_rules", indexes = {
+        @Index(name = "idx_category_rules_user", columnList = "user_id")
+})
+public class CategoryRule extends BaseEntity {
+
+    public static final int DEFAULT_PRIORITY = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Matched case-insensitively anywhere in the description; null matches every description
+    @Size(max = 100, message = "Keyword cannot exceed 100 characters")
+    @Column(name = "keyword", length = 100)
+    private String keyword;
+
+    @Column(name = "min_amount", precision = 19, scale = 2)
+    private BigDecimal minAmount;
+
+    @Column(name = "max_amount", precision = 19, scale = 2)
+    private BigDecimal maxAmount;
+
+    @Column(name = "priority")
+    private Integer priority = DEFAULT_PRIORITY; // Lower wins
+
+    @Column(name = "is_active")
+    private Boolean isActive = true;
+
+    // Relationships
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+
+    // Only transactions on this account match, when set
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id")
+    private Account account;
+
+    // Constructors
+    public CategoryRule() {}
+
+    public CategoryRule(String keyword, User user, Category category) {
+        this.keyword = keyword;
+        this.user = user;
+        this.category = category;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public void setCategory(Category category) {
+        this.category = category;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public void setAccount(Account account) {
+        this.account = account;
+    }
+}
@@ -0,0 +1,93 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * A change to a domain entity, written in the same transaction as the change itself and later
+ * copied into the change journal by the outbox relay.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_created", columnList = "created_at")
+})
+public class OutboxEvent extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType; // "transaction", "account", "budget", "category"
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "operation", nullable = false, length = 16)
+    private String operation; // "created", "updated", "deleted"
+
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload;
+
+    // Constructors
+    public OutboxEvent() {}
+
+    public OutboxEvent(String aggregateType, Long aggregateId, Long userId, String operation, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.userId = userId;
+        this.operation = operation;
+        this.payload = payload;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public void setAggregateType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,95 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A revoked access token (by jti), or with {@code issuedBefore} set, every access token of the
+ * user issued up to that instant (logout everywhere). Rows are only needed until the tokens
+ * they cover would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_jti", columnList = "jti"),
+        @Index(name = "idx_revoked_tokens_expires", columnList = "expires_at"),
+        @Index(name = "idx_revoked_tokens_created", columnList = "created_at")
+})
+public class RevokedToken extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "jti", length = 36)
+    private String jti;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "issued_before")
+    private Instant issuedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Constructors
+    public RevokedToken() {}
+
+    public static RevokedToken ofToken(String jti, Long userId, Instant expiresAt) {
+        RevokedToken revoked = new RevokedToken();
+        revoked.jti = jti;
+        revoked.userId = userId;
+        revoked.expiresAt = expiresAt;
+        return revoked;
+    }
+
+    public static RevokedToken ofUser(Long userId, Instant issuedBefore, Instant expiresAt) {
+        RevokedToken revoked = new RevokedToken();
+        revoked.userId = userId;
+        revoked.issuedBefore = issuedBefore;
+        revoked.expiresAt = expiresAt;
+        return revoked;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Instant getIssuedBefore() {
+        return issuedBefore;
+    }
+
+    public void setIssuedBefore(Instant issuedBefore) {
+        this.issuedBefore = issuedBefore;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
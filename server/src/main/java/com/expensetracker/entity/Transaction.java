@@ -8,8 +8,14 @@ import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+// Each index serves a filter on its column and the newest-first order in one range scan
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_user_date", columnList = "user_id, transaction_date, id"),
+        @Index(name = "idx_transactions_user_type_date", columnList = "user_id, type, transaction_date, id"),
+        @Index(name = "idx_transactions_user_category_date", columnList = "user_id, category_id, transaction_date, id"),
+        @Index(name = "idx_transactions_user_account_date", columnList = "user_id, account_id, transaction_date, id")
+})
 public class Transaction extends BaseEntity {
 
     @Id
@@ -0,0 +1,111 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One tag of one transaction. The user, amount, type and date are copied from the transaction,
+ * so tag filters and per-tag totals are answered from this table's indexes alone. Rows of
+ * archived transactions are kept, so per-tag totals cover the full history.
+ */
+@Entity
+@Table(name = "transaction_tags", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transaction_tags_transaction_tag", columnNames = {"transaction_id", "tag"})
+}, indexes = {
+        @Index(name = "idx_transaction_tags_user_tag", columnList = "user_id, tag, transaction_id"),
+        @Index(name = "idx_transaction_tags_user_date", columnList = "user_id, transaction_date")
+})
+public class TransactionTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "tag", nullable = false, length = 30)
+    private String tag;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "type", nullable = false)
+    private String type; // "income" or "expense"
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDate transactionDate;
+
+    // Constructors
+    public TransactionTag() {}
+
+    public TransactionTag(Transaction transaction, String tag) {
+        this.transactionId = transaction.getId();
+        this.userId = transaction.getUser().getId();
+        this.tag = tag;
+        this.amount = transaction.getAmount();
+        this.type = transaction.getType();
+        this.transactionDate = transaction.getTransactionDate();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public LocalDate getTransactionDate() {
+        return transactionDate;
+    }
+
+    public void setTransactionDate(LocalDate transactionDate) {
+        this.transactionDate = transactionDate;
+    }
+}
@@ -0,0 +1,13 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.ArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchiveSegmentRepository extends JpaRepository<ArchiveSegment, Long> {
+
+    List<ArchiveSegment> findByUserIdOrderByToDateDescFromDateDescIdDesc(Long userId);
+}
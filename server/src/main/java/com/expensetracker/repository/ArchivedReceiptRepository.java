@@ -0,0 +1,11 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.ArchivedReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedReceiptRepository extends JpaRepository<ArchivedReceipt, Long> {
+
+    boolean existsByUserIdAndReceiptUrl(Long userId, String receiptUrl);
+}
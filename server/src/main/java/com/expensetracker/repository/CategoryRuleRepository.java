@@ -0,0 +1,24 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.CategoryRule;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CategoryRuleRepository extends JpaRepository<CategoryRule, Long> {
+
+    @EntityGraph(attributePaths = {"category", "account"})
+    List<CategoryRule> findByUserIdOrderByPriorityAscIdAsc(Long userId);
+
+    // Rules the matcher is compiled from; rules pointing at deleted categories are skipped
+    @Query("SELECT r FROM CategoryRule r JOIN FETCH r.category c LEFT JOIN FETCH r.account " +
+           "WHERE r.user.id = :userId AND r.isActive = true AND c.isActive = true")
+    List<CategoryRule> findActiveByUserId(@Param("userId") Long userId);
+
+    long countByUserId(Long userId);
+}
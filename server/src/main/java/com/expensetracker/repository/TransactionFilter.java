@@ -0,0 +1,210 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Criteria of a transaction listing. Every criterion is optional, and set criteria are
+ * combined with AND; a list criterion matches any of its values. Results are ordered newest
+ * first by (transaction date, id), and the cursor continues after a given (date, id).
+ */
+public class TransactionFilter implements Predicate<Transaction> {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<String> types = List.of();
+    private List<Long> categoryIds = List.of();
+    private List<Long> accountIds = List.of();
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private String text;
+    // Set by the planner when the text has been resolved to ids through the search index
+    private Collection<Long> ids;
+    private LocalDate afterDate;
+    private Long afterId;
+
+    // Constructors
+    public TransactionFilter() {}
+
+    public TransactionFilter copy() {
+        TransactionFilter copy = new TransactionFilter();
+        copy.startDate = startDate;
+        copy.endDate = endDate;
+        copy.types = types;
+        copy.categoryIds = categoryIds;
+        copy.accountIds = accountIds;
+        copy.minAmount = minAmount;
+        copy.maxAmount = maxAmount;
+        copy.text = text;
+        copy.ids = ids;
+        copy.afterDate = afterDate;
+        copy.afterId = afterId;
+        return copy;
+    }
+
+    /**
+     * Whether the transaction meets every criterion but the text, which only the search index
+     * can evaluate; resolve it to {@link #setIds ids} first.
+     */
+    @Override
+    public boolean test(Transaction transaction) {
+        LocalDate date = transaction.getTransactionDate();
+        if (startDate != null && date.isBefore(startDate) || endDate != null && date.isAfter(endDate)) {
+            return false;
+        }
+        if (!types.isEmpty() && !types.contains(transaction.getType())) {
+            return false;
+        }
+        if (!categoryIds.isEmpty() && (transaction.getCategory() == null
+                || !categoryIds.contains(transaction.getCategory().getId()))) {
+            return false;
+        }
+        if (!accountIds.isEmpty() && (transaction.getAccount() == null
+                || !accountIds.contains(transaction.getAccount().getId()))) {
+            return false;
+        }
+        if (minAmount != null && transaction.getAmount().compareTo(minAmount) < 0
+                || maxAmount != null && transaction.getAmount().compareTo(maxAmount) > 0) {
+            return false;
+        }
+        if (ids != null && !ids.contains(transaction.getId())) {
+            return false;
+        }
+        return afterDate == null || date.isBefore(afterDate)
+                || date.isEqual(afterDate) && transaction.getId() < afterId;
+    }
+
+    /**
+     * Opaque continuation token for the rows after this one.
+     */
+    public static String cursorOf(Transaction transaction) {
+        String position = transaction.getTransactionDate().toEpochDay() + ":" + transaction.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Continues after the position a {@link #cursorOf} token names.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public void setCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            afterDate = null;
+            afterId = null;
+            return;
+        }
+        String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+        int separator = position.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            afterDate = LocalDate.ofEpochDay(Long.parseLong(position.substring(0, separator)));
+            afterId = Long.parseLong(position.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static <T> List<T> distinct(List<T> values) {
+        if (values == null) {
+            return List.of();
+        }
+        List<T> distinct = new ArrayList<>();
+        for (T value : values) {
+            if (value != null && !distinct.contains(value)) {
+                distinct.add(value);
+            }
+        }
+        return distinct;
+    }
+
+    // Getters and Setters
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public List<String> getTypes() {
+        return types;
+    }
+
+    public void setTypes(List<String> types) {
+        this.types = distinct(types);
+    }
+
+    public List<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public void setCategoryIds(List<Long> categoryIds) {
+        this.categoryIds = distinct(categoryIds);
+    }
+
+    public List<Long> getAccountIds() {
+        return accountIds;
+    }
+
+    public void setAccountIds(List<Long> accountIds) {
+        this.accountIds = distinct(accountIds);
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text != null && !text.isBlank() ? text.trim() : null;
+    }
+
+    public Collection<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(Collection<Long> ids) {
+        this.ids = ids;
+    }
+
+    public LocalDate getAfterDate() {
+        return afterDate;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+}
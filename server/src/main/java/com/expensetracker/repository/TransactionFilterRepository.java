@@ -0,0 +1,35 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.Transaction;
+import jakarta.persistence.Tuple;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface TransactionFilterRepository {
+
+    /**
+     * Up to {@code limit} of the user's transactions matching the filter, newest first by
+     * (transaction date, id), with category and account loaded.
+     */
+    List<Transaction> findFiltered(Long userId, TransactionFilter filter, int limit);
+
+    /**
+     * Like {@link #findFiltered}, skipping {@code offset} rows, but reading only the columns behind
+     * the given {@code TransactionResponse} fields. Rows come back as unmanaged stubs with those
+     * fields, the id and the date set; category and account are joined only for their names.
+     */
+    List<Transaction> findFilteredColumns(Long userId, TransactionFilter filter, int offset, int limit,
+                                          Set<String> fields);
+
+    /**
+     * The rows of {@link #findFilteredColumns} as a forward-only cursor over read-only tuples,
+     * aliased by field name, fetched {@code fetchSize} rows at a time. Has to be consumed and
+     * closed inside a transaction.
+     */
+    Stream<Tuple> streamFilteredColumns(Long userId, TransactionFilter filter, Set<String> fields, int limit,
+                                        int fetchSize);
+
+    long countFiltered(Long userId, TransactionFilter filter);
+}
@@ -0,0 +1,215 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.Account;
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Compiles a {@link TransactionFilter} into a single Criteria query. Single values become
+ * equality predicates, so a one-category or one-type filter can use the matching
+ * {@code (user_id, column, transaction_date, id)} index for both the lookup and the order.
+ */
+public class TransactionFilterRepositoryImpl implements TransactionFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Transaction> findFiltered(Long userId, TransactionFilter filter, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> t = query.from(Transaction.class);
+        t.fetch("category", JoinType.INNER);
+        t.fetch("account", JoinType.LEFT);
+
+        List<Predicate> predicates = predicates(cb, t, userId, filter);
+        addAfter(cb, predicates, t, filter);
+        query.select(t)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(t.get("transactionDate")), cb.desc(t.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Transaction> findFilteredColumns(Long userId, TransactionFilter filter, int offset, int limit,
+                                                 Set<String> fields) {
+        List<Transaction> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(columnsQuery(userId, filter, fields))
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList()) {
+            rows.add(stub(tuple));
+        }
+        return rows;
+    }
+
+    @Override
+    public Stream<Tuple> streamFilteredColumns(Long userId, TransactionFilter filter, Set<String> fields, int limit,
+                                               int fetchSize) {
+        return entityManager.createQuery(columnsQuery(userId, filter, fields))
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private CriteriaQuery<Tuple> columnsQuery(Long userId, TransactionFilter filter, Set<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Transaction> t = query.from(Transaction.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(t.get("id").alias("id"));
+        selections.add(t.get("transactionDate").alias("transactionDate"));
+        for (String column : new String[]{"description", "amount", "type", "notes", "receiptUrl", "tags",
+                "createdAt", "updatedAt"}) {
+            if (fields.contains(column)) {
+                selections.add(t.get(column).alias(column));
+            }
+        }
+        // Ids are foreign key columns of transactions; only names need the joins
+        if (fields.contains("categoryId")) {
+            selections.add(t.get("category").get("id").alias("categoryId"));
+        }
+        if (fields.contains("categoryName") || fields.contains("categoryIcon") || fields.contains("categoryColor")) {
+            Join<Transaction, Category> category = t.join("category", JoinType.INNER);
+            selections.add(category.get("name").alias("categoryName"));
+            selections.add(category.get("icon").alias("categoryIcon"));
+            selections.add(category.get("color").alias("categoryColor"));
+        }
+        if (fields.contains("accountId")) {
+            selections.add(t.get("account").get("id").alias("accountId"));
+        }
+        if (fields.contains("accountName")) {
+            Join<Transaction, Account> account = t.join("account", JoinType.LEFT);
+            selections.add(account.get("name").alias("accountName"));
+        }
+
+        List<Predicate> predicates = predicates(cb, t, userId, filter);
+        addAfter(cb, predicates, t, filter);
+        return query.multiselect(selections)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(t.get("transactionDate")), cb.desc(t.get("id")));
+    }
+
+    private static Transaction stub(Tuple tuple) {
+        Transaction transaction = new Transaction();
+        Category category = null;
+        Account account = null;
+        for (TupleElement<?> element : tuple.getElements()) {
+            Object value = tuple.get(element);
+            switch (element.getAlias()) {
+                case "id" -> transaction.setId((Long) value);
+                case "transactionDate" -> transaction.setTransactionDate((LocalDate) value);
+                case "description" -> transaction.setDescription((String) value);
+                case "amount" -> transaction.setAmount((BigDecimal) value);
+                case "type" -> transaction.setType((String) value);
+                case "notes" -> transaction.setNotes((String) value);
+                case "receiptUrl" -> transaction.setReceiptUrl((String) value);
+                case "tags" -> transaction.setTags((String) value);
+                case "createdAt" -> transaction.setCreatedAt((LocalDateTime) value);
+                case "updatedAt" -> transaction.setUpdatedAt((LocalDateTime) value);
+                case "categoryId", "categoryName", "categoryIcon", "categoryColor" -> {
+                    category = category != null ? category : new Category();
+                    switch (element.getAlias()) {
+                        case "categoryId" -> category.setId((Long) value);
+                        case "categoryName" -> category.setName((String) value);
+                        case "categoryIcon" -> category.setIcon((String) value);
+                        default -> category.setColor((String) value);
+                    }
+                }
+                case "accountId", "accountName" -> {
+                    if (value != null) {
+                        account = account != null ? account : new Account();
+                        if ("accountId".equals(element.getAlias())) {
+                            account.setId((Long) value);
+                        } else {
+                            account.setName((String) value);
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        transaction.setCategory(category);
+        transaction.setAccount(account);
+        return transaction;
+    }
+
+    @Override
+    public long countFiltered(Long userId, TransactionFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Transaction> t = query.from(Transaction.class);
+        query.select(cb.count(t)).where(predicates(cb, t, userId, filter).toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Predicate> predicates(CriteriaBuilder cb, Root<Transaction> t, Long userId,
+                                              TransactionFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(t.get("user").get("id"), userId));
+        if (filter.getStartDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.get("transactionDate"), filter.getStartDate()));
+        }
+        if (filter.getEndDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(t.get("transactionDate"), filter.getEndDate()));
+        }
+        addIn(cb, predicates, t.get("type"), filter.getTypes());
+        addIn(cb, predicates, t.get("category").get("id"), filter.getCategoryIds());
+        addIn(cb, predicates, t.get("account").get("id"), filter.getAccountIds());
+        if (filter.getMinAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.get("amount"), filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(t.get("amount"), filter.getMaxAmount()));
+        }
+        if (filter.getIds() != null) {
+            // An empty id set matches nothing; IN () is not valid SQL
+            predicates.add(filter.getIds().isEmpty() ? cb.disjunction() : t.get("id").in(filter.getIds()));
+        }
+        return predicates;
+    }
+
+    private static void addAfter(CriteriaBuilder cb, List<Predicate> predicates, Root<Transaction> t,
+                                 TransactionFilter filter) {
+        if (filter.getAfterDate() != null) {
+            Path<LocalDate> date = t.get("transactionDate");
+            predicates.add(cb.or(cb.lessThan(date, filter.getAfterDate()),
+                    cb.and(cb.equal(date, filter.getAfterDate()), cb.lessThan(t.get("id"), filter.getAfterId()))));
+        }
+    }
+
+    private static <T> void addIn(CriteriaBuilder cb, List<Predicate> predicates, Path<T> path, List<T> values) {
+        if (values.size() == 1) {
+            predicates.add(cb.equal(path, values.get(0)));
+        } else if (!values.isEmpty()) {
+            predicates.add(path.in(values));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.expensetracker.repository;
 import com.expensetracker.entity.Transaction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,15 +11,18 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionFilterRepository {
     
     List<Transaction> findByUserIdOrderByTransactionDateDesc(Long userId);
     
     Page<Transaction> findByUserIdOrderByTransactionDateDesc(Long userId, Pageable pageable);
     
+    long countByUserId(Long userId);
+    
     List<Transaction> findByUserIdAndTypeOrderByTransactionDateDesc(Long userId, String type);
     
     List<Transaction> findByUserIdAndCategoryIdOrderByTransactionDateDesc(Long userId, Long categoryId);
@@ -45,4 +49,43 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                                             @Param("categoryId") Long categoryId,
                                             @Param("startDate") LocalDate startDate,
                                             @Param("endDate") LocalDate endDate);
-}
\ No newline at end of file
+
+    // Transactions with at least :required of the given tags; 1 for any tag, the tag count for all
+    @Query(value = "SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.id IN (" +
+                   "SELECT tt.transactionId FROM TransactionTag tt WHERE tt.userId = :userId AND tt.tag IN :tags " +
+                   "GROUP BY tt.transactionId HAVING COUNT(tt) >= :required) ORDER BY t.transactionDate DESC",
+           countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.user.id = :userId AND t.id IN (" +
+                   "SELECT tt.transactionId FROM TransactionTag tt WHERE tt.userId = :userId AND tt.tag IN :tags " +
+                   "GROUP BY tt.transactionId HAVING COUNT(tt) >= :required)")
+    Page<Transaction> findByUserIdAndTags(@Param("userId") Long userId,
+                                          @Param("tags") Collection<String> tags,
+                                          @Param("required") long required,
+                                          Pageable pageable);
+
+    // id, description, category id, account id, date; newest first
+    @Query("SELECT t.id, t.description, c.id, a.id, t.transactionDate FROM Transaction t " +
+           "LEFT JOIN t.category c LEFT JOIN t.account a WHERE t.user.id = :userId " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Object[]> findSuggestionRowsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    boolean existsByUserIdAndReceiptUrl(Long userId, String receiptUrl);
+
+    @Query("SELECT DISTINCT t.user.id FROM Transaction t WHERE t.transactionDate < :cutoff")
+    List<Long> findUserIdsWithTransactionsBefore(@Param("cutoff") LocalDate cutoff);
+
+    @EntityGraph(attributePaths = {"category", "account"})
+    List<Transaction> findByUserIdAndTransactionDateBeforeOrderByTransactionDateAscIdAsc(Long userId, LocalDate cutoff,
+                                                                                       Pageable pageable);
+
+    // Bulk read in id order for rebuilding the search index
+    List<Transaction> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category", "account"})
+    List<Transaction> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    // category id, account id, type, year, month, count: the statistics the filter planner estimates from
+    @Query("SELECT t.category.id, t.account.id, t.type, YEAR(t.transactionDate), MONTH(t.transactionDate), COUNT(t) " +
+           "FROM Transaction t WHERE t.user.id = :userId GROUP BY t.category.id, t.account.id, t.type, " +
+           "YEAR(t.transactionDate), MONTH(t.transactionDate)")
+    List<Object[]> countByUserIdGroupedForFilter(@Param("userId") Long userId);
+}
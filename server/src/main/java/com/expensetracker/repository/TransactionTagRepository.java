@@ -0,0 +1,33 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.TransactionTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TransactionTagRepository extends JpaRepository<TransactionTag, Long> {
+
+    @Modifying
+    @Query("DELETE FROM TransactionTag tt WHERE tt.transactionId = :transactionId")
+    int deleteByTransactionId(@Param("transactionId") Long transactionId);
+
+    // tag, number of transactions; most used first
+    @Query("SELECT tt.tag, COUNT(tt) FROM TransactionTag tt WHERE tt.userId = :userId " +
+           "GROUP BY tt.tag ORDER BY COUNT(tt) DESC, tt.tag")
+    List<Object[]> countByTag(@Param("userId") Long userId);
+
+    // tag, total, number of transactions; largest total first
+    @Query("SELECT tt.tag, SUM(tt.amount), COUNT(tt) FROM TransactionTag tt WHERE tt.userId = :userId " +
+           "AND tt.type = :type AND tt.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY tt.tag ORDER BY SUM(tt.amount) DESC")
+    List<Object[]> sumByTag(@Param("userId") Long userId,
+                            @Param("type") String type,
+                            @Param("startDate") LocalDate startDate,
+                            @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,57 @@
+package com.expensetracker.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket in GCRA form: the whole bucket state is one "theoretical arrival time" per key,
+ * updated with a CAS loop, so checks never lock. The limiter itself only holds the rate and
+ * burst; callers keep one {@link AtomicLong} per key (see {@link #newState()}).
+ */
+public class GcraLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+
+    public GcraLimiter(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate must be > 0 and burst >= 1");
+        }
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+    }
+
+    public AtomicLong newState() {
+        return new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Returns 0 if a token is available, otherwise the nanoseconds until one will be, without
+     * taking it.
+     */
+    public long waitTime(AtomicLong state) {
+        long now = System.nanoTime();
+        long tat = state.get();
+        long wait = (tat - now > 0 ? tat : now) - now - burstToleranceNanos;
+        return wait > 0 ? wait : 0;
+    }
+
+    /**
+     * Takes one token. Returns 0 if the request is allowed, otherwise the nanoseconds until a
+     * token will be available.
+     */
+    public long tryAcquire(AtomicLong state) {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = state.get();
+            long base = tat - now > 0 ? tat : now;
+            long wait = base - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (state.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -5,71 +5,94 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
+    private static final String ISSUED_AT_MILLIS = "iatMs";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    // Both are immutable and thread-safe, so build them once
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+
+    @PostConstruct
+    void init() {
+        algorithm = Algorithm.HMAC256(secret);
+        verifier = JWT.require(algorithm).build();
+    }
+
     public String generateToken(String email, Long userId) {
-        Algorithm algorithm = Algorithm.HMAC256(secret);
+        long now = System.currentTimeMillis();
         return JWT.create()
                 .withSubject(email)
                 .withClaim("userId", userId)
-                .withIssuedAt(new Date())
-                .withExpiresAt(new Date(System.currentTimeMillis() + expiration))
+                .withJWTId(UUID.randomUUID().toString())
+                .withIssuedAt(new Date(now))
+                .withClaim(ISSUED_AT_MILLIS, now)
+                .withExpiresAt(new Date(now + expiration))
                 .sign(algorithm);
     }
 
-    public String getEmailFromToken(String token) {
+    /**
+     * Verifies signature and expiry. Returns null for any invalid or expired token.
+     */
+    public DecodedJWT verify(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT jwt = verifier.verify(token);
-            return jwt.getSubject();
+            return verifier.verify(token);
         } catch (JWTVerificationException exception) {
             return null;
         }
     }
 
+    /**
+     * When the token was issued, to the millisecond; {@code iat} alone has second precision.
+     * Tokens issued before the claim was added fall back to {@code iat}.
+     */
+    public static Instant issuedAt(DecodedJWT jwt) {
+        Long millis = jwt.getClaim(ISSUED_AT_MILLIS).asLong();
+        return millis != null ? Instant.ofEpochMilli(millis) : jwt.getIssuedAtAsInstant();
+    }
+
+    public String getEmailFromToken(String token) {
+        DecodedJWT jwt = verify(token);
+        return jwt != null ? jwt.getSubject() : null;
+    }
+
     public Long getUserIdFromToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT jwt = verifier.verify(token);
-            return jwt.getClaim("userId").asLong();
-        } catch (JWTVerificationException exception) {
-            return null;
-        }
+        DecodedJWT jwt = verify(token);
+        return jwt != null ? jwt.getClaim("userId").asLong() : null;
     }
 
     public Boolean validateToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            verifier.verify(token);
-            return true;
-        } catch (JWTVerificationException exception) {
-            return false;
-        }
+        return verify(token) != null;
     }
 
     public Boolean isTokenExpired(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT jwt = verifier.verify(token);
-            return jwt.getExpiresAt().before(new Date());
-        } catch (JWTVerificationException exception) {
-            return true;
-        }
+        DecodedJWT jwt = verify(token);
+        return jwt == null || jwt.getExpiresAt().before(new Date());
+    }
+
+    /**
+     * Access token lifetime in seconds, as reported to clients.
+     */
+    public long getExpirationSeconds() {
+        return expiration / 1000;
+    }
+
+    public long getExpirationMillis() {
+        return expiration;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package com.expensetracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cheap per-email and per-IP attempt limits checked before any password is hashed, so a
+ * credential-stuffing burst is rejected without costing BCrypt time. The IP budget counts
+ * every attempt; the email budget only counts failed ones, so a user who keeps logging in
+ * successfully is never locked out.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    @Value("${security.login.per-email.per-minute:5}")
+    private double perEmailPerMinute;
+
+    @Value("${security.login.per-email.burst:5}")
+    private int perEmailBurst;
+
+    @Value("${security.login.per-ip.per-minute:30}")
+    private double perIpPerMinute;
+
+    @Value("${security.login.per-ip.burst:30}")
+    private int perIpBurst;
+
+    @Value("${security.login.max-tracked-keys:1000000}")
+    private long maxTrackedKeys;
+
+    private GcraLimiter emailLimiter;
+    private GcraLimiter ipLimiter;
+    private Cache<String, AtomicLong> emailStates;
+    private Cache<String, AtomicLong> ipStates;
+
+    @PostConstruct
+    void init() {
+        emailLimiter = new GcraLimiter(perEmailPerMinute / 60.0, perEmailBurst);
+        ipLimiter = new GcraLimiter(perIpPerMinute / 60.0, perIpBurst);
+        emailStates = Caffeine.newBuilder().maximumSize(maxTrackedKeys)
+                .expireAfterAccess(Duration.ofMinutes(15)).build();
+        ipStates = Caffeine.newBuilder().maximumSize(maxTrackedKeys)
+                .expireAfterAccess(Duration.ofMinutes(15)).build();
+    }
+
+    /**
+     * Takes one attempt from the IP and checks that the email has failures left. Returns 0 if
+     * allowed, otherwise the nanoseconds until the next attempt would be.
+     */
+    public long tryAttempt(String email, String ip) {
+        if (email != null) {
+            long wait = emailLimiter.waitTime(emailState(email));
+            if (wait > 0) {
+                return wait;
+            }
+        }
+        if (ip != null) {
+            return ipLimiter.tryAcquire(ipStates.get(ip, key -> ipLimiter.newState()));
+        }
+        return 0;
+    }
+
+    /**
+     * Counts a failed attempt (wrong password or unknown email) against the email.
+     */
+    public void recordFailure(String email) {
+        if (email != null) {
+            emailLimiter.tryAcquire(emailState(email));
+        }
+    }
+
+    private AtomicLong emailState(String email) {
+        return emailStates.get(email.trim().toLowerCase(Locale.ROOT), key -> emailLimiter.newState());
+    }
+}
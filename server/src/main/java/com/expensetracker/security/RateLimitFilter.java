@@ -0,0 +1,189 @@
+package com.expensetracker.security;
+
+import com.expensetracker.config.RequestCompletion;
+import com.expensetracker.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user rate limits and a per-user concurrency cap, applied after JWT authentication.
+ * Requests are classed as read, write or heavy (exports, reports, imports), each with its own
+ * token bucket. Unauthenticated requests and {@code ratelimit.exempt-users} are not limited here.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    enum RequestClass { READ, WRITE, HEAVY }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ratelimit.read.rate:20}")
+    private double readRate;
+
+    @Value("${ratelimit.read.burst:40}")
+    private int readBurst;
+
+    @Value("${ratelimit.write.rate:5}")
+    private double writeRate;
+
+    @Value("${ratelimit.write.burst:20}")
+    private int writeBurst;
+
+    @Value("${ratelimit.heavy.rate:0.2}")
+    private double heavyRate;
+
+    @Value("${ratelimit.heavy.burst:3}")
+    private int heavyBurst;
+
+    @Value("${ratelimit.heavy.paths:/api/**/export,/api/**/export/**,/api/**/import,/api/**/import/**,/api/reports/**}")
+    private List<String> heavyPaths;
+
+    // Internal users such as the warm-up user, which drives many requests on purpose
+    @Value("${ratelimit.exempt-users:}")
+    private List<String> exemptUsers;
+
+    @Value("${ratelimit.max-in-flight:8}")
+    private int maxInFlight;
+
+    @Value("${ratelimit.max-users:1000000}")
+    private long maxUsers;
+
+    @Value("${ratelimit.idle-expiry-minutes:10}")
+    private long idleExpiryMinutes;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private GcraLimiter readLimiter;
+    private GcraLimiter writeLimiter;
+    private GcraLimiter heavyLimiter;
+    private Cache<String, UserState> users;
+
+    /**
+     * Everything tracked for one user. Entries idle for longer than the expiry are dropped; a
+     * dropped entry comes back with full buckets, which an idle user would have had anyway.
+     */
+    static class UserState {
+        final AtomicLong read;
+        final AtomicLong write;
+        final AtomicLong heavy;
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        UserState(GcraLimiter readLimiter, GcraLimiter writeLimiter, GcraLimiter heavyLimiter) {
+            this.read = readLimiter.newState();
+            this.write = writeLimiter.newState();
+            this.heavy = heavyLimiter.newState();
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        readLimiter = new GcraLimiter(readRate, readBurst);
+        writeLimiter = new GcraLimiter(writeRate, writeBurst);
+        heavyLimiter = new GcraLimiter(heavyRate, heavyBurst);
+        users = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(idleExpiryMinutes))
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String user = enabled ? currentUser() : null;
+        if (user == null || exemptUsers.contains(user)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        UserState state = users.get(user, key -> new UserState(readLimiter, writeLimiter, heavyLimiter));
+        RequestClass requestClass = classify(request);
+        long waitNanos = switch (requestClass) {
+            case READ -> readLimiter.tryAcquire(state.read);
+            case WRITE -> writeLimiter.tryAcquire(state.write);
+            case HEAVY -> heavyLimiter.tryAcquire(state.heavy);
+        };
+        if (waitNanos > 0) {
+            reject(response, requestClass, "rate", waitNanos);
+            return;
+        }
+
+        // Bulkhead: one user can never hold more than maxInFlight request threads (and connections)
+        if (state.inFlight.incrementAndGet() > maxInFlight) {
+            state.inFlight.decrementAndGet();
+            reject(response, requestClass, "concurrency", TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // A streamed response counts as in flight until the stream ends
+            RequestCompletion.onComplete(request, state.inFlight::decrementAndGet);
+        }
+    }
+
+    private RequestClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (String pattern : heavyPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return RequestClass.HEAVY;
+            }
+        }
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return RequestClass.READ;
+        }
+        return RequestClass.WRITE;
+    }
+
+    private void reject(HttpServletResponse response, RequestClass requestClass, String reason,
+                        long waitNanos) throws IOException {
+        meterRegistry.counter("ratelimit.rejected", "class", requestClass.name().toLowerCase(),
+                "reason", reason).increment();
+
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Too many requests, retry in " + retryAfterSeconds + "s"));
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
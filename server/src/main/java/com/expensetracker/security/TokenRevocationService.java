@@ -0,0 +1,167 @@
+package com.expensetracker.security;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.expensetracker.entity.RevokedToken;
+import com.expensetracker.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers "is this access token revoked?" from memory. Revoked token ids sit in a Bloom
+ * filter and logout-everywhere cutoffs in a map, both synced from revoked_tokens every few
+ * seconds, so other instances pick up a revocation within one sync interval. Each sync re-reads
+ * rows created within {@code jwt.revocation.sync-overlap-ms} before the previous one, so a row
+ * whose transaction committed late (after rows with higher ids) is still picked up. Only a
+ * Bloom hit (a revoked token, or a rare false positive) is confirmed against the database.
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.revocation.sync-overlap-ms:60000}")
+    private long syncOverlapMs;
+
+    private volatile BloomFilter revokedIds;
+    private volatile Map<Long, Instant> userCutoffs = new ConcurrentHashMap<>();
+    // When the last sync or rebuild started reading; null until the first one succeeds
+    private volatile LocalDateTime lastSyncedAt;
+    private Counter bloomHits;
+    private Counter bloomFalsePositives;
+
+    @PostConstruct
+    void init() {
+        bloomHits = meterRegistry.counter("auth.revocation.bloom", "result", "hit");
+        bloomFalsePositives = meterRegistry.counter("auth.revocation.bloom", "result", "false_positive");
+        revokedIds = new BloomFilter(expectedRevocations, falsePositiveRate);
+        try {
+            load();
+        } catch (Exception e) {
+            logger.warn("Initial revocation load failed, retrying on next sync: {}", e.getMessage());
+        }
+    }
+
+    public boolean isRevoked(DecodedJWT jwt) {
+        Long userId = jwt.getClaim("userId").asLong();
+        Instant cutoff = userId != null ? userCutoffs.get(userId) : null;
+        Instant issuedAt = JwtUtil.issuedAt(jwt);
+        if (cutoff != null && issuedAt != null && issuedAt.isBefore(cutoff)) {
+            return true;
+        }
+
+        String jti = jwt.getId();
+        if (jti == null || !revokedIds.mightContain(jti)) {
+            return false;
+        }
+        bloomHits.increment();
+        boolean revoked = revokedTokenRepository.existsByJti(jti);
+        if (!revoked) {
+            bloomFalsePositives.increment();
+        }
+        return revoked;
+    }
+
+    @Transactional
+    public void revokeToken(DecodedJWT jwt) {
+        if (jwt.getId() == null) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.ofToken(jwt.getId(),
+                jwt.getClaim("userId").asLong(), jwt.getExpiresAtAsInstant()));
+        revokedIds.put(jwt.getId());
+    }
+
+    /**
+     * Revokes every access token of the user issued before now. Tokens issued afterwards, even
+     * within the same second, stay valid.
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        Instant cutoff = Instant.now();
+        revokedTokenRepository.save(RevokedToken.ofUser(userId, cutoff,
+                cutoff.plusMillis(jwtUtil.getExpirationMillis() + 1000)));
+        userCutoffs.merge(userId, cutoff, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    /**
+     * Picks up revocations made by other instances since the last sync. Rows seen before are
+     * applied again, which changes nothing.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public synchronized void sync() {
+        if (lastSyncedAt == null) {
+            load();
+            return;
+        }
+        LocalDateTime started = LocalDateTime.now();
+        apply(revokedTokenRepository.findByCreatedAtAfter(lastSyncedAt.minus(Duration.ofMillis(syncOverlapMs))),
+                revokedIds, userCutoffs);
+        lastSyncedAt = started;
+    }
+
+    /**
+     * Bloom filters can't forget, so they are rebuilt from the unexpired rows periodically;
+     * expired rows are purged at the same time.
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.rebuild-interval-ms:600000}",
+            fixedDelayString = "${jwt.revocation.rebuild-interval-ms:600000}")
+    @Transactional
+    public synchronized void rebuild() {
+        revokedTokenRepository.deleteExpired(Instant.now());
+        load();
+    }
+
+    private synchronized void load() {
+        LocalDateTime started = LocalDateTime.now();
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(Instant.now());
+
+        BloomFilter filter = new BloomFilter(Math.max(expectedRevocations, active.size() * 2L), falsePositiveRate);
+        Map<Long, Instant> cutoffs = new ConcurrentHashMap<>();
+        apply(active, filter, cutoffs);
+        revokedIds = filter;
+        userCutoffs = cutoffs;
+        // The next sync re-reads from the overlap before this read, like any other sync
+        lastSyncedAt = started;
+    }
+
+    private static void apply(List<RevokedToken> rows, BloomFilter filter, Map<Long, Instant> cutoffs) {
+        for (RevokedToken row : rows) {
+            if (row.getJti() != null) {
+                filter.put(row.getJti());
+            }
+            if (row.getIssuedBefore() != null) {
+                cutoffs.merge(row.getUserId(), row.getIssuedBefore(), (a, b) -> a.isAfter(b) ? a : b);
+            }
+        }
+    }
+}
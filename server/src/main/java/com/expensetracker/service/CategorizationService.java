@@ -0,0 +1,128 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.CategoryRuleRepository;
+import com.expensetracker.repository.TransactionFilter;
+import com.expensetracker.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies a user's categorization rules. The compiled {@link RuleMatcher} is kept in the
+ * {@link VersionedCache} under the "rules" family, so a rule change on any instance causes a
+ * recompile everywhere on the next use.
+ */
+@Service
+public class CategorizationService {
+
+    static final String FAMILY = "rules";
+
+    @Autowired
+    private CategoryRuleRepository categoryRuleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private VersionedCache versionedCache;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${rules.recategorize.page-size:500}")
+    private int pageSize;
+
+    public RuleMatcher matcher(Long userId) {
+        return versionedCache.get(userId, FAMILY, "matcher", () -> {
+            long start = System.nanoTime();
+            RuleMatcher matcher = RuleMatcher.compile(categoryRuleRepository.findActiveByUserId(userId));
+            meterRegistry.timer("rules.compile").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return matcher;
+        });
+    }
+
+    /**
+     * Category id assigned by the user's rules, or null if no rule matches.
+     */
+    public Long categorize(Long userId, String description, BigDecimal amount, String type, Long accountId) {
+        Long categoryId = matcher(userId).match(description, amount, type, accountId);
+        meterRegistry.counter("rules.categorize", "result", categoryId != null ? "matched" : "unmatched").increment();
+        return categoryId;
+    }
+
+    public void rulesChanged(Long userId) {
+        invalidationBus.publish(userId, FAMILY);
+    }
+
+    /**
+     * Runs the rules over all of the user's current transactions and moves those a rule
+     * assigns to a different category. Archived transactions are read-only and left alone.
+     *
+     * @return counts of scanned, matched and updated transactions
+     */
+    public Map<String, Long> recategorize(User user) {
+        RuleMatcher matcher = matcher(user.getId());
+        Map<Long, Category> categories = new HashMap<>();
+        long scanned = 0;
+        long matched = 0;
+        long updated = 0;
+        if (matcher.size() > 0) {
+            // Keyset pages by (date, id): rows inserted or deleted meanwhile can't shift later pages
+            TransactionFilter filter = new TransactionFilter();
+            List<Transaction> page;
+            do {
+                page = transactionRepository.findFiltered(user.getId(), filter, pageSize);
+                for (Transaction transaction : page) {
+                    scanned++;
+                    Long accountId = transaction.getAccount() != null ? transaction.getAccount().getId() : null;
+                    Long categoryId = matcher.match(transaction.getDescription(), transaction.getAmount(),
+                            transaction.getType(), accountId);
+                    if (categoryId == null) {
+                        continue;
+                    }
+                    matched++;
+                    if (categoryId.equals(transaction.getCategory().getId())) {
+                        continue;
+                    }
+                    Category category = categories.computeIfAbsent(categoryId,
+                            id -> categoryRepository.findById(id).orElse(null));
+                    if (category == null) {
+                        continue;
+                    }
+                    transaction.setCategory(category);
+                    // One save per row, so the outbox records each change
+                    transactionRepository.save(transaction);
+                    updated++;
+                }
+                if (!page.isEmpty()) {
+                    filter.setCursor(TransactionFilter.cursorOf(page.get(page.size() - 1)));
+                }
+            } while (page.size() == pageSize);
+        }
+        meterRegistry.counter("rules.recategorized").increment(updated);
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("scanned", scanned);
+        result.put("matched", matched);
+        result.put("updated", updated);
+        return result;
+    }
+}
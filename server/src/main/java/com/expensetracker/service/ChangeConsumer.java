@@ -0,0 +1,25 @@
+package com.expensetracker.service;
+
+/**
+ * An in-process reader of the change journal. Events arrive in journal order, at least once:
+ * after a crash the events since the last saved offset are delivered again, so handlers must
+ * be idempotent. A handler that throws is retried with the same event on the next round.
+ */
+public interface ChangeConsumer {
+
+    /**
+     * Stable name, used to store the consumer's offset.
+     */
+    String getName();
+
+    void accept(ChangeEvent event) throws Exception;
+
+    /**
+     * For consumers that persist their state on their own schedule: the offset of the first event
+     * not yet durable in that state, or null when unknown. Read once at startup; delivery resumes
+     * from it when it is behind the saved offset, so events lost in a crash are applied again.
+     */
+    default Long durableOffset() {
+        return null;
+    }
+}
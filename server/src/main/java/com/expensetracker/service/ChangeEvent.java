@@ -0,0 +1,87 @@
+package com.expensetracker.service;
+
+import java.util.Map;
+
+/**
+ * One record of the change journal. {@code offset} is the record's position in the journal;
+ * {@code data} is a flat snapshot of the entity after the change (empty for deletes).
+ */
+public class ChangeEvent {
+
+    private long offset;
+    private Long outboxId;
+    private String aggregateType;
+    private Long aggregateId;
+    private Long userId;
+    private String operation;
+    private String occurredAt;
+    private Map<String, Object> data;
+
+    // Constructors
+    public ChangeEvent() {}
+
+    // Getters and Setters
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public Long getOutboxId() {
+        return outboxId;
+    }
+
+    public void setOutboxId(Long outboxId) {
+        this.outboxId = outboxId;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public void setAggregateType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public String getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(String occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public Map<String, Object> getData() {
+        return data;
+    }
+
+    public void setData(Map<String, Object> data) {
+        this.data = data;
+    }
+}
@@ -0,0 +1,317 @@
+package com.expensetracker.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of change records in memory-mapped segment files. Every record gets a
+ * sequential offset and is stored as
+ *
+ * <pre>
+ *   int length | int crc32c(offset, payload) | long offset | payload
+ * </pre>
+ *
+ * The length is written last, so a record torn by a crash reads as the end of the log; on
+ * startup the last segment is scanned and truncated after the last record with a valid
+ * checksum. Segments are named after the offset of their first record. Whole segments that
+ * every reader is past are removed with {@link #deleteBefore(long)}.
+ */
+@Component
+public class ChangeJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeJournal.class);
+
+    private static final int HEADER_BYTES = 16;
+
+    // One sparse index entry per this many records
+    private static final int INDEX_INTERVAL = 64;
+
+    @Value("${journal.dir:./data/journal}")
+    private String journalDir;
+
+    @Value("${journal.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment active;
+
+    @PostConstruct
+    synchronized void open() throws IOException {
+        Path dir = Paths.get(journalDir);
+        Files.createDirectories(dir);
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+
+        for (Path file : files) {
+            long baseOffset = Long.parseLong(file.getFileName().toString().replace(".log", ""));
+            if (active != null && baseOffset != active.nextOffset()) {
+                logger.warn("Journal segment {} does not continue offset {}, ignoring it and later segments",
+                        file, active.nextOffset());
+                break;
+            }
+            Segment segment = Segment.open(file, baseOffset, (int) Math.max(Files.size(file), segmentBytes));
+            segment.recover();
+            segments.add(segment);
+            active = segment;
+        }
+        if (active == null) {
+            roll(0);
+        }
+        logger.info("Change journal opened at offset {} ({} segments)", active.nextOffset(), segments.size());
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        flush();
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Appends a record and returns its offset. Not durable until {@link #flush()}.
+     */
+    public synchronized long append(byte[] payload) {
+        int size = HEADER_BYTES + payload.length;
+        if (size + 4 > segmentBytes) {
+            throw new IllegalArgumentException("Journal record of " + payload.length + " bytes exceeds the segment size");
+        }
+        if (active.writePosition + size + 4 > active.capacity()) {
+            active.buffer.force();
+            roll(active.nextOffset());
+        }
+        return active.append(payload);
+    }
+
+    public synchronized void flush() {
+        if (active != null) {
+            active.buffer.force();
+        }
+    }
+
+    /**
+     * Offset the next appended record will get.
+     */
+    public synchronized long endOffset() {
+        return active.nextOffset();
+    }
+
+    /**
+     * Up to {@code max} records starting at {@code fromOffset}.
+     */
+    public synchronized List<JournalRecord> read(long fromOffset, int max) {
+        List<JournalRecord> records = new ArrayList<>();
+        long offset = Math.max(fromOffset, segments.get(0).baseOffset);
+        for (int i = findSegment(offset); i < segments.size() && records.size() < max; i++) {
+            Segment segment = segments.get(i);
+            if (offset >= segment.nextOffset()) {
+                // Caught up; the index has no slot past the last record
+                break;
+            }
+            int position = segment.positionOf(offset);
+            while (records.size() < max && offset < segment.nextOffset()) {
+                int length = segment.buffer.getInt(position);
+                byte[] payload = new byte[length];
+                segment.buffer.get(position + HEADER_BYTES, payload);
+                records.add(new JournalRecord(offset, payload));
+                position += HEADER_BYTES + length;
+                offset++;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Deletes the segments whose records all lie below {@code offset}; the active segment is
+     * always kept. Returns the number of segments deleted.
+     */
+    public synchronized int deleteBefore(long offset) {
+        int deleted = 0;
+        while (segments.size() > 1 && segments.get(0).nextOffset() <= offset) {
+            Segment segment = segments.remove(0);
+            segment.close();
+            try {
+                // The mapping itself is released once the buffer is garbage collected
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                logger.warn("Failed to delete journal segment {}: {}", segment.path, e.getMessage());
+            }
+            deleted++;
+        }
+        return deleted;
+    }
+
+    /**
+     * Offset of the oldest record still kept.
+     */
+    public synchronized long startOffset() {
+        return segments.get(0).baseOffset;
+    }
+
+    private int findSegment(long offset) {
+        int index = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i).baseOffset <= offset) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    private void roll(long baseOffset) {
+        try {
+            Path file = Paths.get(journalDir).resolve(String.format("%020d.log", baseOffset));
+            active = Segment.open(file, baseOffset, segmentBytes);
+            segments.add(active);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create journal segment", e);
+        }
+    }
+
+    public static class JournalRecord {
+
+        private final long offset;
+        private final byte[] payload;
+
+        JournalRecord(long offset, byte[] payload) {
+            this.offset = offset;
+            this.payload = payload;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long baseOffset;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int count;
+        private int writePosition;
+        private int[] index = new int[16];
+
+        private Segment(Path path, long baseOffset, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.baseOffset = baseOffset;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, long baseOffset, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(path, baseOffset, channel, buffer);
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        long nextOffset() {
+            return baseOffset + count;
+        }
+
+        /**
+         * Finds the end of the valid records and clears whatever follows.
+         */
+        void recover() {
+            int position = 0;
+            while (position + HEADER_BYTES <= capacity()) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + HEADER_BYTES + length > capacity()) {
+                    break;
+                }
+                long offset = buffer.getLong(position + 8);
+                if (offset != nextOffset() || buffer.getInt(position + 4) != checksum(offset, position + HEADER_BYTES, length)) {
+                    logger.warn("Journal segment {} has a damaged record at offset {}, truncating", path, nextOffset());
+                    break;
+                }
+                indexRecord(position);
+                position += HEADER_BYTES + length;
+            }
+            writePosition = position;
+            if (position + 4 <= capacity()) {
+                buffer.putInt(position, 0);
+            }
+        }
+
+        long append(byte[] payload) {
+            long offset = nextOffset();
+            int position = writePosition;
+            buffer.putLong(position + 8, offset);
+            buffer.put(position + HEADER_BYTES, payload);
+            buffer.putInt(position + 4, checksum(offset, position + HEADER_BYTES, payload.length));
+            // Terminator for the next record, then the length that makes this one visible
+            buffer.putInt(position + HEADER_BYTES + payload.length, 0);
+            buffer.putInt(position, payload.length);
+            indexRecord(position);
+            writePosition = position + HEADER_BYTES + payload.length;
+            return offset;
+        }
+
+        int positionOf(long offset) {
+            int relative = (int) (offset - baseOffset);
+            int position = index[relative / INDEX_INTERVAL];
+            for (int i = relative - relative % INDEX_INTERVAL; i < relative; i++) {
+                position += HEADER_BYTES + buffer.getInt(position);
+            }
+            return position;
+        }
+
+        private void indexRecord(int position) {
+            if (count % INDEX_INTERVAL == 0) {
+                int slot = count / INDEX_INTERVAL;
+                if (slot == index.length) {
+                    index = Arrays.copyOf(index, index.length * 2);
+                }
+                index[slot] = position;
+            }
+            count++;
+        }
+
+        private int checksum(long offset, int payloadPosition, int length) {
+            CRC32C crc = new CRC32C();
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                crc.update((int) (offset >>> shift));
+            }
+            crc.update(buffer.slice(payloadPosition, length));
+            return (int) crc.getValue();
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close journal segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
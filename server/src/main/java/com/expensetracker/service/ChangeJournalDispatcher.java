@@ -0,0 +1,165 @@
+package com.expensetracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feeds the change journal to every {@link ChangeConsumer}. Each consumer has its own offset,
+ * saved to {@code <journal.dir>/consumers/<name>.offset} after every batch, so a consumer can
+ * fall behind, restart or be rewound with {@link #replay} without affecting the others. A
+ * consumer that persists its state less often than that resumes from its
+ * {@link ChangeConsumer#durableOffset()} instead. Segments every consumer is past, durably,
+ * are deleted, keeping at least {@code journal.retention.min-records} records.
+ */
+@Component
+public class ChangeJournalDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeJournalDispatcher.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ChangeJournal journal;
+
+    @Autowired(required = false)
+    private List<ChangeConsumer> consumers = List.of();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${journal.dir:./data/journal}")
+    private String journalDir;
+
+    @Value("${journal.dispatch-batch-size:500}")
+    private int batchSize;
+
+    // Also keeps the tail OutboxRelay reads at startup to find where it left off
+    @Value("${journal.retention.min-records:10000}")
+    private long retentionMinRecords;
+
+    private final Map<String, Long> offsets = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(offsetDir());
+        for (ChangeConsumer consumer : consumers) {
+            Path file = offsetFile(consumer.getName());
+            long offset = Files.exists(file) ? Long.parseLong(Files.readString(file).trim()) : 0;
+            Long durable = consumer.durableOffset();
+            if (durable != null && durable < offset) {
+                logger.info("Journal consumer {} resumes at its durable offset {} instead of {}",
+                        consumer.getName(), durable, offset);
+                offset = durable;
+            }
+            offsets.put(consumer.getName(), offset);
+            Gauge.builder("journal.consumer.lag", () -> journal.endOffset() - offsets.get(consumer.getName()))
+                    .tag("consumer", consumer.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${journal.dispatch-interval-ms:100}")
+    public void dispatch() {
+        for (ChangeConsumer consumer : consumers) {
+            synchronized (consumer) {
+                long from = offsets.get(consumer.getName());
+                long next = deliver(consumer, journal.read(from, batchSize), from);
+                if (next != from) {
+                    saveOffset(consumer.getName(), next);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${journal.retention.interval-ms:60000}", initialDelay = 60000)
+    public void deleteConsumed() {
+        long keepFrom = journal.endOffset() - retentionMinRecords;
+        for (ChangeConsumer consumer : consumers) {
+            keepFrom = Math.min(keepFrom, offsets.get(consumer.getName()));
+            // Where the consumer would resume after a restart
+            Long durable = consumer.durableOffset();
+            if (durable != null) {
+                keepFrom = Math.min(keepFrom, durable);
+            }
+        }
+        int deleted = journal.deleteBefore(keepFrom);
+        if (deleted > 0) {
+            logger.info("Deleted {} journal segments below offset {}", deleted, keepFrom);
+        }
+    }
+
+    /**
+     * Rewinds a consumer so it rebuilds its view from the given offset (0 for the whole journal).
+     * Records below {@link ChangeJournal#startOffset()} have been deleted and are skipped.
+     */
+    public void replay(String consumerName, long fromOffset) {
+        ChangeConsumer consumer = consumers.stream()
+                .filter(candidate -> candidate.getName().equals(consumerName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown journal consumer: " + consumerName));
+        synchronized (consumer) {
+            saveOffset(consumerName, fromOffset);
+        }
+    }
+
+    public Map<String, Long> getOffsets() {
+        return Map.copyOf(offsets);
+    }
+
+    private long deliver(ChangeConsumer consumer, List<ChangeJournal.JournalRecord> records, long from) {
+        long next = from;
+        for (ChangeJournal.JournalRecord record : records) {
+            try {
+                ChangeEvent event = objectMapper.readValue(record.getPayload(), ChangeEvent.class);
+                event.setOffset(record.getOffset());
+                consumer.accept(event);
+            } catch (Exception e) {
+                // Stop here and retry the same record next round, keeping the order
+                logger.error("Journal consumer {} failed at offset {}: {}", consumer.getName(),
+                        record.getOffset(), e.getMessage());
+                return next;
+            }
+            next = record.getOffset() + 1;
+        }
+        return next;
+    }
+
+    private void saveOffset(String consumerName, long offset) {
+        try {
+            Path file = offsetFile(consumerName);
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, Long.toString(offset), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            offsets.put(consumerName, offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save offset of journal consumer " + consumerName, e);
+        }
+    }
+
+    private Path offsetDir() {
+        return Paths.get(journalDir).resolve("consumers");
+    }
+
+    private Path offsetFile(String consumerName) {
+        return offsetDir().resolve(consumerName + ".offset");
+    }
+}
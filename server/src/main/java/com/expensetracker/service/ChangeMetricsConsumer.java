@@ -0,0 +1,26 @@
+package com.expensetracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts journal changes by aggregate and operation ({@code journal.changes}).
+ */
+@Component
+public class ChangeMetricsConsumer implements ChangeConsumer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public String getName() {
+        return "metrics";
+    }
+
+    @Override
+    public void accept(ChangeEvent event) {
+        meterRegistry.counter("journal.changes",
+                "aggregate", event.getAggregateType(), "operation", event.getOperation()).increment();
+    }
+}
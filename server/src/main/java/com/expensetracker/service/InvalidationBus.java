@@ -0,0 +1,56 @@
+package com.expensetracker.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connects the configured {@link InvalidationTransport} ({@code cache.invalidation.transport}:
+ * {@code outbox} by default, or {@code loopback}) to the {@link VersionedCache}.
+ */
+@Component
+public class InvalidationBus {
+
+    @Autowired
+    private InvalidationTransport transport;
+
+    @Autowired
+    private VersionedCache versionedCache;
+
+    @PostConstruct
+    void init() {
+        transport.subscribe(versionedCache::invalidate);
+    }
+
+    /**
+     * Invalidates a family for one user (or every user, with a null id) on all instances.
+     */
+    public void publish(Long userId, String family) {
+        transport.publish(userId, family);
+    }
+
+    /**
+     * Entity change captured in the outbox, called once its transaction has committed.
+     */
+    public void entityChanged(String aggregateType, Long userId) {
+        transport.committed(userId, familyOf(aggregateType));
+    }
+
+    /**
+     * Resource family affected by a change to the given aggregate type.
+     */
+    public static String familyOf(String aggregateType) {
+        switch (aggregateType) {
+            case "transaction":
+                return "transactions";
+            case "account":
+                return "accounts";
+            case "budget":
+                return "budgets";
+            case "category":
+                return "categories";
+            default:
+                return aggregateType;
+        }
+    }
+}
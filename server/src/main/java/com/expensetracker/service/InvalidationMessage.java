@@ -0,0 +1,36 @@
+package com.expensetracker.service;
+
+/**
+ * "Everything of {@code family} cached for {@code userId} may be stale." A null user id applies
+ * to every user.
+ */
+public class InvalidationMessage {
+
+    private Long userId;
+    private String family;
+
+    // Constructors
+    public InvalidationMessage() {}
+
+    public InvalidationMessage(Long userId, String family) {
+        this.userId = userId;
+        this.family = family;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getFamily() {
+        return family;
+    }
+
+    public void setFamily(String family) {
+        this.family = family;
+    }
+}
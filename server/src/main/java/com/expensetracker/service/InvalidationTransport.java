@@ -0,0 +1,23 @@
+package com.expensetracker.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidation messages to every server instance, including the sender. Delivery is
+ * at least once and may be out of order, so receivers treat every message as a fresh change.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Broadcasts an invalidation.
+     */
+    void publish(Long userId, String family);
+
+    /**
+     * Called after commit for an entity change already recorded in the outbox. Must at least
+     * deliver locally right away so the writer reads its own write.
+     */
+    void committed(Long userId, String family);
+
+    void subscribe(Consumer<InvalidationMessage> listener);
+}
@@ -0,0 +1,37 @@
+package com.expensetracker.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations synchronously inside this JVM only. For tests and single-instance runs.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "loopback")
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<InvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Long userId, String family) {
+        deliver(new InvalidationMessage(userId, family));
+    }
+
+    @Override
+    public void committed(Long userId, String family) {
+        deliver(new InvalidationMessage(userId, family));
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+
+    private void deliver(InvalidationMessage message) {
+        listeners.forEach(listener -> listener.accept(message));
+    }
+}
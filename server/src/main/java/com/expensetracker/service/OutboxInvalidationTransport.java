@@ -0,0 +1,72 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.OutboxEvent;
+import com.expensetracker.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Default transport: invalidations ride on the outbox. Every instance polls outbox rows into
+ * its change journal (see {@link OutboxRelay}), and this consumer turns each journal event into
+ * an invalidation, so a restarted reader simply catches up.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "outbox", matchIfMissing = true)
+public class OutboxInvalidationTransport implements InvalidationTransport, ChangeConsumer {
+
+    static final String AGGREGATE_TYPE = "invalidation";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private final List<Consumer<InvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Long userId, String family) {
+        outboxEventRepository.save(new OutboxEvent(AGGREGATE_TYPE, null, userId, family, null));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed(userId, family);
+                }
+            });
+        } else {
+            committed(userId, family);
+        }
+    }
+
+    @Override
+    public void committed(Long userId, String family) {
+        deliver(new InvalidationMessage(userId, family));
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public String getName() {
+        return "invalidation";
+    }
+
+    @Override
+    public void accept(ChangeEvent event) {
+        String family = AGGREGATE_TYPE.equals(event.getAggregateType())
+                ? event.getOperation()
+                : InvalidationBus.familyOf(event.getAggregateType());
+        deliver(new InvalidationMessage(event.getUserId(), family));
+    }
+
+    private void deliver(InvalidationMessage message) {
+        listeners.forEach(listener -> listener.accept(message));
+    }
+}
@@ -0,0 +1,157 @@
+package com.expensetracker.service;
+
+import com.expensetracker.config.ReplicaRoutingContext;
+import com.expensetracker.entity.OutboxEvent;
+import com.expensetracker.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copies committed outbox rows into the change journal in id order. Every instance relays
+ * into its own journal and outbox rows are only removed after a retention period, so each
+ * instance's in-process consumers see every change.
+ *
+ * <p>Identity ids are assigned before commit, so a slow transaction can commit id 41 after id 42
+ * was already relayed. Skipped ids are remembered and re-checked until they show up or
+ * {@code journal.gap-timeout-ms} passes (a rolled-back transaction never fills its id). The
+ * gaps are not saved: on startup, ids just below the resume point that are not in the
+ * journal's tail are tracked as gaps again.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ChangeJournal journal;
+
+    @Value("${journal.relay-batch-size:500}")
+    private int batchSize;
+
+    @Value("${journal.gap-timeout-ms:60000}")
+    private long gapTimeoutMs;
+
+    @Value("${journal.outbox-retention-hours:24}")
+    private long outboxRetentionHours;
+
+    private long lastRelayedId;
+    private final Map<Long, Long> gaps = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        // Resume after the highest outbox id already in the journal. Gap fills are journaled
+        // after the ids around them, so twice the tracked window covers them.
+        int tail = 2 * MAX_TRACKED_GAP;
+        Set<Long> journaled = new HashSet<>();
+        for (ChangeJournal.JournalRecord record : journal.read(Math.max(0, journal.endOffset() - tail), tail)) {
+            try {
+                ChangeEvent event = objectMapper.readValue(record.getPayload(), ChangeEvent.class);
+                if (event.getOutboxId() != null) {
+                    journaled.add(event.getOutboxId());
+                    lastRelayedId = Math.max(lastRelayedId, event.getOutboxId());
+                }
+            } catch (IOException e) {
+                logger.warn("Unreadable journal record at offset {}", record.getOffset());
+            }
+        }
+
+        // Gaps open at shutdown get a fresh timeout; ids that were rolled back just expire again
+        long now = System.currentTimeMillis();
+        for (long id = Math.max(1, lastRelayedId - MAX_TRACKED_GAP); id < lastRelayedId; id++) {
+            if (!journaled.contains(id)) {
+                gaps.put(id, now);
+            }
+        }
+        if (!gaps.isEmpty()) {
+            logger.info("Outbox relay resumes after id {}, re-checking {} ids below it", lastRelayedId, gaps.size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${journal.relay-interval-ms:200}")
+    public synchronized void relay() {
+        // The replicas may not have the newest rows yet
+        ReplicaRoutingContext.setPrimaryPinned(true);
+        try {
+            List<OutboxEvent> batch = new ArrayList<>();
+            if (!gaps.isEmpty()) {
+                batch.addAll(outboxEventRepository.findByIdIn(gaps.keySet()));
+            }
+            batch.addAll(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(lastRelayedId, PageRequest.of(0, batchSize)));
+            if (batch.isEmpty() && gaps.isEmpty()) {
+                return;
+            }
+            batch.sort(Comparator.comparing(OutboxEvent::getId));
+
+            long now = System.currentTimeMillis();
+            for (OutboxEvent event : batch) {
+                long id = event.getId();
+                if (id > lastRelayedId) {
+                    // On the very first run the earlier ids are simply gone, not in flight
+                    long firstMissing = lastRelayedId > 0 ? lastRelayedId + 1 : id;
+                    for (long missing = Math.max(firstMissing, id - MAX_TRACKED_GAP); missing < id; missing++) {
+                        gaps.put(missing, now);
+                    }
+                    lastRelayedId = id;
+                } else if (gaps.remove(id) == null) {
+                    continue;
+                }
+                journal.append(objectMapper.writeValueAsBytes(toChangeEvent(event)));
+            }
+            gaps.values().removeIf(firstSeen -> now - firstSeen > gapTimeoutMs);
+            journal.flush();
+        } catch (IOException e) {
+            logger.error("Outbox relay failed: {}", e.getMessage());
+        } finally {
+            ReplicaRoutingContext.clear();
+        }
+    }
+
+    @Scheduled(fixedDelay = 3600000, initialDelay = 60000)
+    @Transactional
+    public void deleteRelayed() {
+        int deleted = outboxEventRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(outboxRetentionHours));
+        if (deleted > 0) {
+            logger.info("Deleted {} outbox events older than {}h", deleted, outboxRetentionHours);
+        }
+    }
+
+    private ChangeEvent toChangeEvent(OutboxEvent outboxEvent) throws IOException {
+        ChangeEvent event = new ChangeEvent();
+        event.setOutboxId(outboxEvent.getId());
+        event.setAggregateType(outboxEvent.getAggregateType());
+        event.setAggregateId(outboxEvent.getAggregateId());
+        event.setUserId(outboxEvent.getUserId());
+        event.setOperation(outboxEvent.getOperation());
+        event.setOccurredAt(outboxEvent.getCreatedAt() != null ? outboxEvent.getCreatedAt().toString() : null);
+        event.setData(outboxEvent.getPayload() != null
+                ? objectMapper.readValue(outboxEvent.getPayload(), new TypeReference<Map<String, Object>>() {})
+                : Map.of());
+        return event;
+    }
+}
@@ -0,0 +1,178 @@
+package com.expensetracker.service;
+
+import com.expensetracker.config.BoundedVirtualExecutor;
+import com.expensetracker.config.ReplicaRoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent read queries of a single request concurrently on a bounded executor.
+ * Each query runs in its own read-only transaction so lazy associations can be resolved
+ * on the worker thread.
+ */
+@Service
+public class ParallelQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelQueryService.class);
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${query.executor.threads:8}")
+    private int threads;
+
+    @Value("${query.executor.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${query.fanout.timeout-ms:5000}")
+    private long defaultTimeoutMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Deliberately not a bean: an Executor bean would replace Boot's applicationTaskExecutor
+    private AsyncTaskExecutor executor;
+
+    @PostConstruct
+    void init() {
+        if (virtualThreads) {
+            // Calls over the limit fail like those rejected by a full queue, instead of waiting
+            executor = new BoundedVirtualExecutor("query-", threads);
+            return;
+        }
+
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(threads);
+        pool.setMaxPoolSize(threads);
+        pool.setQueueCapacity(queueCapacity);
+        pool.setThreadNamePrefix("query-");
+        // A full queue fails the individual call; callers treat that as a partial failure
+        pool.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        pool.initialize();
+        executor = pool;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    public FanOut fanOut() {
+        return new FanOut(defaultTimeoutMs);
+    }
+
+    public FanOut fanOut(long timeoutMs) {
+        return new FanOut(timeoutMs);
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<T> query, long timeoutMs) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // Statement timeout for the queries inside, so abandoned calls don't hold a connection
+        readOnly.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999)));
+        // Carry the caller's read-your-writes pin over to the worker thread
+        boolean primaryPinned = ReplicaRoutingContext.isPrimaryPinned();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                ReplicaRoutingContext.setPrimaryPinned(primaryPinned);
+                try {
+                    return readOnly.execute(status -> query.get());
+                } finally {
+                    ReplicaRoutingContext.clear();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * A group of named queries sharing one deadline. Failed or timed-out calls are reported in
+     * {@link #getErrors()} and yield {@code null}; the others still return their result.
+     */
+    public class FanOut {
+
+        private final long timeoutMs;
+        private final long deadline;
+        private final Map<String, CompletableFuture<?>> calls = new LinkedHashMap<>();
+        private final Map<String, String> errors = new LinkedHashMap<>();
+
+        FanOut(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        }
+
+        public <T> CompletableFuture<T> submit(String name, Supplier<T> query) {
+            CompletableFuture<T> future = ParallelQueryService.this.submit(query, timeoutMs);
+            calls.put(name, future);
+            return future;
+        }
+
+        /**
+         * Waits for the call until the group deadline. Returns {@code null} and records an
+         * error if it failed or did not finish in time.
+         */
+        public <T> T get(String name, CompletableFuture<T> future) {
+            long remaining = deadline - System.nanoTime();
+            try {
+                return future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                errors.put(name, "Timed out after " + timeoutMs + " ms");
+            } catch (ExecutionException e) {
+                // The cause can carry SQL or internal details, so it stays in the log
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof RejectedExecutionException) {
+                    logger.warn("Query '{}' rejected: the query executor is full", name);
+                } else {
+                    logger.warn("Query '{}' failed", name, cause);
+                }
+                errors.put(name, "Unavailable");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                errors.put(name, "Interrupted");
+            }
+            return null;
+        }
+
+        /**
+         * Waits for the call and rethrows its failure, for callers that need every result.
+         */
+        public <T> T require(String name, CompletableFuture<T> future) {
+            T result = get(name, future);
+            if (errors.containsKey(name)) {
+                throw new IllegalStateException("Query '" + name + "' failed: " + errors.get(name));
+            }
+            return result;
+        }
+
+        public Map<String, String> getErrors() {
+            return errors;
+        }
+
+        public int size() {
+            return calls.size();
+        }
+    }
+}
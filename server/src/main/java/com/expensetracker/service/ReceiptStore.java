@@ -0,0 +1,206 @@
+package com.expensetracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed receipt storage. A receipt is stored once under the SHA-256 of its bytes
+ * ({@code blobs/ab/cd/abcd...}); uploading the same file again, for any transaction or user,
+ * only points at the existing blob. Uploads are streamed to a temp file while hashed, so memory
+ * use does not depend on the file size. Blobs are immutable and never deleted.
+ */
+@Service
+public class ReceiptStore {
+
+    public static final String URL_PREFIX = "/api/receipts/";
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${receipts.dir:./data/receipts}")
+    private String receiptsDir;
+
+    private Path blobs;
+    private Path thumbnails;
+    private Path temp;
+
+    @PostConstruct
+    void init() throws IOException {
+        Path root = Paths.get(receiptsDir);
+        blobs = Files.createDirectories(root.resolve("blobs"));
+        thumbnails = Files.createDirectories(root.resolve("thumbnails"));
+        temp = Files.createDirectories(root.resolve("tmp"));
+    }
+
+    /**
+     * Stores the stream's content unless an identical receipt already exists.
+     *
+     * @throws IllegalArgumentException if the content is not a JPEG, PNG or PDF
+     */
+    public StoredReceipt store(InputStream content) throws IOException {
+        Path upload = Files.createTempFile(temp, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream input = new DigestInputStream(content, digest);
+                 OutputStream output = Files.newOutputStream(upload)) {
+                input.transferTo(output);
+            }
+            String contentType = contentTypeOf(upload);
+            if (contentType == null) {
+                throw new IllegalArgumentException("Unsupported receipt format, upload a JPEG, PNG or PDF file");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            long size = Files.size(upload);
+            Path blob = blobPath(hash);
+            boolean deduplicated = Files.exists(blob);
+            if (!deduplicated) {
+                Files.createDirectories(blob.getParent());
+                try (FileChannel channel = FileChannel.open(upload, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+                // A concurrent upload of the same bytes may win the race; the content is identical
+                Files.move(upload, blob, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                meterRegistry.counter("receipts.stored.bytes").increment(size);
+            }
+            meterRegistry.counter("receipts.uploads", "result", deduplicated ? "deduplicated" : "stored").increment();
+            return new StoredReceipt(hash, contentType, size, deduplicated);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    /**
+     * The blob for a hash, or null if the hash is malformed or unknown.
+     */
+    public Path find(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return null;
+        }
+        Path blob = blobPath(hash);
+        return Files.isRegularFile(blob) ? blob : null;
+    }
+
+    public Path thumbnailPath(String hash) {
+        return shard(thumbnails, hash).resolve(hash + ".jpg");
+    }
+
+    /**
+     * Writes a thumbnail through a temp file, so readers never see a partial one.
+     */
+    public void writeThumbnail(String hash, ThumbnailWriter writer) throws IOException {
+        Path target = thumbnailPath(hash);
+        Files.createDirectories(target.getParent());
+        Path part = Files.createTempFile(temp, "thumb-", ".part");
+        try {
+            try (OutputStream output = Files.newOutputStream(part)) {
+                writer.write(output);
+            }
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    public static String urlOf(String hash) {
+        return URL_PREFIX + hash;
+    }
+
+    public static String hashOf(String receiptUrl) {
+        return receiptUrl != null && receiptUrl.startsWith(URL_PREFIX) ? receiptUrl.substring(URL_PREFIX.length()) : null;
+    }
+
+    /**
+     * Content type from the file's magic bytes; the client-supplied type is not trusted.
+     */
+    public static String contentTypeOf(Path file) throws IOException {
+        byte[] head = new byte[8];
+        int read;
+        try (InputStream input = Files.newInputStream(file)) {
+            read = input.readNBytes(head, 0, head.length);
+        }
+        if (read >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (read >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G'
+                && head[4] == 0x0D && head[5] == 0x0A && head[6] == 0x1A && head[7] == 0x0A) {
+            return "image/png";
+        }
+        if (read >= 5 && head[0] == '%' && head[1] == 'P' && head[2] == 'D' && head[3] == 'F' && head[4] == '-') {
+            return "application/pdf";
+        }
+        return null;
+    }
+
+    private Path blobPath(String hash) {
+        return shard(blobs, hash).resolve(hash);
+    }
+
+    private static Path shard(Path base, String hash) {
+        return base.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ThumbnailWriter {
+        void write(OutputStream output) throws IOException;
+    }
+
+    public static class StoredReceipt {
+
+        private final String hash;
+        private final String contentType;
+        private final long size;
+        private final boolean deduplicated;
+
+        StoredReceipt(String hash, String contentType, long size, boolean deduplicated) {
+            this.hash = hash;
+            this.contentType = contentType;
+            this.size = size;
+            this.deduplicated = deduplicated;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public boolean isDeduplicated() {
+            return deduplicated;
+        }
+    }
+}
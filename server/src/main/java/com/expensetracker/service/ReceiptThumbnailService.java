@@ -0,0 +1,148 @@
+package com.expensetracker.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates JPEG thumbnails of image receipts on a small bounded pool, off the upload request.
+ * Images are decoded with source subsampling, so the decoded raster is at most about twice the
+ * thumbnail size however large the original is. When the queue is full a request is dropped;
+ * the thumbnail is requested again the next time it is fetched.
+ */
+@Service
+public class ReceiptThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReceiptThumbnailService.class);
+
+    @Autowired
+    private ReceiptStore receiptStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${receipts.thumbnail.size:256}")
+    private int thumbnailSize;
+
+    @Value("${receipts.thumbnail.threads:2}")
+    private int threads;
+
+    @Value("${receipts.thumbnail.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    // Hashes queued or in progress, so repeated requests do not queue duplicates
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("thumbnail-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("receipts.thumbnails.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues thumbnail generation for an image receipt that has none yet.
+     */
+    public void request(String hash, String contentType) {
+        if (contentType == null || !contentType.startsWith("image/")
+                || Files.exists(receiptStore.thumbnailPath(hash)) || !pending.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(hash);
+                    meterRegistry.counter("receipts.thumbnails", "result", "generated").increment();
+                } catch (Exception e) {
+                    logger.warn("Thumbnail of receipt {} failed: {}", hash, e.getMessage());
+                    meterRegistry.counter("receipts.thumbnails", "result", "failed").increment();
+                } finally {
+                    pending.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(hash);
+            meterRegistry.counter("receipts.thumbnails", "result", "rejected").increment();
+        }
+    }
+
+    private void generate(String hash) throws IOException {
+        Path source = receiptStore.find(hash);
+        if (source == null) {
+            return;
+        }
+        BufferedImage decoded;
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("No image reader for receipt");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Dimensions come from the header; only every n-th pixel is decoded
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longest / (thumbnailSize * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                decoded = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        double scale = Math.min(1.0, (double) thumbnailSize / Math.max(decoded.getWidth(), decoded.getHeight()));
+        int width = Math.max(1, (int) Math.round(decoded.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(decoded.getHeight() * scale));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            // JPEG has no alpha; transparent PNG areas become white
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(decoded, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        receiptStore.writeThumbnail(hash, output -> {
+            if (!ImageIO.write(thumbnail, "jpg", output)) {
+                throw new IOException("No JPEG writer available");
+            }
+        });
+    }
+}
@@ -0,0 +1,240 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.CategoryRule;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * All of one user's categorization rules compiled into a single Aho-Corasick automaton, so a
+ * description is scanned once, one table lookup per character, however many rules there are.
+ *
+ * <p>Keywords match case-insensitively anywhere in the description. Every keyword match is then
+ * checked against its rule's type, account and amount predicates. Of the rules that pass, the
+ * one with the lowest priority wins; ties go to the longer keyword, then to the older rule.
+ * Rules without a keyword only have predicates and are checked for every description.
+ *
+ * <p>Immutable and thread-safe once compiled.
+ */
+public final class RuleMatcher {
+
+    public static final RuleMatcher EMPTY = compile(List.of());
+
+    private final CompiledRule[] rules;
+    // Rule indexes of keyword-less rules, best first
+    private final int[] alwaysRules;
+
+    // Characters are mapped to dense classes; class 0 is any character no keyword uses
+    private final int[] asciiClasses = new int[128];
+    private final char[] otherChars;
+    private final int[] otherClasses;
+    private final int classCount;
+
+    // delta[state * classCount + class] is the next state; the automaton is a complete DFA
+    private final int[] delta;
+    // Rule indexes of keywords ending in a state, including those reached by failure links
+    private final int[][] outputs;
+
+    private RuleMatcher(List<CompiledRule> ranked) {
+        rules = ranked.toArray(new CompiledRule[0]);
+
+        TreeSet<Character> alphabet = new TreeSet<>();
+        List<Integer> always = new ArrayList<>();
+        for (int i = 0; i < rules.length; i++) {
+            if (rules[i].keyword.isEmpty()) {
+                always.add(i);
+            }
+            for (char c : rules[i].keyword.toCharArray()) {
+                alphabet.add(c);
+            }
+        }
+        alwaysRules = always.stream().mapToInt(Integer::intValue).toArray();
+
+        List<Character> others = new ArrayList<>();
+        int nextClass = 1;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiClasses[c] = nextClass++;
+            } else {
+                others.add(c);
+            }
+        }
+        otherChars = new char[others.size()];
+        otherClasses = new int[others.size()];
+        for (int i = 0; i < others.size(); i++) {
+            otherChars[i] = others.get(i);
+            otherClasses[i] = nextClass++;
+        }
+        classCount = nextClass;
+
+        // Trie of keywords; -1 marks a missing edge until failure links fill it in
+        List<int[]> edges = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        edges.add(newRow());
+        ends.add(new ArrayList<>());
+        for (int i = 0; i < rules.length; i++) {
+            String keyword = rules[i].keyword;
+            if (keyword.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int k = 0; k < keyword.length(); k++) {
+                int c = classOf(keyword.charAt(k));
+                if (edges.get(state)[c] < 0) {
+                    edges.get(state)[c] = edges.size();
+                    edges.add(newRow());
+                    ends.add(new ArrayList<>());
+                }
+                state = edges.get(state)[c];
+            }
+            ends.get(state).add(i);
+        }
+
+        int states = edges.size();
+        delta = new int[states * classCount];
+        outputs = new int[states][];
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < classCount; c++) {
+            int next = edges.get(0)[c];
+            delta[c] = next < 0 ? 0 : next;
+            if (next > 0) {
+                queue.add(next);
+            }
+        }
+        outputs[0] = new int[0];
+        // Breadth-first, so a state's failure target is complete before the state itself
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            TreeSet<Integer> matched = new TreeSet<>(ends.get(state));
+            for (int rule : outputs[fail[state]]) {
+                matched.add(rule);
+            }
+            outputs[state] = matched.stream().mapToInt(Integer::intValue).toArray();
+            for (int c = 0; c < classCount; c++) {
+                int next = edges.get(state)[c];
+                if (next < 0) {
+                    delta[state * classCount + c] = delta[fail[state] * classCount + c];
+                } else {
+                    delta[state * classCount + c] = next;
+                    fail[next] = delta[fail[state] * classCount + c];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    public static RuleMatcher compile(List<CategoryRule> categoryRules) {
+        List<CompiledRule> compiled = new ArrayList<>();
+        for (CategoryRule rule : categoryRules) {
+            compiled.add(new CompiledRule(rule));
+        }
+        compiled.sort(Comparator.comparingInt((CompiledRule r) -> r.priority)
+                .thenComparing(r -> -r.keyword.length())
+                .thenComparingLong(r -> r.id));
+        return new RuleMatcher(compiled);
+    }
+
+    public static String normalizeKeyword(String keyword) {
+        return keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    /**
+     * Category id of the best rule matching the transaction, or null if none matches.
+     */
+    public Long match(CharSequence description, BigDecimal amount, String type, Long accountId) {
+        if (rules.length == 0) {
+            return null;
+        }
+        int best = Integer.MAX_VALUE;
+        int state = 0;
+        int length = description != null ? description.length() : 0;
+        for (int i = 0; i < length; i++) {
+            state = delta[state * classCount + classOf(Character.toLowerCase(description.charAt(i)))];
+            // Outputs are in rank order, so only the first passing rule of a state matters
+            for (int rule : outputs[state]) {
+                if (rule >= best) {
+                    break;
+                }
+                if (rules[rule].accepts(amount, type, accountId)) {
+                    best = rule;
+                    break;
+                }
+            }
+            if (best == 0) {
+                return rules[0].categoryId;
+            }
+        }
+        for (int rule : alwaysRules) {
+            if (rule >= best) {
+                break;
+            }
+            if (rules[rule].accepts(amount, type, accountId)) {
+                best = rule;
+                break;
+            }
+        }
+        return best == Integer.MAX_VALUE ? null : rules[best].categoryId;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClasses[c];
+        }
+        int index = Arrays.binarySearch(otherChars, c);
+        return index >= 0 ? otherClasses[index] : 0;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[classCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static final class CompiledRule {
+
+        final long id;
+        final String keyword;
+        final int priority;
+        final Long categoryId;
+        // A rule only ever assigns a category of the transaction's own type
+        final String type;
+        final Long accountId;
+        final BigDecimal minAmount;
+        final BigDecimal maxAmount;
+
+        CompiledRule(CategoryRule rule) {
+            id = rule.getId() != null ? rule.getId() : 0L;
+            keyword = normalizeKeyword(rule.getKeyword());
+            priority = rule.getPriority() != null ? rule.getPriority() : CategoryRule.DEFAULT_PRIORITY;
+            categoryId = rule.getCategory().getId();
+            type = rule.getCategory().getType();
+            accountId = rule.getAccount() != null ? rule.getAccount().getId() : null;
+            minAmount = rule.getMinAmount();
+            maxAmount = rule.getMaxAmount();
+        }
+
+        boolean accepts(BigDecimal amount, String transactionType, Long transactionAccountId) {
+            if (type != null && !type.equalsIgnoreCase(transactionType)) {
+                return false;
+            }
+            if (accountId != null && !accountId.equals(transactionAccountId)) {
+                return false;
+            }
+            if (minAmount != null && (amount == null || amount.compareTo(minAmount) < 0)) {
+                return false;
+            }
+            return maxAmount == null || (amount != null && amount.compareTo(maxAmount) <= 0);
+        }
+    }
+}
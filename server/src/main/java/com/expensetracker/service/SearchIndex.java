@@ -0,0 +1,527 @@
+package com.expensetracker.service;
+
+import com.expensetracker.config.SchemaCheck;
+import com.expensetracker.entity.ArchiveSegment;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.repository.ArchiveSegmentRepository;
+import com.expensetracker.repository.TransactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Full-text index of transaction descriptions, notes and tags, kept in Lucene indexes on local
+ * disk. Users are spread over {@code search.partitions} indexes by id, and each user lives
+ * entirely in one partition, so a search touches a single index. Every instance keeps its own
+ * copy: it is fed by the change journal, which every instance reads, and readers are refreshed
+ * every {@code search.refresh-ms}, so a write becomes searchable within about a second.
+ *
+ * <p>The index only holds ids and dates for results; {@link TransactionService} loads the
+ * transactions themselves, which also drops hits for rows deleted in the meantime.
+ */
+@Service
+public class SearchIndex implements ChangeConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+
+    private static final int MAX_QUERY_TERMS = 8;
+
+    // Commit user data: the journal offset every committed partition includes
+    private static final String JOURNAL_OFFSET = "journal.offset";
+
+    // Field boosts: a description match counts more than a tag, a tag more than a note
+    private static final String[] FIELDS = {"description", "tags", "notes"};
+    private static final float[] BOOSTS = {2.0f, 1.5f, 1.0f};
+
+    private static final Sort RELEVANCE_THEN_NEWEST = new Sort(SortField.FIELD_SCORE,
+            new SortField("date", SortField.Type.LONG, true));
+    private static final Sort NEWEST = new Sort(new SortField("date", SortField.Type.LONG, true));
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ArchiveSegmentRepository archiveSegmentRepository;
+
+    @Autowired
+    private TransactionArchiveStore archiveStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<SchemaCheck> schemaCheck;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${search.dir:./data/search}")
+    private String searchDir;
+
+    @Value("${search.partitions:16}")
+    private int partitionCount;
+
+    @Value("${search.ram-buffer-mb:32}")
+    private double ramBufferMb;
+
+    @Value("${search.rebuild-on-startup:if-empty}")
+    private String rebuildOnStartup;
+
+    @Value("${search.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    private final Analyzer analyzer = new FoldingAnalyzer();
+    private Partition[] partitions;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Offset after the last journal event applied to the writers
+    private final AtomicLong appliedOffset = new AtomicLong(-1);
+    private volatile long committedOffset = -1;
+    private volatile boolean complete;
+
+    @PostConstruct
+    void init() throws IOException {
+        partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            Path path = Files.createDirectories(Paths.get(searchDir, "p" + i));
+            IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                    .setRAMBufferSizeMB(ramBufferMb);
+            IndexWriter writer = new IndexWriter(FSDirectory.open(path), config);
+            partitions[i] = new Partition(writer, new SearcherManager(writer, null));
+        }
+        Gauge.builder("search.documents", this, SearchIndex::documentCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void close() {
+        boolean partial = rebuilding.get();
+        try {
+            commit();
+        } catch (IOException e) {
+            logger.warn("Committing the search index failed: {}", e.getMessage());
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.searchers.close();
+                if (partial) {
+                    // Closing would commit the half-built index; keep the last commit instead
+                    partition.writer.rollback();
+                } else {
+                    partition.writer.close();
+                }
+            } catch (IOException e) {
+                logger.warn("Closing search partition failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    public long documentCount() {
+        long count = 0;
+        for (Partition partition : partitions) {
+            count += partition.writer.getDocStats().numDocs;
+        }
+        return count;
+    }
+
+    /**
+     * Ids and dates of the user's best matching transactions, best first. Every word of the
+     * query must match, exactly, as a prefix or within an edit distance of one or two.
+     */
+    public List<Hit> search(Long userId, String text, int limit) throws IOException {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        return collect(userId, textQuery(userId, terms).build(), limit, RELEVANCE_THEN_NEWEST);
+    }
+
+    /**
+     * Every matching transaction of the user dated within [startDate, endDate] (either may be
+     * null), newest first by (date, id), with no relevance cut-off. For filters, which must not
+     * drop matches.
+     */
+    public List<Hit> searchAll(Long userId, String text, LocalDate startDate, LocalDate endDate) throws IOException {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        BooleanQuery.Builder query = textQuery(userId, terms);
+        if (startDate != null || endDate != null) {
+            query.add(NumericDocValuesField.newSlowRangeQuery("date",
+                    startDate != null ? startDate.toEpochDay() : Long.MIN_VALUE,
+                    endDate != null ? endDate.toEpochDay() : Long.MAX_VALUE), BooleanClause.Occur.FILTER);
+        }
+        List<Hit> hits = new ArrayList<>(collect(userId, query.build(), Integer.MAX_VALUE, NEWEST));
+        hits.sort(Comparator.comparing(Hit::getDate).thenComparing(Hit::getId).reversed());
+        return hits;
+    }
+
+    /**
+     * False while the index is being rebuilt or has not been checked at startup yet, when
+     * searches can miss matches.
+     */
+    public boolean isComplete() {
+        return complete && !rebuilding.get();
+    }
+
+    private BooleanQuery.Builder textQuery(Long userId, List<String> terms) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term("user", userId.toString())), BooleanClause.Occur.FILTER);
+        for (String term : terms) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            for (int f = 0; f < FIELDS.length; f++) {
+                Term fieldTerm = new Term(FIELDS[f], term);
+                anyField.add(new BoostQuery(new TermQuery(fieldTerm), BOOSTS[f] * 3), BooleanClause.Occur.SHOULD);
+                anyField.add(new BoostQuery(new PrefixQuery(fieldTerm), BOOSTS[f] * 1.5f), BooleanClause.Occur.SHOULD);
+                if (term.length() >= 4) {
+                    int edits = term.length() >= 8 ? 2 : 1;
+                    anyField.add(new BoostQuery(new FuzzyQuery(fieldTerm, edits, 1), BOOSTS[f]), BooleanClause.Occur.SHOULD);
+                }
+            }
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        return query;
+    }
+
+    private List<Hit> collect(Long userId, Query query, int limit, Sort sort) throws IOException {
+        long start = System.nanoTime();
+        SearcherManager searchers = partition(userId).searchers;
+        IndexSearcher searcher = searchers.acquire();
+        try {
+            int n = limit == Integer.MAX_VALUE ? Math.max(1, searcher.count(query)) : limit;
+            TopDocs top = searcher.search(query, n, sort, sort == RELEVANCE_THEN_NEWEST);
+            StoredFields stored = searcher.storedFields();
+            List<Hit> hits = new ArrayList<>(top.scoreDocs.length);
+            for (ScoreDoc scoreDoc : top.scoreDocs) {
+                Document document = stored.document(scoreDoc.doc);
+                hits.add(new Hit(Long.parseLong(document.get("id")),
+                        LocalDate.ofEpochDay(document.getField("date").numericValue().longValue())));
+            }
+            return hits;
+        } finally {
+            searchers.release(searcher);
+            meterRegistry.timer("search.query").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "search";
+    }
+
+    /**
+     * The lowest journal offset committed with the partitions, or null for an index committed
+     * without one, in which case the saved consumer offset is trusted.
+     */
+    @Override
+    public Long durableOffset() {
+        Long lowest = null;
+        for (Partition partition : partitions) {
+            String offset = null;
+            Iterable<Map.Entry<String, String>> data = partition.writer.getLiveCommitData();
+            if (data != null) {
+                for (Map.Entry<String, String> entry : data) {
+                    if (JOURNAL_OFFSET.equals(entry.getKey())) {
+                        offset = entry.getValue();
+                    }
+                }
+            }
+            if (offset == null) {
+                // An empty partition has nothing to lose; one with documents but no offset is unknown
+                if (partition.writer.getDocStats().numDocs > 0) {
+                    return null;
+                }
+                continue;
+            }
+            long value = Long.parseLong(offset);
+            lowest = lowest == null ? value : Math.min(lowest, value);
+        }
+        return lowest;
+    }
+
+    @Override
+    public void accept(ChangeEvent event) throws IOException {
+        apply(event);
+        appliedOffset.set(event.getOffset() + 1);
+    }
+
+    private void apply(ChangeEvent event) throws IOException {
+        if (!"transaction".equals(event.getAggregateType()) || event.getAggregateId() == null) {
+            return;
+        }
+        Term id = new Term("id", event.getAggregateId().toString());
+        if ("deleted".equals(event.getOperation())) {
+            // Deletes by id, from before they stopped being captured, carry no user
+            if (event.getUserId() != null) {
+                partition(event.getUserId()).writer.deleteDocuments(id);
+            } else {
+                for (Partition partition : partitions) {
+                    partition.writer.deleteDocuments(id);
+                }
+            }
+            return;
+        }
+        Map<String, Object> data = event.getData();
+        if (data == null || event.getUserId() == null || data.get("transactionDate") == null) {
+            return;
+        }
+        partition(event.getUserId()).writer.updateDocument(id, document(event.getAggregateId(), event.getUserId(),
+                (String) data.get("description"), (String) data.get("notes"), (String) data.get("tags"),
+                LocalDate.parse(data.get("transactionDate").toString())));
+    }
+
+    @Scheduled(fixedDelayString = "${search.refresh-ms:500}")
+    public void refresh() throws IOException {
+        for (Partition partition : partitions) {
+            partition.searchers.maybeRefresh();
+        }
+    }
+
+    /**
+     * Commits every partition together with the journal offset its updates cover. The dispatcher
+     * saves its own offset after every batch, so after a crash it resumes from this one instead
+     * ({@link #durableOffset()}) and re-applies what was not committed. Skipped while the
+     * index is rebuilding: the partitions then hold part of the index, and the rebuild commits
+     * once it is complete.
+     */
+    @Scheduled(fixedDelayString = "${search.commit-interval-ms:30000}")
+    public synchronized void commit() throws IOException {
+        if (!rebuilding.get()) {
+            commitPartitions();
+        }
+    }
+
+    private synchronized void commitPartitions() throws IOException {
+        // Read before committing: every update for an earlier event is already in the writers
+        long offset = appliedOffset.get();
+        boolean advanced = offset >= 0 && offset != committedOffset;
+        for (Partition partition : partitions) {
+            if (advanced) {
+                partition.writer.setLiveCommitData(Map.of(JOURNAL_OFFSET, Long.toString(offset)).entrySet());
+            }
+            if (partition.writer.hasUncommittedChanges()) {
+                partition.writer.commit();
+            }
+        }
+        if (advanced) {
+            committedOffset = offset;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        boolean rebuild = "always".equals(rebuildOnStartup)
+                || ("if-empty".equals(rebuildOnStartup) && documentCount() == 0);
+        if (!rebuild) {
+            complete = true;
+            return;
+        }
+        SchemaCheck check = schemaCheck.getIfAvailable();
+        CompletableFuture<Void> schemaReady = check != null ? check.whenChecked() : CompletableFuture.completedFuture(null);
+        schemaReady.thenRunAsync(this::rebuild, taskExecutor)
+                .exceptionally(e -> {
+                    logger.error("Search index rebuild failed: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Replaces the index with the current and archived transactions, read in bulk. Journal
+     * events keep being applied meanwhile; the result loader drops any stale hit this allows.
+     * Nothing is committed until the rebuild completes, so a restart in the middle of it finds
+     * the previous index.
+     */
+    public void rebuild() {
+        // Under the commit monitor: no commit is running from here on, and none will start
+        synchronized (this) {
+            if (!rebuilding.compareAndSet(false, true)) {
+                return;
+            }
+        }
+        long start = System.nanoTime();
+        long indexed = 0;
+        try {
+            for (Partition partition : partitions) {
+                partition.writer.deleteAll();
+            }
+            long lastId = 0;
+            List<Transaction> batch;
+            do {
+                batch = transactionRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, rebuildBatchSize));
+                for (Transaction transaction : batch) {
+                    index(transaction.getUser().getId(), transaction);
+                    lastId = transaction.getId();
+                }
+                indexed += batch.size();
+            } while (batch.size() == rebuildBatchSize);
+
+            for (ArchiveSegment segment : archiveSegmentRepository.findAll()) {
+                for (Transaction transaction : archiveStore.read(segment)) {
+                    index(segment.getUserId(), transaction);
+                    indexed++;
+                }
+            }
+            commitPartitions();
+            refresh();
+            complete = true;
+            logger.info("Search index rebuilt with {} transactions in {} ms", indexed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            meterRegistry.timer("search.rebuild").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            rebuilding.set(false);
+        }
+    }
+
+    private void index(Long userId, Transaction transaction) throws IOException {
+        partition(userId).writer.updateDocument(new Term("id", transaction.getId().toString()),
+                document(transaction.getId(), userId, transaction.getDescription(), transaction.getNotes(),
+                        transaction.getTags(), transaction.getTransactionDate()));
+    }
+
+    private static Document document(Long id, Long userId, String description, String notes, String tags,
+                                     LocalDate date) {
+        Document document = new Document();
+        document.add(new StringField("id", id.toString(), Field.Store.YES));
+        document.add(new StringField("user", userId.toString(), Field.Store.NO));
+        if (description != null) {
+            document.add(new TextField("description", description, Field.Store.NO));
+        }
+        if (notes != null) {
+            document.add(new TextField("notes", notes, Field.Store.NO));
+        }
+        if (tags != null) {
+            document.add(new TextField("tags", tags, Field.Store.NO));
+        }
+        document.add(new NumericDocValuesField("date", date.toEpochDay()));
+        document.add(new StoredField("date", date.toEpochDay()));
+        return document;
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream("description", text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        }
+        return terms;
+    }
+
+    private Partition partition(Long userId) {
+        return partitions[Math.floorMod(Long.hashCode(userId), partitions.length)];
+    }
+
+    private static final class Partition {
+
+        final IndexWriter writer;
+        final SearcherManager searchers;
+
+        Partition(IndexWriter writer, SearcherManager searchers) {
+            this.writer = writer;
+            this.searchers = searchers;
+        }
+    }
+
+    // Words, lower-cased, with accents folded so "cafe" finds "Café"
+    private static final class FoldingAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer source = new StandardTokenizer();
+            TokenStream result = new ASCIIFoldingFilter(new LowerCaseFilter(source));
+            return new TokenStreamComponents(source, result);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+
+    public static class Hit {
+
+        private final Long id;
+        private final LocalDate date;
+
+        Hit(Long id, LocalDate date) {
+            this.id = id;
+            this.date = date;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+    }
+}
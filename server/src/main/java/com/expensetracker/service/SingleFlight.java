@@ -0,0 +1,115 @@
+package com.expensetracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical computations per {@code (userId, query, parameters)} key: the
+ * first caller computes, callers arriving while it is in flight wait for and share its result.
+ * Nothing is cached once the computation completes. Metrics are tagged with the query only, so
+ * their series don't grow with the parameters.
+ */
+@Component
+public class SingleFlight {
+
+    // In-flight computations by user, then by query and parameters
+    private final ConcurrentHashMap<Long, Map<String, CompletableFuture<Object>>> inFlight =
+            new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${singleflight.enabled:true}")
+    private boolean enabled;
+
+    @Value("${singleflight.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    public <T> T execute(String query, Long userId, Supplier<T> computation) {
+        return execute(query, "", userId, computation);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String query, String parameters, Long userId, Supplier<T> computation) {
+        if (!enabled || userId == null) {
+            return computation.get();
+        }
+
+        String key = query + ":" + parameters;
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = join(userId, key, mine);
+        if (leader == null) {
+            try {
+                T result = computation.get();
+                mine.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                leave(userId, key, mine);
+            }
+        }
+
+        try {
+            Object result = leader.get(maxWaitMs, TimeUnit.MILLISECONDS);
+            meterRegistry.counter("singleflight.coalesced", "query", query).increment();
+            return (T) result;
+        } catch (TimeoutException e) {
+            // Don't queue up behind a stuck leader; compute independently
+            meterRegistry.counter("singleflight.wait.timeout", "query", query).increment();
+            return computation.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + userId + ":" + key, e);
+        }
+    }
+
+    /**
+     * Detaches the user's in-flight computations after a write, so callers arriving from now on
+     * start a fresh computation instead of joining one that may predate the write.
+     */
+    public void forget(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        inFlight.remove(userId);
+    }
+
+    // The computation already in flight for the key, or null after registering ours
+    private CompletableFuture<Object> join(Long userId, String key, CompletableFuture<Object> mine) {
+        List<CompletableFuture<Object>> leader = new ArrayList<>(1);
+        inFlight.compute(userId, (id, calls) -> {
+            Map<String, CompletableFuture<Object>> userCalls = calls != null ? calls : new HashMap<>();
+            leader.add(userCalls.putIfAbsent(key, mine));
+            return userCalls;
+        });
+        return leader.get(0);
+    }
+
+    // The per-user maps are only touched inside compute, and dropped once empty
+    private void leave(Long userId, String key, CompletableFuture<Object> mine) {
+        inFlight.computeIfPresent(userId, (id, calls) -> {
+            calls.remove(key, mine);
+            return calls.isEmpty() ? null : calls;
+        });
+    }
+}
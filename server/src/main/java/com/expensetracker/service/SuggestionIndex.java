@@ -0,0 +1,143 @@
+package com.expensetracker.service;
+
+import com.expensetracker.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description autocomplete. Each user's descriptions are kept in a {@link SuggestionTrie}.
+ * The trie is built from the database on the user's first lookup and then kept current from
+ * the change journal: a created transaction is added in place, and an update or delete drops
+ * the trie, so the next lookup rebuilds it. Tries are weighed by their approximate size, and
+ * the least recently used ones are evicted once {@code suggest.max-bytes} is reached.
+ */
+@Service
+public class SuggestionIndex implements ChangeConsumer {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${suggest.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${suggest.idle-minutes:30}")
+    private long idleMinutes;
+
+    @Value("${suggest.max-rows-per-user:5000}")
+    private int maxRowsPerUser;
+
+    @Value("${suggest.half-life-days:60}")
+    private double halfLifeDays;
+
+    private Cache<Long, UserTrie> tries;
+    private Timer lookupTimer;
+
+    @PostConstruct
+    void init() {
+        tries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long userId, UserTrie trie) -> (int) Math.min(Integer.MAX_VALUE, trie.weight))
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+        lookupTimer = meterRegistry.timer("suggest.lookup");
+        Gauge.builder("suggest.tries", tries, c -> c.estimatedSize()).register(meterRegistry);
+    }
+
+    public List<SuggestionTrie.Suggestion> suggest(Long userId, String prefix, int limit) {
+        String key = SuggestionTrie.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        UserTrie userTrie = tries.get(userId, this::build);
+        List<SuggestionTrie.Suggestion> suggestions;
+        synchronized (userTrie) {
+            suggestions = userTrie.trie.suggest(key, Math.min(limit, SuggestionTrie.TOP_K));
+        }
+        lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return suggestions;
+    }
+
+    @Override
+    public String getName() {
+        return "suggest";
+    }
+
+    @Override
+    public void accept(ChangeEvent event) {
+        if (!"transaction".equals(event.getAggregateType()) || event.getUserId() == null) {
+            // Deletes by id, from before they stopped being captured, carry no user;
+            // the stale entry ages out with the trie
+            return;
+        }
+        if (!"created".equals(event.getOperation())) {
+            tries.invalidate(event.getUserId());
+            return;
+        }
+        Map<String, Object> data = event.getData();
+        if (data == null) {
+            return;
+        }
+        // computeIfPresent makes the cache re-weigh the grown trie
+        tries.asMap().computeIfPresent(event.getUserId(), (userId, userTrie) -> {
+            synchronized (userTrie) {
+                // Rows up to highestId were already loaded by the build
+                if (event.getAggregateId() != null && event.getAggregateId() <= userTrie.highestId) {
+                    return userTrie;
+                }
+                Object date = data.get("transactionDate");
+                userTrie.trie.add((String) data.get("description"), toLong(data.get("categoryId")),
+                        toLong(data.get("accountId")), date != null ? LocalDate.parse(date.toString()) : null);
+                userTrie.weight = userTrie.trie.approximateBytes();
+            }
+            return userTrie;
+        });
+    }
+
+    private UserTrie build(Long userId) {
+        SuggestionTrie trie = new SuggestionTrie(halfLifeDays);
+        long highestId = 0;
+        List<Object[]> rows = transactionRepository.findSuggestionRowsByUserId(userId,
+                PageRequest.of(0, maxRowsPerUser));
+        for (Object[] row : rows) {
+            highestId = Math.max(highestId, (Long) row[0]);
+            trie.add((String) row[1], (Long) row[2], (Long) row[3], (LocalDate) row[4]);
+        }
+        meterRegistry.counter("suggest.builds").increment();
+        return new UserTrie(trie, highestId);
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static class UserTrie {
+
+        final SuggestionTrie trie;
+        final long highestId;
+        volatile long weight;
+
+        UserTrie(SuggestionTrie trie, long highestId) {
+            this.trie = trie;
+            this.highestId = highestId;
+            this.weight = trie.approximateBytes();
+        }
+    }
+}
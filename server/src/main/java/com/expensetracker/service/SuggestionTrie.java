@@ -0,0 +1,328 @@
+package com.expensetracker.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * One user's past transaction descriptions in a radix trie. Every node keeps its subtree's
+ * best entries, so a lookup is a walk down the prefix and a copy of at most {@link #TOP_K}
+ * entries, whatever the number of descriptions.
+ *
+ * <p>Scores combine frequency and recency with forward decay: each use adds
+ * {@code exp(lambda * day)}, with lambda set by the half-life. Ranking by that sum is the same as
+ * ranking by exponentially decayed counts at any later point in time. Scores therefore only
+ * grow, and a node's top list can be maintained on insert. Scores are kept as logarithms so
+ * they do not overflow.
+ *
+ * <p>Not thread-safe; {@link SuggestionIndex} serializes access to each trie.
+ */
+public final class SuggestionTrie {
+
+    public static final int TOP_K = 10;
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Rough per-object sizes for the cache weigher
+    private static final int NODE_BYTES = 96;
+    private static final int ENTRY_BYTES = 160;
+
+    private final double lambda;
+    private final Node root = new Node("");
+    private int nodes = 1;
+    private int entries;
+    private long chars;
+
+    public SuggestionTrie(double halfLifeDays) {
+        this.lambda = Math.log(2) / halfLifeDays;
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String key = WHITESPACE.matcher(text.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    public void add(String description, Long categoryId, Long accountId, LocalDate date) {
+        String key = normalize(description);
+        if (key.isEmpty() || date == null) {
+            return;
+        }
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.addChild(child);
+                nodes++;
+                chars += child.label.length();
+                path.add(child);
+                node = child;
+                break;
+            }
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge; the new inner node has the same subtree, so the same top list
+                Node split = new Node(child.label.substring(0, common));
+                node.replaceChild(split);
+                child.label = child.label.substring(common);
+                split.children = new Node[]{child};
+                split.top = Arrays.copyOf(child.top, child.top.length);
+                nodes++;
+                child = split;
+            }
+            path.add(child);
+            node = child;
+            i += common;
+        }
+
+        Entry entry = node.entry;
+        if (entry == null) {
+            entry = new Entry(key);
+            node.entry = entry;
+            entries++;
+            chars += key.length();
+        }
+        double weight = lambda * date.toEpochDay();
+        entry.score = logAdd(entry.score, weight);
+        entry.uses++;
+        entry.categories.add(categoryId, weight);
+        entry.accounts.add(accountId, weight);
+        if (entry.lastUsed == null || !date.isBefore(entry.lastUsed)) {
+            entry.lastUsed = date;
+            entry.text = description.trim();
+        }
+        for (Node onPath : path) {
+            onPath.offer(entry);
+        }
+    }
+
+    /**
+     * Best entries whose key starts with the normalized prefix, best first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                node = child;
+                break;
+            }
+            if (common < child.label.length()) {
+                return List.of();
+            }
+            node = child;
+            i += common;
+        }
+        List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, node.top.length));
+        for (int k = 0; k < node.top.length && k < limit; k++) {
+            Entry entry = node.top[k];
+            suggestions.add(new Suggestion(entry.text, entry.categories.best(), entry.accounts.best(),
+                    entry.uses, entry.lastUsed));
+        }
+        return suggestions;
+    }
+
+    public long approximateBytes() {
+        return (long) nodes * NODE_BYTES + (long) entries * ENTRY_BYTES + chars * 2;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static double logAdd(double a, double b) {
+        if (a == Double.NEGATIVE_INFINITY) {
+            return b;
+        }
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    private static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+
+        String label;
+        // Sorted by first character of the label
+        Node[] children = NO_CHILDREN;
+        Entry entry;
+        // Best entries of the subtree, best first
+        Entry[] top = NO_ENTRIES;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = children[mid].label.charAt(0);
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+
+        void addChild(Node child) {
+            char c = child.label.charAt(0);
+            int position = 0;
+            while (position < children.length && children[position].label.charAt(0) < c) {
+                position++;
+            }
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, position);
+            grown[position] = child;
+            System.arraycopy(children, position, grown, position + 1, children.length - position);
+            children = grown;
+        }
+
+        void replaceChild(Node child) {
+            char c = child.label.charAt(0);
+            for (int k = 0; k < children.length; k++) {
+                if (children[k].label.charAt(0) == c) {
+                    children[k] = child;
+                    return;
+                }
+            }
+        }
+
+        // The entry's score just grew: move it up, or into the list if it now qualifies
+        void offer(Entry entry) {
+            int position = -1;
+            for (int k = 0; k < top.length; k++) {
+                if (top[k] == entry) {
+                    position = k;
+                    break;
+                }
+            }
+            if (position < 0) {
+                if (top.length < TOP_K) {
+                    top = Arrays.copyOf(top, top.length + 1);
+                } else if (entry.score <= top[top.length - 1].score) {
+                    return;
+                }
+                position = top.length - 1;
+                top[position] = entry;
+            }
+            while (position > 0 && top[position - 1].score < entry.score) {
+                top[position] = top[position - 1];
+                top[position - 1] = entry;
+                position--;
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        final String key;
+        String text;
+        double score = Double.NEGATIVE_INFINITY;
+        int uses;
+        LocalDate lastUsed;
+        final Choice categories = new Choice();
+        final Choice accounts = new Choice();
+
+        Entry(String key) {
+            this.key = key;
+        }
+    }
+
+    // Decayed weight per id; usually one or two ids per description
+    private static final class Choice {
+
+        private long[] ids = new long[0];
+        private double[] scores = new double[0];
+
+        void add(Long id, double weight) {
+            if (id == null) {
+                return;
+            }
+            for (int k = 0; k < ids.length; k++) {
+                if (ids[k] == id) {
+                    scores[k] = logAdd(scores[k], weight);
+                    return;
+                }
+            }
+            ids = Arrays.copyOf(ids, ids.length + 1);
+            scores = Arrays.copyOf(scores, scores.length + 1);
+            ids[ids.length - 1] = id;
+            scores[scores.length - 1] = weight;
+        }
+
+        Long best() {
+            int best = -1;
+            for (int k = 0; k < ids.length; k++) {
+                if (best < 0 || scores[k] > scores[best]) {
+                    best = k;
+                }
+            }
+            return best < 0 ? null : ids[best];
+        }
+    }
+
+    public static class Suggestion {
+
+        private final String description;
+        private final Long categoryId;
+        private final Long accountId;
+        private final int uses;
+        private final LocalDate lastUsed;
+
+        Suggestion(String description, Long categoryId, Long accountId, int uses, LocalDate lastUsed) {
+            this.description = description;
+            this.categoryId = categoryId;
+            this.accountId = accountId;
+            this.uses = uses;
+            this.lastUsed = lastUsed;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public Long getCategoryId() {
+            return categoryId;
+        }
+
+        public Long getAccountId() {
+            return accountId;
+        }
+
+        public int getUses() {
+            return uses;
+        }
+
+        public LocalDate getLastUsed() {
+            return lastUsed;
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Account;
+import com.expensetracker.entity.ArchiveSegment;
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.repository.ArchiveSegmentRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes archive segments: gzip-compressed JSON lines, one file per user and date
+ * range, newest transaction first. Files are written once, verified by SHA-256 on every read,
+ * and decoded segments are cached since they never change.
+ * <p>
+ * Until some instance has written a segment, reads skip the segment lookup altogether, so
+ * deployments that never archive pay nothing for it.
+ */
+@Service
+public class TransactionArchiveStore {
+
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing(Transaction::getTransactionDate)
+            .thenComparing(Transaction::getId)
+            .reversed();
+
+    // Independent of the web ObjectMapper so that its settings can't change the file format
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ArchiveSegmentRepository archiveSegmentRepository;
+
+    @Value("${archive.dir:./data/archive}")
+    private String archiveDir;
+
+    @Value("${archive.cache-max-rows:200000}")
+    private long cacheMaxRows;
+
+    private Cache<Long, List<Transaction>> segmentCache;
+
+    // Once true stays true: segments are never removed
+    private volatile boolean segmentsExist;
+
+    @PostConstruct
+    void init() {
+        segmentCache = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxRows)
+                .weigher((Long id, List<Transaction> rows) -> Math.max(1, rows.size()))
+                .build();
+        segmentsExist = archiveSegmentRepository.count() > 0;
+    }
+
+    /**
+     * Picks up segments written by the archiving instance. Until then this instance answers
+     * reads without looking for segments.
+     */
+    @Scheduled(fixedDelayString = "${archive.presence-check-ms:60000}",
+            initialDelayString = "${archive.presence-check-ms:60000}")
+    void checkSegmentsExist() {
+        if (!segmentsExist) {
+            segmentsExist = archiveSegmentRepository.count() > 0;
+        }
+    }
+
+    /**
+     * The user's segments, newest first (by last date, then first date).
+     */
+    public List<ArchiveSegment> segments(Long userId) {
+        if (!segmentsExist) {
+            return List.of();
+        }
+        return archiveSegmentRepository.findByUserIdOrderByToDateDescFromDateDescIdDesc(userId);
+    }
+
+    public List<Transaction> read(ArchiveSegment segment) {
+        return segmentCache.get(segment.getId(), id -> load(segment));
+    }
+
+    /**
+     * Archived transactions dated within [startDate, endDate] (either may be null) that match
+     * the filter, newest first.
+     */
+    public List<Transaction> find(List<ArchiveSegment> segments, LocalDate startDate, LocalDate endDate,
+                                  Predicate<Transaction> filter) {
+        LocalDate start = startDate != null ? startDate : LocalDate.MIN;
+        LocalDate end = endDate != null ? endDate : LocalDate.MAX;
+        List<Transaction> result = new ArrayList<>();
+        for (ArchiveSegment segment : segments) {
+            if (!segment.overlaps(start, end)) {
+                continue;
+            }
+            for (Transaction transaction : read(segment)) {
+                LocalDate date = transaction.getTransactionDate();
+                if (!date.isBefore(start) && !date.isAfter(end) && filter.test(transaction)) {
+                    result.add(transaction);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sum of the matching archived amounts of one type. Segments entirely inside the range are
+     * answered from their stored totals when no further filter applies.
+     */
+    public BigDecimal sum(List<ArchiveSegment> segments, String type, LocalDate startDate, LocalDate endDate,
+                          Predicate<Transaction> filter) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (ArchiveSegment segment : segments) {
+            if (!segment.overlaps(startDate, endDate)) {
+                continue;
+            }
+            if (filter == null && segment.within(startDate, endDate)) {
+                total = total.add(totalOf(segment, type));
+                continue;
+            }
+            for (Transaction transaction : read(segment)) {
+                LocalDate date = transaction.getTransactionDate();
+                if (type.equals(transaction.getType()) && !date.isBefore(startDate) && !date.isAfter(endDate)
+                        && (filter == null || filter.test(transaction))) {
+                    total = total.add(transaction.getAmount());
+                }
+            }
+        }
+        return total;
+    }
+
+    public static BigDecimal totalOf(ArchiveSegment segment, String type) {
+        if ("income".equals(type)) {
+            return segment.getIncomeTotal();
+        }
+        return "expense".equals(type) ? segment.getExpenseTotal() : BigDecimal.ZERO;
+    }
+
+    /**
+     * Up to {@code limit} archived transactions starting at {@code offset} in newest-first
+     * order. Segments before the offset are skipped without being read.
+     * <p>
+     * Date ranges can overlap: a run splits a day across two segments when it hits
+     * {@code archive.segment-max-rows}, and back-dated rows archived by a later run land in
+     * the range of older segments. Overlapping segments are grouped and their rows merged.
+     */
+    public List<Transaction> slice(List<ArchiveSegment> segments, long offset, int limit) {
+        List<Transaction> result = new ArrayList<>();
+        long skip = offset;
+        int start = 0;
+        while (start < segments.size() && result.size() < limit) {
+            int end = groupEnd(segments, start);
+            List<ArchiveSegment> group = segments.subList(start, end);
+            start = end;
+            long groupRows = 0;
+            for (ArchiveSegment segment : group) {
+                groupRows += segment.getRowCount();
+            }
+
+            if (skip >= groupRows) {
+                skip -= groupRows;
+                continue;
+            }
+            List<Transaction> rows = group.size() == 1 ? read(group.get(0)) : merged(group);
+            int from = (int) skip;
+            int to = Math.min(rows.size(), from + limit - result.size());
+            result.addAll(rows.subList(from, to));
+            skip = 0;
+        }
+        return result;
+    }
+
+    /**
+     * The transactions of the segments overlapping [startDate, endDate] (either may be null),
+     * newest first like {@link #slice}. A group of overlapping segments is only read when the
+     * iteration reaches it.
+     */
+    public Iterator<Transaction> newestFirst(List<ArchiveSegment> segments, LocalDate startDate, LocalDate endDate) {
+        LocalDate start = startDate != null ? startDate : LocalDate.MIN;
+        LocalDate end = endDate != null ? endDate : LocalDate.MAX;
+        List<ArchiveSegment> overlapping = segments.stream().filter(segment -> segment.overlaps(start, end)).toList();
+        return new Iterator<>() {
+
+            private int nextGroup;
+            private Iterator<Transaction> rows = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!rows.hasNext() && nextGroup < overlapping.size()) {
+                    int groupEnd = groupEnd(overlapping, nextGroup);
+                    List<ArchiveSegment> group = overlapping.subList(nextGroup, groupEnd);
+                    rows = (group.size() == 1 ? read(group.get(0)) : merged(group)).iterator();
+                    nextGroup = groupEnd;
+                }
+                return rows.hasNext();
+            }
+
+            @Override
+            public Transaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return rows.next();
+            }
+        };
+    }
+
+    // End of the group of date-overlapping segments that starts at `start`
+    private static int groupEnd(List<ArchiveSegment> segments, int start) {
+        // Sorted by last date, so a segment ending before the group's first date ends the group
+        int end = start + 1;
+        LocalDate groupFrom = segments.get(start).getFromDate();
+        while (end < segments.size() && !segments.get(end).getToDate().isBefore(groupFrom)) {
+            if (segments.get(end).getFromDate().isBefore(groupFrom)) {
+                groupFrom = segments.get(end).getFromDate();
+            }
+            end++;
+        }
+        return end;
+    }
+
+    private List<Transaction> merged(List<ArchiveSegment> group) {
+        List<Transaction> rows = new ArrayList<>();
+        for (ArchiveSegment segment : group) {
+            rows.addAll(read(segment));
+        }
+        rows.sort(NEWEST_FIRST);
+        return rows;
+    }
+
+    /**
+     * Writes the rows (all of one user) to a new segment file and returns the unsaved segment
+     * describing it. The file is fully synced before it becomes visible under its final name.
+     */
+    public ArchiveSegment write(Long userId, List<Transaction> rows) throws IOException {
+        List<Transaction> newestFirst = new ArrayList<>(rows);
+        newestFirst.sort(NEWEST_FIRST);
+
+        LocalDate fromDate = newestFirst.get(newestFirst.size() - 1).getTransactionDate();
+        LocalDate toDate = newestFirst.get(0).getTransactionDate();
+        String fileName = userId + "/" + fromDate + "_" + toDate + "_" + UUID.randomUUID() + ".jsonl.gz";
+        Path target = resolve(fileName);
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expense = BigDecimal.ZERO;
+        MessageDigest digest = sha256();
+        try (OutputStream fileOut = Files.newOutputStream(temp)) {
+            OutputStream gzip = new GZIPOutputStream(new DigestOutputStream(fileOut, digest), 64 * 1024);
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(gzip)) {
+                for (Transaction transaction : newestFirst) {
+                    writer.write(ArchivedTransaction.from(transaction));
+                    if ("income".equals(transaction.getType())) {
+                        income = income.add(transaction.getAmount());
+                    } else if ("expense".equals(transaction.getType())) {
+                        expense = expense.add(transaction.getAmount());
+                    }
+                }
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        target.toFile().setReadOnly();
+
+        ArchiveSegment segment = new ArchiveSegment();
+        segment.setUserId(userId);
+        segment.setFromDate(fromDate);
+        segment.setToDate(toDate);
+        segment.setRowCount(newestFirst.size());
+        segment.setIncomeTotal(income);
+        segment.setExpenseTotal(expense);
+        segment.setFileName(fileName);
+        segment.setSizeBytes(Files.size(target));
+        segment.setSha256(HexFormat.of().formatHex(digest.digest()));
+        segmentsExist = true;
+        return segment;
+    }
+
+    /**
+     * Removes a segment file whose database row was never committed.
+     */
+    public void discard(ArchiveSegment segment) {
+        try {
+            Path path = resolve(segment.getFileName());
+            path.toFile().setWritable(true);
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Transaction> load(ArchiveSegment segment) {
+        List<Transaction> rows = new ArrayList<>(segment.getRowCount());
+        try {
+            // Segments are small once compressed; reading them whole keeps the checksum simple
+            byte[] bytes = Files.readAllBytes(resolve(segment.getFileName()));
+            String actual = HexFormat.of().formatHex(sha256().digest(bytes));
+            if (!actual.equals(segment.getSha256())) {
+                throw new IllegalStateException("Archive segment " + segment.getFileName() + " is corrupted");
+            }
+            try (MappingIterator<ArchivedTransaction> iterator = objectMapper.readerFor(ArchivedTransaction.class)
+                    .readValues(new GZIPInputStream(new ByteArrayInputStream(bytes), 64 * 1024))) {
+                while (iterator.hasNext()) {
+                    rows.add(iterator.next().toTransaction());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive segment " + segment.getFileName(), e);
+        }
+        return Collections.unmodifiableList(rows);
+    }
+
+    private Path resolve(String fileName) {
+        return Paths.get(archiveDir).resolve(fileName);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * On-disk row format. Category and account names are copied in so archived rows render
+     * without touching the database.
+     */
+    static class ArchivedTransaction {
+        public Long id;
+        public String description;
+        public BigDecimal amount;
+        public String type;
+        public String date;
+        public String notes;
+        public String tags;
+        public String receiptUrl;
+        public Boolean recurring;
+        public String recurringType;
+        public String recurringEndDate;
+        public Long categoryId;
+        public String categoryName;
+        public String categoryIcon;
+        public String categoryColor;
+        public Long accountId;
+        public String accountName;
+        public String createdAt;
+        public String updatedAt;
+
+        static ArchivedTransaction from(Transaction transaction) {
+            ArchivedTransaction row = new ArchivedTransaction();
+            row.id = transaction.getId();
+            row.description = transaction.getDescription();
+            row.amount = transaction.getAmount();
+            row.type = transaction.getType();
+            row.date = transaction.getTransactionDate().toString();
+            row.notes = transaction.getNotes();
+            row.tags = transaction.getTags();
+            row.receiptUrl = transaction.getReceiptUrl();
+            row.recurring = transaction.getIsRecurring();
+            row.recurringType = transaction.getRecurringType();
+            row.recurringEndDate = toString(transaction.getRecurringEndDate());
+            if (transaction.getCategory() != null) {
+                row.categoryId = transaction.getCategory().getId();
+                row.categoryName = transaction.getCategory().getName();
+                row.categoryIcon = transaction.getCategory().getIcon();
+                row.categoryColor = transaction.getCategory().getColor();
+            }
+            if (transaction.getAccount() != null) {
+                row.accountId = transaction.getAccount().getId();
+                row.accountName = transaction.getAccount().getName();
+            }
+            row.createdAt = toString(transaction.getCreatedAt());
+            row.updatedAt = toString(transaction.getUpdatedAt());
+            return row;
+        }
+
+        Transaction toTransaction() {
+            Transaction transaction = new Transaction();
+            transaction.setId(id);
+            transaction.setDescription(description);
+            transaction.setAmount(amount);
+            transaction.setType(type);
+            transaction.setTransactionDate(LocalDate.parse(date));
+            transaction.setNotes(notes);
+            transaction.setTags(tags);
+            transaction.setReceiptUrl(receiptUrl);
+            transaction.setIsRecurring(recurring);
+            transaction.setRecurringType(recurringType);
+            transaction.setRecurringEndDate(recurringEndDate != null ? LocalDate.parse(recurringEndDate) : null);
+            if (categoryId != null) {
+                Category category = new Category();
+                category.setId(categoryId);
+                category.setName(categoryName);
+                category.setIcon(categoryIcon);
+                category.setColor(categoryColor);
+                transaction.setCategory(category);
+            }
+            if (accountId != null) {
+                Account account = new Account();
+                account.setId(accountId);
+                account.setName(accountName);
+                transaction.setAccount(account);
+            }
+            transaction.setCreatedAt(createdAt != null ? LocalDateTime.parse(createdAt) : null);
+            transaction.setUpdatedAt(updatedAt != null ? LocalDateTime.parse(updatedAt) : null);
+            return transaction;
+        }
+
+        private static String toString(Object value) {
+            return value != null ? value.toString() : null;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.expensetracker.service;
+
+import com.expensetracker.config.ReplicaRoutingContext;
+import com.expensetracker.entity.ArchiveSegment;
+import com.expensetracker.entity.ArchivedReceipt;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.repository.ArchiveSegmentRepository;
+import com.expensetracker.repository.ArchivedReceiptRepository;
+import com.expensetracker.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Moves transactions older than the hot window out of the transactions table into per-user
+ * archive segments. A segment file is written and synced first; its metadata row and the
+ * deletion of the archived rows then commit together, so a row is always in exactly one place.
+ * Enable on a single instance only.
+ */
+@Component
+@ConditionalOnProperty(name = "archive.enabled", havingValue = "true")
+public class TransactionArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchiver.class);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ArchiveSegmentRepository archiveSegmentRepository;
+
+    @Autowired
+    private ArchivedReceiptRepository archivedReceiptRepository;
+
+    @Autowired
+    private TransactionArchiveStore archiveStore;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${archive.hot-window-months:24}")
+    private int hotWindowMonths;
+
+    @Value("${archive.segment-max-rows:10000}")
+    private int segmentMaxRows;
+
+    @Scheduled(cron = "${archive.cron:0 0 4 * * *}")
+    public void archive() {
+        // Month-aligned so monthly budgets and summaries never straddle the boundary
+        LocalDate cutoff = LocalDate.now().minusMonths(hotWindowMonths).withDayOfMonth(1);
+        long start = System.nanoTime();
+        int archived = 0;
+
+        // Reads must see the deletions of the previous batch, so stay off the replicas
+        ReplicaRoutingContext.setPrimaryPinned(true);
+        try {
+            for (Long userId : transactionRepository.findUserIdsWithTransactionsBefore(cutoff)) {
+                try {
+                    archived += archiveUser(userId, cutoff);
+                } catch (Exception e) {
+                    logger.error("Archiving transactions of user {} failed: {}", userId, e.getMessage());
+                }
+            }
+        } finally {
+            ReplicaRoutingContext.clear();
+        }
+
+        meterRegistry.counter("archive.rows").increment(archived);
+        logger.info("Archived {} transactions older than {} in {} ms", archived, cutoff,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int archiveUser(Long userId, LocalDate cutoff) throws IOException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        while (true) {
+            List<Transaction> rows = transactionRepository.findByUserIdAndTransactionDateBeforeOrderByTransactionDateAscIdAsc(
+                    userId, cutoff, PageRequest.of(0, segmentMaxRows));
+            if (rows.isEmpty()) {
+                return total;
+            }
+
+            ArchiveSegment segment = archiveStore.write(userId, rows);
+            List<Long> ids = rows.stream().map(Transaction::getId).collect(Collectors.toList());
+            List<String> receiptUrls = rows.stream().map(Transaction::getReceiptUrl)
+                    .filter(Objects::nonNull).distinct().collect(Collectors.toList());
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    ArchiveSegment saved = archiveSegmentRepository.save(segment);
+                    archivedReceiptRepository.saveAll(receiptUrls.stream()
+                            .map(url -> new ArchivedReceipt(userId, url, saved.getId()))
+                            .collect(Collectors.toList()));
+                    transactionRepository.deleteAllByIdInBatch(ids);
+                });
+            } catch (RuntimeException e) {
+                archiveStore.discard(segment);
+                throw e;
+            }
+            singleFlight.forget(userId);
+            total += rows.size();
+
+            if (rows.size() < segmentMaxRows) {
+                return total;
+            }
+        }
+    }
+}
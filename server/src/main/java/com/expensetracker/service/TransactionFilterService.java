@@ -0,0 +1,270 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.ArchiveSegment;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.TransactionFilter;
+import com.expensetracker.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs {@link TransactionFilter}s as the {@link TransactionQueryPlanner} decides, one page at a
+ * time. Pages continue by (date, id) cursor rather than by offset, so each page reads about
+ * as many rows as it returns however deep into the history it is. Archived transactions are
+ * merged in, and archive segments entirely newer than what a page already holds, or older
+ * than it needs, are not read.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TransactionFilterService {
+
+    public enum CountMode {
+        NONE, APPROXIMATE, EXACT
+    }
+
+    // Newest first, the order the filter's indexes are read in
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing(Transaction::getTransactionDate)
+            .thenComparing(Transaction::getId)
+            .reversed();
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionQueryPlanner planner;
+
+    @Autowired
+    private TransactionArchiveStore archiveStore;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${filter.text-batch-size:1000}")
+    private int textBatchSize;
+
+    /**
+     * One page of matches. With {@code fields}, only the columns behind those response fields
+     * are read, into transaction stubs; null reads whole transactions.
+     */
+    public Result filter(User user, TransactionFilter filter, int limit, CountMode countMode, Set<String> fields)
+            throws IOException {
+        long start = System.nanoTime();
+        Long userId = user.getId();
+        TransactionQueryPlanner.Shape shape = planner.plan(userId, filter, limit);
+
+        TransactionFilter query = filter.copy();
+        List<SearchIndex.Hit> hits = null;
+        boolean partial = false;
+        if (shape == TransactionQueryPlanner.Shape.ID_LOOKUP) {
+            // Every text match in the date range, not just the most relevant; the rest of the
+            // criteria are applied by the database
+            hits = searchIndex.searchAll(userId, filter.getText(), filter.getStartDate(), filter.getEndDate());
+            query.setIds(hits.stream()
+                    .map(SearchIndex.Hit::getId)
+                    .collect(Collectors.toCollection(HashSet::new)));
+            partial = !searchIndex.isComplete();
+        }
+
+        // One row past the page tells whether there is a next page
+        int fetch = limit + 1;
+        List<Transaction> rows;
+        switch (shape) {
+            case ID_LOOKUP:
+                rows = findByHits(userId, query, hits, fetch, fields);
+                break;
+            case CATEGORY_FANOUT:
+                rows = fanOut(userId, query, query.getCategoryIds(), true, fetch, fields);
+                break;
+            case ACCOUNT_FANOUT:
+                rows = fanOut(userId, query, query.getAccountIds(), false, fetch, fields);
+                break;
+            default:
+                rows = find(userId, query, fetch, fields);
+        }
+        rows = withArchived(userId, query, rows, fetch);
+
+        List<Transaction> page = rows.size() > limit ? rows.subList(0, limit) : rows;
+        String nextCursor = rows.size() > limit ? TransactionFilter.cursorOf(page.get(page.size() - 1)) : null;
+
+        TransactionFilter uncursored = query.copy();
+        uncursored.setCursor(null);
+        Long count = null;
+        if (countMode == CountMode.EXACT) {
+            count = countFiltered(userId, uncursored, hits)
+                    + archiveStore.find(archiveStore.segments(userId), uncursored.getStartDate(),
+                            uncursored.getEndDate(), uncursored).size();
+        } else if (countMode == CountMode.APPROXIMATE) {
+            // Both ignore part of the criteria, so both are upper bounds
+            count = planner.estimate(userId, uncursored);
+            if (hits != null) {
+                count = Math.min(count, hits.size());
+            }
+        }
+
+        meterRegistry.timer("filter.query", "shape", shape.name().toLowerCase())
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Result(new ArrayList<>(page), nextCursor, count, countMode == CountMode.EXACT && !partial, shape,
+                partial);
+    }
+
+    // Text matches, newest first, looked up a batch of ids at a time until the page is full
+    private List<Transaction> findByHits(Long userId, TransactionFilter query, List<SearchIndex.Hit> hits, int fetch,
+                                         Set<String> fields) {
+        List<Transaction> rows = new ArrayList<>();
+        List<Long> batch = new ArrayList<>(textBatchSize);
+        for (int i = 0; i < hits.size() && rows.size() < fetch; i++) {
+            SearchIndex.Hit hit = hits.get(i);
+            if (isAfterCursor(query, hit)) {
+                batch.add(hit.getId());
+            }
+            if (batch.size() == textBatchSize || i == hits.size() - 1) {
+                if (!batch.isEmpty()) {
+                    // Batches follow the hits' (date, id) order, so appending them keeps page order
+                    TransactionFilter branch = query.copy();
+                    branch.setIds(new HashSet<>(batch));
+                    rows.addAll(find(userId, branch, fetch - rows.size(), fields));
+                    batch.clear();
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static boolean isAfterCursor(TransactionFilter query, SearchIndex.Hit hit) {
+        return query.getAfterDate() == null || hit.getDate().isBefore(query.getAfterDate())
+                || hit.getDate().isEqual(query.getAfterDate()) && hit.getId() < query.getAfterId();
+    }
+
+    private long countFiltered(Long userId, TransactionFilter filter, List<SearchIndex.Hit> hits) {
+        if (hits == null) {
+            return transactionRepository.countFiltered(userId, filter);
+        }
+        long count = 0;
+        for (int from = 0; from < hits.size(); from += textBatchSize) {
+            TransactionFilter branch = filter.copy();
+            branch.setIds(hits.subList(from, Math.min(hits.size(), from + textBatchSize)).stream()
+                    .map(SearchIndex.Hit::getId)
+                    .collect(Collectors.toCollection(HashSet::new)));
+            count += transactionRepository.countFiltered(userId, branch);
+        }
+        return count;
+    }
+
+    // One query per value, each stopped after a page, merged
+    private List<Transaction> fanOut(Long userId, TransactionFilter query, List<Long> values, boolean byCategory,
+                                     int fetch, Set<String> fields) {
+        List<Transaction> merged = new ArrayList<>();
+        for (Long value : values) {
+            TransactionFilter branch = query.copy();
+            if (byCategory) {
+                branch.setCategoryIds(List.of(value));
+            } else {
+                branch.setAccountIds(List.of(value));
+            }
+            merged.addAll(find(userId, branch, fetch, fields));
+        }
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > fetch ? merged.subList(0, fetch) : merged;
+    }
+
+    private List<Transaction> find(Long userId, TransactionFilter query, int fetch, Set<String> fields) {
+        return fields != null
+                ? transactionRepository.findFilteredColumns(userId, query, 0, fetch, fields)
+                : transactionRepository.findFiltered(userId, query, fetch);
+    }
+
+    private List<Transaction> withArchived(Long userId, TransactionFilter query, List<Transaction> rows, int fetch) {
+        List<ArchiveSegment> segments = archiveStore.segments(userId);
+        if (segments.isEmpty()) {
+            return rows;
+        }
+        // A full page of current rows leaves room only for archived rows not older than its last one
+        LocalDate from = query.getStartDate();
+        if (rows.size() >= fetch) {
+            LocalDate last = rows.get(fetch - 1).getTransactionDate();
+            from = from == null || last.isAfter(from) ? last : from;
+        }
+        LocalDate to = query.getEndDate();
+        if (query.getAfterDate() != null && (to == null || query.getAfterDate().isBefore(to))) {
+            to = query.getAfterDate();
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            return rows;
+        }
+
+        List<Transaction> archived = archiveStore.find(segments, from, to, query);
+        if (archived.isEmpty()) {
+            return rows;
+        }
+        List<Transaction> merged = new ArrayList<>(rows);
+        merged.addAll(archived);
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > fetch ? merged.subList(0, fetch) : merged;
+    }
+
+    public static class Result {
+
+        private final List<Transaction> transactions;
+        private final String nextCursor;
+        private final Long count;
+        private final boolean countExact;
+        private final TransactionQueryPlanner.Shape shape;
+        private final boolean partial;
+
+        Result(List<Transaction> transactions, String nextCursor, Long count, boolean countExact,
+               TransactionQueryPlanner.Shape shape, boolean partial) {
+            this.transactions = transactions;
+            this.nextCursor = nextCursor;
+            this.count = count;
+            this.countExact = countExact;
+            this.shape = shape;
+            this.partial = partial;
+        }
+
+        public List<Transaction> getTransactions() {
+            return transactions;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public Long getCount() {
+            return count;
+        }
+
+        public boolean isCountExact() {
+            return countExact;
+        }
+
+        public TransactionQueryPlanner.Shape getShape() {
+            return shape;
+        }
+
+        /**
+         * True when text was matched while the search index was incomplete (rebuilding), so
+         * matches may be missing from the page and the count.
+         */
+        public boolean isPartial() {
+            return partial;
+        }
+    }
+}
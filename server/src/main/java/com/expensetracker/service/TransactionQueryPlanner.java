@@ -0,0 +1,197 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.ArchiveSegment;
+import com.expensetracker.repository.TransactionFilter;
+import com.expensetracker.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chooses how a {@link TransactionFilter} is run and estimates how many rows it matches.
+ *
+ * <p>Estimates come from per-user statistics: transaction counts by category, account, type
+ * and month, loaded with one GROUP BY and kept in the {@link VersionedCache} under the
+ * "transactions" family, so any transaction write discards them. A date range that covers part
+ * of a month is assumed to be spread evenly over its days, and the amount range is not
+ * estimated at all.
+ *
+ * <p>Rows are read newest first, so a listing stops as soon as a page is full. A single query
+ * with several categories (or accounts) can either walk the user's date index and skip rows
+ * that don't match, or read every matching row from the category index and sort them. When
+ * both cost much more than a page, the planner instead runs one query per category, each read
+ * in order from its index and stopped after a page, and merges the results.
+ */
+@Service
+public class TransactionQueryPlanner {
+
+    public enum Shape {
+        // One query; the database picks among the (user_id, ..., transaction_date, id) indexes
+        SINGLE,
+        // One query per category, merged
+        CATEGORY_FANOUT,
+        // One query per account, merged
+        ACCOUNT_FANOUT,
+        // Text resolved to every matching id through the search index, then queried by primary key in batches
+        ID_LOOKUP
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionArchiveStore archiveStore;
+
+    @Autowired
+    private VersionedCache versionedCache;
+
+    @Value("${filter.max-fanout:8}")
+    private int maxFanout;
+
+    public Shape plan(Long userId, TransactionFilter filter, int limit) {
+        if (filter.getText() != null) {
+            return Shape.ID_LOOKUP;
+        }
+        List<Cell> cells = statistics(userId);
+        long matching = estimate(cells, filter);
+
+        // Rows read by a single query: the cheaper of walking by date and sorting the matches
+        TransactionFilter byDate = filter.copy();
+        byDate.setCategoryIds(null);
+        byDate.setAccountIds(null);
+        long single = Math.min(scanCost(estimate(cells, byDate), matching, limit), matching);
+
+        Shape plan = Shape.SINGLE;
+        long best = single;
+        if (filter.getCategoryIds().size() > 1 && filter.getCategoryIds().size() <= maxFanout) {
+            long cost = fanoutCost(cells, filter, filter.getCategoryIds(), true, limit);
+            if (cost < best) {
+                best = cost;
+                plan = Shape.CATEGORY_FANOUT;
+            }
+        }
+        if (filter.getAccountIds().size() > 1 && filter.getAccountIds().size() <= maxFanout) {
+            long cost = fanoutCost(cells, filter, filter.getAccountIds(), false, limit);
+            if (cost < best) {
+                plan = Shape.ACCOUNT_FANOUT;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Approximate number of current and archived transactions matching the filter.
+     */
+    public long estimate(Long userId, TransactionFilter filter) {
+        List<Cell> cells = statistics(userId);
+        long hot = estimate(cells, filter);
+
+        List<ArchiveSegment> segments = archiveStore.segments(userId);
+        if (segments.isEmpty()) {
+            return hot;
+        }
+        // Archived rows are assumed to match the non-date criteria as often as current ones do
+        TransactionFilter anyDate = filter.copy();
+        anyDate.setStartDate(null);
+        anyDate.setEndDate(null);
+        long all = estimate(cells, new TransactionFilter());
+        double selectivity = all > 0 ? (double) estimate(cells, anyDate) / all : 1.0;
+        double archived = 0;
+        for (ArchiveSegment segment : segments) {
+            archived += segment.getRowCount()
+                    * overlap(segment.getFromDate(), segment.getToDate(), filter.getStartDate(), filter.getEndDate());
+        }
+        return hot + Math.round(archived * selectivity);
+    }
+
+    // Rows read walking an index of `scanned` rows, of which `matching` qualify, to fill a page
+    private static long scanCost(long scanned, long matching, int limit) {
+        if (matching <= limit) {
+            return scanned;
+        }
+        return (long) Math.ceil((double) limit * scanned / matching);
+    }
+
+    private long fanoutCost(List<Cell> cells, TransactionFilter filter, List<Long> values, boolean byCategory,
+                            int limit) {
+        long cost = 0;
+        for (Long value : values) {
+            TransactionFilter branch = filter.copy();
+            TransactionFilter branchScan = filter.copy();
+            if (byCategory) {
+                branch.setCategoryIds(List.of(value));
+                branchScan.setCategoryIds(List.of(value));
+                branchScan.setAccountIds(null);
+            } else {
+                branch.setAccountIds(List.of(value));
+                branchScan.setAccountIds(List.of(value));
+                branchScan.setCategoryIds(null);
+            }
+            // Each branch also pays a round trip
+            cost += scanCost(estimate(cells, branchScan), estimate(cells, branch), limit) + 1;
+        }
+        return cost;
+    }
+
+    private List<Cell> statistics(Long userId) {
+        return versionedCache.get(userId, "transactions", "filter-statistics", () -> {
+            List<Cell> cells = new ArrayList<>();
+            for (Object[] row : transactionRepository.countByUserIdGroupedForFilter(userId)) {
+                cells.add(new Cell((Long) row[0], (Long) row[1], (String) row[2],
+                        YearMonth.of(((Number) row[3]).intValue(), ((Number) row[4]).intValue()),
+                        ((Number) row[5]).longValue()));
+            }
+            return cells;
+        });
+    }
+
+    private static long estimate(List<Cell> cells, TransactionFilter filter) {
+        double total = 0;
+        for (Cell cell : cells) {
+            if (!filter.getTypes().isEmpty() && !filter.getTypes().contains(cell.type)
+                    || !filter.getCategoryIds().isEmpty() && !filter.getCategoryIds().contains(cell.categoryId)
+                    || !filter.getAccountIds().isEmpty() && !filter.getAccountIds().contains(cell.accountId)) {
+                continue;
+            }
+            total += cell.count * overlap(cell.month.atDay(1), cell.month.atEndOfMonth(),
+                    filter.getStartDate(), filter.getEndDate());
+        }
+        if (filter.getIds() != null) {
+            total = Math.min(total, filter.getIds().size());
+        }
+        return Math.round(total);
+    }
+
+    // Fraction of the days in [from, to] that fall within [start, end]; either bound may be null
+    private static double overlap(LocalDate from, LocalDate to, LocalDate start, LocalDate end) {
+        LocalDate first = start != null && start.isAfter(from) ? start : from;
+        LocalDate last = end != null && end.isBefore(to) ? end : to;
+        if (last.isBefore(first)) {
+            return 0;
+        }
+        return (double) (ChronoUnit.DAYS.between(first, last) + 1) / (ChronoUnit.DAYS.between(from, to) + 1);
+    }
+
+    private static final class Cell {
+
+        final Long categoryId;
+        final Long accountId;
+        final String type;
+        final YearMonth month;
+        final long count;
+
+        Cell(Long categoryId, Long accountId, String type, YearMonth month, long count) {
+            this.categoryId = categoryId;
+            this.accountId = accountId;
+            this.type = type;
+            this.month = month;
+            this.count = count;
+        }
+    }
+}
@@ -1,64 +1,228 @@
 package com.expensetracker.service;
 
+import com.expensetracker.entity.ArchiveSegment;
 import com.expensetracker.entity.Transaction;
 import com.expensetracker.entity.User;
+import com.expensetracker.repository.TransactionFilter;
 import com.expensetracker.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
+/**
+ * Transactions older than the hot window live in archive segments (see {@link TransactionArchiver}).
+ * Reads here merge them back in, so callers see one continuous history; archived rows are
+ * read-only and can't be fetched by id.
+ */
 @Service
+@Transactional(readOnly = true)
 public class TransactionService {
 
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private TransactionArchiveStore archiveStore;
+
+    @Autowired
+    private VersionedCache versionedCache;
+
+    @Autowired
+    private TransactionTagService transactionTagService;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
     public List<Transaction> getAllTransactionsByUser(User user) {
-        return transactionRepository.findByUserIdOrderByTransactionDateDesc(user.getId());
+        return withArchived(user, transactionRepository.findByUserIdOrderByTransactionDateDesc(user.getId()),
+                null, null, transaction -> true);
     }
 
+    /**
+     * Hot rows come first; the archive only holds older dates, so pages past the hot rows
+     * continue into the archive.
+     */
     public Page<Transaction> getTransactionsByUser(User user, Pageable pageable) {
-        return transactionRepository.findByUserIdOrderByTransactionDateDesc(user.getId(), pageable);
+        Page<Transaction> hot = transactionRepository.findByUserIdOrderByTransactionDateDesc(user.getId(), pageable);
+        List<ArchiveSegment> segments = archiveStore.segments(user.getId());
+        if (segments.isEmpty()) {
+            return hot;
+        }
+
+        long hotTotal = hot.getTotalElements();
+        long total = hotTotal + archivedCount(segments);
+        if (pageable.getOffset() + pageable.getPageSize() <= hotTotal) {
+            return new PageImpl<>(hot.getContent(), pageable, total);
+        }
+        List<Transaction> content = new ArrayList<>(hot.getContent());
+        long archiveOffset = Math.max(0, pageable.getOffset() - hotTotal);
+        content.addAll(archiveStore.slice(segments, archiveOffset, pageable.getPageSize() - content.size()));
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Like {@link #getTransactionsByUser(User, Pageable)}, but current rows are read as stubs
+     * holding only the columns behind the given response fields. The count query only runs
+     * when the page reaches into the archive.
+     */
+    public List<Transaction> getTransactionsByUser(User user, Pageable pageable, Set<String> fields) {
+        List<Transaction> hot = transactionRepository.findFilteredColumns(user.getId(), new TransactionFilter(),
+                (int) pageable.getOffset(), pageable.getPageSize(), fields);
+        if (hot.size() == pageable.getPageSize()) {
+            return hot;
+        }
+        List<ArchiveSegment> segments = archiveStore.segments(user.getId());
+        if (segments.isEmpty()) {
+            return hot;
+        }
+        List<Transaction> content = new ArrayList<>(hot);
+        long archiveOffset = Math.max(0, pageable.getOffset() - transactionRepository.countByUserId(user.getId()));
+        content.addAll(archiveStore.slice(segments, archiveOffset, pageable.getPageSize() - content.size()));
+        return content;
+    }
+
+    public List<Transaction> getRecentTransactions(User user, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return getTransactionsByUser(user, PageRequest.of(0, limit)).getContent();
+    }
+
+    public long countByUser(User user) {
+        return versionedCache.get(user.getId(), "transactions", "count",
+                () -> singleFlight.execute("count", user.getId(), () -> transactionRepository.countByUserId(user.getId())
+                        + archivedCount(archiveStore.segments(user.getId()))));
     }
 
     public Optional<Transaction> getTransactionById(Long id) {
         return transactionRepository.findById(id);
     }
 
+    @Transactional
     public Transaction createTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        transactionTagService.sync(saved);
+        forgetAggregates(transaction);
+        return saved;
     }
 
+    @Transactional
     public Transaction updateTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        transactionTagService.sync(saved);
+        forgetAggregates(transaction);
+        return saved;
     }
 
-    public void deleteTransaction(Long id) {
-        transactionRepository.deleteById(id);
+    @Transactional
+    public void deleteTransaction(Transaction transaction) {
+        transactionTagService.delete(transaction.getId());
+        transactionRepository.delete(transaction);
+        forgetAggregates(transaction);
+    }
+
+    /**
+     * Current (not archived) transactions carrying all of the tags, or any of them, newest first.
+     * Answered from the tag index rather than the tags column.
+     */
+    public Page<Transaction> getTransactionsByTags(User user, List<String> tags, boolean matchAll, Pageable pageable) {
+        return transactionRepository.findByUserIdAndTags(user.getId(), tags, matchAll ? tags.size() : 1, pageable);
+    }
+
+    public List<TransactionTagService.TagTotal> getTagTotals(User user, String type, LocalDate startDate, LocalDate endDate) {
+        return versionedCache.get(user.getId(), "transactions", "tags:" + type + ":" + startDate + ":" + endDate,
+                () -> transactionTagService.spendByTag(user.getId(), type, startDate, endDate));
+    }
+
+    /**
+     * Best matches for a free-text query, in rank order. The index supplies ids; rows are then
+     * loaded from the database, or from the archive segment covering their date, and hits for
+     * rows that no longer exist are dropped.
+     */
+    public List<Transaction> searchTransactions(User user, String query, int limit) throws IOException {
+        List<SearchIndex.Hit> hits = searchIndex.search(user.getId(), query, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = hits.stream().map(SearchIndex.Hit::getId).collect(Collectors.toList());
+        Map<Long, Transaction> found = new HashMap<>();
+        for (Transaction transaction : transactionRepository.findByUserIdAndIdIn(user.getId(), ids)) {
+            found.put(transaction.getId(), transaction);
+        }
+        if (found.size() < hits.size()) {
+            List<ArchiveSegment> segments = archiveStore.segments(user.getId());
+            for (SearchIndex.Hit hit : hits) {
+                if (found.containsKey(hit.getId())) {
+                    continue;
+                }
+                for (ArchiveSegment segment : segments) {
+                    if (segment.overlaps(hit.getDate(), hit.getDate())) {
+                        archiveStore.read(segment).stream()
+                                .filter(transaction -> hit.getId().equals(transaction.getId()))
+                                .findFirst()
+                                .ifPresent(transaction -> found.put(hit.getId(), transaction));
+                    }
+                }
+            }
+        }
+        List<Transaction> results = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            Transaction transaction = found.get(id);
+            if (transaction != null) {
+                results.add(transaction);
+            }
+        }
+        return results;
     }
 
     public List<Transaction> getTransactionsByDateRange(User user, LocalDate startDate, LocalDate endDate) {
-        return transactionRepository.findByUserIdAndDateRange(user.getId(), startDate, endDate);
+        return withArchived(user, transactionRepository.findByUserIdAndDateRange(user.getId(), startDate, endDate),
+                startDate, endDate, transaction -> true);
     }
 
     public List<Transaction> getTransactionsByType(User user, String type) {
-        return transactionRepository.findByUserIdAndTypeOrderByTransactionDateDesc(user.getId(), type);
+        return withArchived(user, transactionRepository.findByUserIdAndTypeOrderByTransactionDateDesc(user.getId(), type),
+                null, null, transaction -> type.equals(transaction.getType()));
     }
 
     public BigDecimal getTotalIncomeByUser(User user) {
-        BigDecimal total = transactionRepository.getTotalByUserAndType(user.getId(), "income");
-        return total != null ? total : BigDecimal.ZERO;
+        return getTotalByUserAndType(user, "income");
     }
 
     public BigDecimal getTotalExpensesByUser(User user) {
-        BigDecimal total = transactionRepository.getTotalByUserAndType(user.getId(), "expense");
-        return total != null ? total : BigDecimal.ZERO;
+        return getTotalByUserAndType(user, "expense");
+    }
+
+    private BigDecimal getTotalByUserAndType(User user, String type) {
+        return versionedCache.get(user.getId(), "transactions", "total:" + type,
+                () -> singleFlight.execute("total", type, user.getId(), () -> {
+                    BigDecimal total = transactionRepository.getTotalByUserAndType(user.getId(), type);
+                    for (ArchiveSegment segment : archiveStore.segments(user.getId())) {
+                        total = add(total, TransactionArchiveStore.totalOf(segment, type));
+                    }
+                    return total != null ? total : BigDecimal.ZERO;
+                }));
     }
 
     public BigDecimal getNetBalance(User user) {
@@ -68,18 +232,57 @@ public class TransactionService {
     }
 
     public BigDecimal getTotalByUserAndTypeAndDateRange(User user, String type, LocalDate startDate, LocalDate endDate) {
-        BigDecimal total = transactionRepository.getTotalByUserAndTypeAndDateRange(
-                user.getId(), type, startDate, endDate);
-        return total != null ? total : BigDecimal.ZERO;
+        return singleFlight.execute("total", type + ":" + startDate + ":" + endDate, user.getId(), () -> {
+            BigDecimal total = transactionRepository.getTotalByUserAndTypeAndDateRange(
+                    user.getId(), type, startDate, endDate);
+            total = add(total, archiveStore.sum(archiveStore.segments(user.getId()), type, startDate, endDate, null));
+            return total != null ? total : BigDecimal.ZERO;
+        });
     }
 
     public BigDecimal getSpentByCategoryAndDateRange(User user, Long categoryId, LocalDate startDate, LocalDate endDate) {
-        BigDecimal total = transactionRepository.getSpentByCategoryAndDateRange(
-                user.getId(), categoryId, startDate, endDate);
-        return total != null ? total : BigDecimal.ZERO;
+        return singleFlight.execute("spent", categoryId + ":" + startDate + ":" + endDate, user.getId(), () -> {
+            BigDecimal total = transactionRepository.getSpentByCategoryAndDateRange(
+                    user.getId(), categoryId, startDate, endDate);
+            total = add(total, archiveStore.sum(archiveStore.segments(user.getId()), "expense", startDate, endDate,
+                    transaction -> transaction.getCategory() != null
+                            && Objects.equals(categoryId, transaction.getCategory().getId())));
+            return total != null ? total : BigDecimal.ZERO;
+        });
     }
 
     public List<Transaction> getTransactionsByCategory(User user, Long categoryId) {
-        return transactionRepository.findByUserIdAndCategoryIdOrderByTransactionDateDesc(user.getId(), categoryId);
+        return withArchived(user,
+                transactionRepository.findByUserIdAndCategoryIdOrderByTransactionDateDesc(user.getId(), categoryId),
+                null, null, transaction -> transaction.getCategory() != null
+                        && Objects.equals(categoryId, transaction.getCategory().getId()));
+    }
+
+    private List<Transaction> withArchived(User user, List<Transaction> hot, LocalDate startDate, LocalDate endDate,
+                                           Predicate<Transaction> filter) {
+        List<ArchiveSegment> segments = archiveStore.segments(user.getId());
+        if (segments.isEmpty()) {
+            return hot;
+        }
+        List<Transaction> merged = new ArrayList<>(hot);
+        merged.addAll(archiveStore.find(segments, startDate, endDate, filter));
+        // Stable, so rows of the same date keep their per-source order; this also places
+        // back-dated rows not yet archived correctly
+        merged.sort(Comparator.comparing(Transaction::getTransactionDate).reversed());
+        return merged;
+    }
+
+    private static long archivedCount(List<ArchiveSegment> segments) {
+        return segments.stream().mapToLong(ArchiveSegment::getRowCount).sum();
+    }
+
+    private static BigDecimal add(BigDecimal total, BigDecimal archived) {
+        return total != null ? total.add(archived) : archived;
+    }
+
+    private void forgetAggregates(Transaction transaction) {
+        if (transaction.getUser() != null) {
+            singleFlight.forget(transaction.getUser().getId());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,303 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.TransactionFilter;
+import com.expensetracker.repository.TransactionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Feeds a {@link RowWriter} the transactions matching a filter, newest first by (date, id),
+ * straight from a database cursor merged with the archive. Rows pass through a single reused
+ * {@link Row}, so no entity or response object is built per row and nothing is held after it
+ * is written.
+ * Bytes allocated per stream and rows written are recorded as
+ * {@code transactions.stream.allocation} and {@code transactions.stream.rows}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TransactionStreamService {
+
+    // Every TransactionResponse field; category icon and color come with its name
+    private static final Set<String> ALL_FIELDS = Set.of("description", "amount", "type", "notes", "receiptUrl",
+            "tags", "createdAt", "updatedAt", "categoryId", "categoryName", "accountId", "accountName");
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionArchiveStore archiveStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${stream.fetch-size:500}")
+    private int fetchSize;
+
+    /**
+     * Writes up to {@code limit} matching transactions. With {@code fields}, only the columns
+     * behind those response fields are read; null reads all of them.
+     *
+     * @return the number of rows written
+     */
+    public long stream(User user, TransactionFilter filter, int limit, Set<String> fields, RowWriter writer)
+            throws IOException {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        long before = threads != null ? threads.getCurrentThreadAllocatedBytes() : -1;
+
+        Row row = new Row();
+        long written = 0;
+        // Current and archived rows are each newest first; back-dated current rows can be older
+        // than archived ones, so the two are merged by (date, id)
+        Iterator<Transaction> archive = archiveStore.newestFirst(archiveStore.segments(user.getId()),
+                filter.getStartDate(), filter.getEndDate());
+        Transaction archived = nextMatching(archive, filter);
+        try (Stream<Tuple> rows = transactionRepository.streamFilteredColumns(user.getId(), filter,
+                fields != null ? fields : ALL_FIELDS, limit, fetchSize)) {
+            Iterator<Tuple> cursor = rows.iterator();
+            while (written < limit && cursor.hasNext()) {
+                Tuple current = cursor.next();
+                while (archived != null && written < limit && isNewer(archived, current)) {
+                    row.read(archived);
+                    writer.write(row);
+                    written++;
+                    archived = nextMatching(archive, filter);
+                }
+                if (written < limit) {
+                    row.read(current);
+                    writer.write(row);
+                    written++;
+                }
+            }
+        }
+        while (archived != null && written < limit) {
+            row.read(archived);
+            writer.write(row);
+            written++;
+            archived = nextMatching(archive, filter);
+        }
+
+        long after = threads != null ? threads.getCurrentThreadAllocatedBytes() : -1;
+        // -1 is returned for threads that do not support the measurement (e.g. virtual threads)
+        if (before >= 0 && after >= before) {
+            DistributionSummary.builder("transactions.stream.allocation")
+                    .description("Bytes allocated while streaming a transaction list")
+                    .baseUnit("bytes")
+                    .register(meterRegistry)
+                    .record(after - before);
+        }
+        DistributionSummary.builder("transactions.stream.rows")
+                .description("Rows written per streamed transaction list")
+                .register(meterRegistry)
+                .record(written);
+        return written;
+    }
+
+    private static Transaction nextMatching(Iterator<Transaction> archive, TransactionFilter filter) {
+        while (archive.hasNext()) {
+            Transaction transaction = archive.next();
+            if (filter.test(transaction)) {
+                return transaction;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isNewer(Transaction archived, Tuple current) {
+        int byDate = archived.getTransactionDate().compareTo(current.get("transactionDate", LocalDate.class));
+        return byDate > 0 || byDate == 0 && archived.getId() > current.get("id", Long.class);
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()
+                && sunBean.isThreadAllocatedMemoryEnabled()) {
+            return sunBean;
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    public interface RowWriter {
+
+        /**
+         * Called once per row with the same, refilled {@link Row}; it must not be kept.
+         */
+        void write(Row row) throws IOException;
+    }
+
+    /**
+     * The columns of one transaction. Fields that were not read are null.
+     */
+    public static class Row {
+
+        private Long id;
+        private String description;
+        private BigDecimal amount;
+        private String type;
+        private Long categoryId;
+        private String categoryName;
+        private String categoryIcon;
+        private String categoryColor;
+        private Long accountId;
+        private String accountName;
+        private LocalDate transactionDate;
+        private String notes;
+        private String receiptUrl;
+        private String tags;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+
+        void read(Tuple tuple) {
+            clear();
+            List<TupleElement<?>> elements = tuple.getElements();
+            for (int i = 0; i < elements.size(); i++) {
+                Object value = tuple.get(i);
+                switch (elements.get(i).getAlias()) {
+                    case "id" -> id = (Long) value;
+                    case "transactionDate" -> transactionDate = (LocalDate) value;
+                    case "description" -> description = (String) value;
+                    case "amount" -> amount = (BigDecimal) value;
+                    case "type" -> type = (String) value;
+                    case "notes" -> notes = (String) value;
+                    case "receiptUrl" -> receiptUrl = (String) value;
+                    case "tags" -> tags = (String) value;
+                    case "createdAt" -> createdAt = (LocalDateTime) value;
+                    case "updatedAt" -> updatedAt = (LocalDateTime) value;
+                    case "categoryId" -> categoryId = (Long) value;
+                    case "categoryName" -> categoryName = (String) value;
+                    case "categoryIcon" -> categoryIcon = (String) value;
+                    case "categoryColor" -> categoryColor = (String) value;
+                    case "accountId" -> accountId = (Long) value;
+                    case "accountName" -> accountName = (String) value;
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        void read(Transaction transaction) {
+            clear();
+            id = transaction.getId();
+            description = transaction.getDescription();
+            amount = transaction.getAmount();
+            type = transaction.getType();
+            transactionDate = transaction.getTransactionDate();
+            notes = transaction.getNotes();
+            receiptUrl = transaction.getReceiptUrl();
+            tags = transaction.getTags();
+            createdAt = transaction.getCreatedAt();
+            updatedAt = transaction.getUpdatedAt();
+            if (transaction.getCategory() != null) {
+                categoryId = transaction.getCategory().getId();
+                categoryName = transaction.getCategory().getName();
+                categoryIcon = transaction.getCategory().getIcon();
+                categoryColor = transaction.getCategory().getColor();
+            }
+            if (transaction.getAccount() != null) {
+                accountId = transaction.getAccount().getId();
+                accountName = transaction.getAccount().getName();
+            }
+        }
+
+        private void clear() {
+            id = null;
+            description = null;
+            amount = null;
+            type = null;
+            categoryId = null;
+            categoryName = null;
+            categoryIcon = null;
+            categoryColor = null;
+            accountId = null;
+            accountName = null;
+            transactionDate = null;
+            notes = null;
+            receiptUrl = null;
+            tags = null;
+            createdAt = null;
+            updatedAt = null;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public Long getCategoryId() {
+            return categoryId;
+        }
+
+        public String getCategoryName() {
+            return categoryName;
+        }
+
+        public String getCategoryIcon() {
+            return categoryIcon;
+        }
+
+        public String getCategoryColor() {
+            return categoryColor;
+        }
+
+        public Long getAccountId() {
+            return accountId;
+        }
+
+        public String getAccountName() {
+            return accountName;
+        }
+
+        public LocalDate getTransactionDate() {
+            return transactionDate;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+
+        public String getReceiptUrl() {
+            return receiptUrl;
+        }
+
+        public String getTags() {
+            return tags;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
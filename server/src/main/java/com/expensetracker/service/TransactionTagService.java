@@ -0,0 +1,256 @@
+package com.expensetracker.service;
+
+import com.expensetracker.config.SchemaCheck;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.entity.TransactionTag;
+import com.expensetracker.repository.TransactionTagRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps {@code transaction_tags} in step with the {@code tags} column. The column stays the
+ * source of truth (it is what the archive and the change journal carry); the table is its
+ * normalized, indexed copy. Transaction writes in {@link TransactionService} rewrite a
+ * transaction's rows in the same database transaction. Rows written around that path (bulk
+ * inserts, data from before the table existed) are backfilled in the background at startup.
+ */
+@Service
+public class TransactionTagService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionTagService.class);
+
+    public static final int MAX_TAGS = 10;
+    public static final int MAX_TAG_LENGTH = 30;
+
+    // Width of the transactions.tags column
+    private static final int MAX_COLUMN_LENGTH = 255;
+
+    private static final String SELECT_UNINDEXED =
+            "SELECT t.id, t.user_id, t.tags, t.amount, t.type, t.transaction_date FROM transactions t " +
+            "WHERE t.id > ? AND t.tags IS NOT NULL AND t.tags <> '' " +
+            "AND NOT EXISTS (SELECT 1 FROM transaction_tags tt WHERE tt.transaction_id = t.id) " +
+            "ORDER BY t.id LIMIT ?";
+
+    private static final String INSERT_TAG =
+            "INSERT INTO transaction_tags (transaction_id, user_id, tag, amount, type, transaction_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private TransactionTagRepository transactionTagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<SchemaCheck> schemaCheck;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${tags.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${tags.backfill-batch-size:1000}")
+    private int backfillBatchSize;
+
+    /**
+     * Tags of a {@code tags} column value: comma separated, trimmed, lower case, no duplicates.
+     */
+    public static List<String> parse(String column) {
+        if (column == null || column.isBlank()) {
+            return List.of();
+        }
+        return normalize(List.of(column.split(",")));
+    }
+
+    public static List<String> normalize(Collection<String> tags) {
+        if (tags == null) {
+            return List.of();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag == null) {
+                continue;
+            }
+            String value = tag.trim().toLowerCase(Locale.ROOT);
+            if (value.length() > MAX_TAG_LENGTH) {
+                value = value.substring(0, MAX_TAG_LENGTH);
+            }
+            if (!value.isEmpty() && normalized.size() < MAX_TAGS) {
+                normalized.add(value);
+            }
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    /**
+     * The {@code tags} column value for a list of tags, or null for none. Tags that would not
+     * fit the column are dropped.
+     */
+    public static String format(Collection<String> tags) {
+        StringBuilder column = new StringBuilder();
+        for (String tag : normalize(tags)) {
+            if (column.length() + tag.length() + 1 > MAX_COLUMN_LENGTH) {
+                break;
+            }
+            if (column.length() > 0) {
+                column.append(',');
+            }
+            column.append(tag);
+        }
+        return column.length() > 0 ? column.toString() : null;
+    }
+
+    /**
+     * Rewrites a saved transaction's tag rows. Call inside the transaction that saved it.
+     */
+    public void sync(Transaction transaction) {
+        transactionTagRepository.deleteByTransactionId(transaction.getId());
+        List<TransactionTag> rows = new ArrayList<>();
+        for (String tag : parse(transaction.getTags())) {
+            rows.add(new TransactionTag(transaction, tag));
+        }
+        if (!rows.isEmpty()) {
+            transactionTagRepository.saveAll(rows);
+        }
+    }
+
+    public void delete(Long transactionId) {
+        transactionTagRepository.deleteByTransactionId(transactionId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        // When the schema is checked in the background, the table may not exist before that
+        SchemaCheck check = schemaCheck.getIfAvailable();
+        CompletableFuture<Void> schemaReady = check != null ? check.whenChecked() : CompletableFuture.completedFuture(null);
+        schemaReady.thenRunAsync(this::backfill, taskExecutor)
+                .exceptionally(e -> {
+                    logger.error("Tag backfill failed: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Writes tag rows for every transaction whose tags column has no rows yet, in id order and
+     * batches of {@code tags.backfill-batch-size}.
+     *
+     * @return number of tag rows written
+     */
+    public long backfill() {
+        long lastId = 0;
+        long written = 0;
+        while (true) {
+            List<Object[]> rows = new ArrayList<>();
+            long[] lastScanned = {lastId};
+            jdbcTemplate.query(SELECT_UNINDEXED, rs -> {
+                lastScanned[0] = rs.getLong(1);
+                Date date = rs.getDate(6);
+                for (String tag : parse(rs.getString(3))) {
+                    rows.add(new Object[]{rs.getLong(1), rs.getLong(2), tag, rs.getBigDecimal(4), rs.getString(5), date});
+                }
+            }, lastId, backfillBatchSize);
+            if (lastScanned[0] == lastId) {
+                break;
+            }
+            if (!rows.isEmpty()) {
+                written += insert(rows);
+            }
+            lastId = lastScanned[0];
+        }
+        meterRegistry.counter("tags.backfilled").increment(written);
+        if (written > 0) {
+            logger.info("Backfilled {} transaction tags", written);
+        }
+        return written;
+    }
+
+    private int insert(List<Object[]> rows) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_TAG, rows);
+            return rows.size();
+        } catch (DataIntegrityViolationException e) {
+            // A write path got to some of these transactions first; insert the rest one by one
+            int inserted = 0;
+            for (Object[] row : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_TAG, row);
+                    inserted++;
+                } catch (DataIntegrityViolationException duplicate) {
+                    // Already there
+                }
+            }
+            return inserted;
+        }
+    }
+
+    public List<TagTotal> spendByTag(Long userId, String type, LocalDate startDate, LocalDate endDate) {
+        List<TagTotal> totals = new ArrayList<>();
+        for (Object[] row : transactionTagRepository.sumByTag(userId, type, startDate, endDate)) {
+            totals.add(new TagTotal((String) row[0], (BigDecimal) row[1], (Long) row[2]));
+        }
+        return totals;
+    }
+
+    public List<TagTotal> countByTag(Long userId) {
+        List<TagTotal> counts = new ArrayList<>();
+        for (Object[] row : transactionTagRepository.countByTag(userId)) {
+            counts.add(new TagTotal((String) row[0], null, (Long) row[1]));
+        }
+        return counts;
+    }
+
+    public static class TagTotal {
+
+        private final String tag;
+        private final BigDecimal total;
+        private final long count;
+
+        public TagTotal(String tag, BigDecimal total, long count) {
+            this.tag = tag;
+            this.total = total;
+            this.count = count;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        public BigDecimal getTotal() {
+            return total;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.expensetracker.service;
+
+import com.expensetracker.config.ReplicaRoutingContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of derived values, grouped into resource families ("categories",
+ * "accounts", "transactions", ...) and kept coherent across instances by the invalidation bus.
+ *
+ * <p>Every invalidation evicts its group. Messages carry no version to order them by: they can
+ * arrive out of commit order, and a late or duplicate one may still be the only notice of a
+ * write. Each invalidation also advances a local generation, the cache's only version. Every
+ * entry remembers the generation it was loaded under, and a value whose load overlapped an
+ * invalidation is returned but not cached, so it can't bring stale data back.
+ *
+ * <p>With read replicas, loads run in their own transaction pinned to the primary: a replica
+ * may not yet have the write behind the invalidation, and a value read from it would be cached
+ * under the new generation and stay stale until the next one.
+ */
+@Component
+public class VersionedCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${datasource.replica.enabled:false}")
+    private boolean replicasEnabled;
+
+    @Value("${cache.versioned.max-groups:20000}")
+    private long maxGroups;
+
+    @Value("${cache.versioned.expire-minutes:10}")
+    private long expireMinutes;
+
+    // (userId, family) -> key -> entry
+    private Cache<String, Map<String, Entry>> groups;
+    // Local, in arrival order
+    private final AtomicLong generation = new AtomicLong();
+    // (userId, family) -> generation of its last invalidation; outlives the entries it guards
+    private Cache<String, Long> versions;
+    // family -> generation of the last invalidation addressed to all users
+    private final Map<String, Long> globalVersions = new ConcurrentHashMap<>();
+    private TransactionTemplate primaryReads;
+
+    @PostConstruct
+    void init() {
+        // A new transaction, so the connection is chosen under the pin rather than reused from the caller's
+        primaryReads = new TransactionTemplate(transactionManager);
+        primaryReads.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        primaryReads.setReadOnly(true);
+        groups = Caffeine.newBuilder()
+                .maximumSize(maxGroups)
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .build();
+        versions = Caffeine.newBuilder()
+                .maximumSize(maxGroups * 4)
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes * 3))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String family, String key, Supplier<T> loader) {
+        String group = group(userId, family);
+        long version = currentVersion(group, family);
+        Map<String, Entry> entries = groups.getIfPresent(group);
+        Entry entry = entries != null ? entries.get(key) : null;
+        if (entry != null && entry.version >= version) {
+            meterRegistry.counter("cache.versioned", "family", family, "result", "hit").increment();
+            return (T) entry.value;
+        }
+
+        meterRegistry.counter("cache.versioned", "family", family, "result", "miss").increment();
+        T value = replicasEnabled ? loadFromPrimary(loader) : loader.get();
+        if (value != null && currentVersion(group, family) == version) {
+            groups.get(group, g -> new ConcurrentHashMap<>()).put(key, new Entry(value, version));
+        }
+        return value;
+    }
+
+    public void invalidate(InvalidationMessage message) {
+        // Advanced before evicting, so a load that started earlier no longer matches and is not cached
+        long next = generation.incrementAndGet();
+        if (message.getUserId() == null) {
+            globalVersions.put(message.getFamily(), next);
+            groups.asMap().keySet().removeIf(group -> group.endsWith(":" + message.getFamily()));
+            return;
+        }
+
+        String group = group(message.getUserId(), message.getFamily());
+        versions.put(group, next);
+        groups.invalidate(group);
+    }
+
+    private <T> T loadFromPrimary(Supplier<T> loader) {
+        boolean pinned = ReplicaRoutingContext.isPrimaryPinned();
+        ReplicaRoutingContext.setPrimaryPinned(true);
+        try {
+            return primaryReads.execute(status -> loader.get());
+        } finally {
+            ReplicaRoutingContext.setPrimaryPinned(pinned);
+        }
+    }
+
+    private long currentVersion(String group, String family) {
+        long userVersion = versions.asMap().getOrDefault(group, 0L);
+        return Math.max(userVersion, globalVersions.getOrDefault(family, 0L));
+    }
+
+    private static String group(Long userId, String family) {
+        return userId + ":" + family;
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private final long version;
+
+        Entry(Object value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.expensetracker.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedVirtualExecutorTest {
+
+    @Test
+    void rejectsTasksOverTheLimitInsteadOfWaiting() throws Exception {
+        BoundedVirtualExecutor executor = new BoundedVirtualExecutor("test-", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        executor.execute(() -> {
+            await(release);
+            finished.countDown();
+        });
+
+        assertThatThrownBy(() -> executor.execute(() -> { }))
+                .isInstanceOf(TaskRejectedException.class);
+
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        // The slot frees up as soon as the task returns
+        CountDownLatch ran = new CountDownLatch(1);
+        while (!accepted(executor, ran::countDown)) {
+            Thread.sleep(1);
+        }
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void runsTasksOnVirtualThreadsWithTheDecorator() throws Exception {
+        BoundedVirtualExecutor executor = new BoundedVirtualExecutor("test-", 2);
+        executor.setTaskDecorator(task -> () -> {
+            Thread.currentThread().setName("decorated");
+            task.run();
+        });
+        CountDownLatch ran = new CountDownLatch(1);
+        boolean[] virtual = new boolean[1];
+        String[] name = new String[1];
+        executor.execute(() -> {
+            virtual[0] = Thread.currentThread().isVirtual();
+            name[0] = Thread.currentThread().getName();
+            ran.countDown();
+        });
+
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(virtual[0]).isTrue();
+        assertThat(name[0]).isEqualTo("decorated");
+    }
+
+    private static boolean accepted(BoundedVirtualExecutor executor, Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (TaskRejectedException e) {
+            return false;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
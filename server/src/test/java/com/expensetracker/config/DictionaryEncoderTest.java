@@ -0,0 +1,66 @@
+package com.expensetracker.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DictionaryEncoderTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void turnsTransactionListsIntoTablesWithADictionary() throws Exception {
+        JsonNode encoded = encode("""
+                {"success": true, "message": "ok", "data": [
+                  {"id": 1, "amount": 5.5, "categoryId": 10, "categoryName": "Food", "categoryIcon": "f",
+                   "categoryColor": "#fff", "accountId": 20, "accountName": "Cash"},
+                  {"id": 2, "amount": 7, "categoryId": 10, "categoryName": "Food", "categoryIcon": "f",
+                   "categoryColor": "#fff", "accountId": 21, "accountName": "Bank", "note": "late"}
+                ]}""");
+
+        assertThat(encoded).isEqualTo(mapper.readTree("""
+                {"success": true, "message": "ok",
+                 "data": {"columns": ["id", "amount", "categoryId", "accountId", "note"],
+                          "rows": [[1, 5.5, 10, 20, null], [2, 7, 10, 21, "late"]]},
+                 "dictionary": {
+                   "categories": [{"id": 10, "categoryName": "Food", "categoryIcon": "f", "categoryColor": "#fff"}],
+                   "accounts": [{"id": 20, "accountName": "Cash"}, {"id": 21, "accountName": "Bank"}]}}"""));
+    }
+
+    @Test
+    void rewritesNestedListsAndWrapsTopLevelArrays() throws Exception {
+        JsonNode encoded = encode("""
+                [{"name": "march", "budgets": [{"id": 3, "categoryId": 10, "categoryName": "Food"}]}]""");
+
+        assertThat(encoded).isEqualTo(mapper.readTree("""
+                {"dictionary": {"categories": [{"id": 10, "categoryName": "Food"}], "accounts": []},
+                 "data": [{"name": "march",
+                           "budgets": {"columns": ["id", "categoryId"], "rows": [[3, 10]]}}]}"""));
+    }
+
+    @Test
+    void leavesOtherDocumentsAlone() throws Exception {
+        String document = """
+                {"success": true, "data": [{"id": 1, "name": "Food"}, {"id": 2, "name": "Rent"}]}""";
+
+        assertThat(encode(document)).isEqualTo(mapper.readTree(document));
+        assertThat(encode("[]")).isEqualTo(mapper.readTree("[]"));
+    }
+
+    @Test
+    void keepsRowsWithoutReferencedDetails() throws Exception {
+        JsonNode encoded = encode("""
+                {"data": [{"id": 1, "categoryId": null, "accountId": 20}]}""");
+
+        assertThat(encoded).isEqualTo(mapper.readTree("""
+                {"data": {"columns": ["id", "categoryId", "accountId"], "rows": [[1, null, 20]]},
+                 "dictionary": {"categories": [], "accounts": [{"id": 20}]}}"""));
+    }
+
+    // Dictionary ids are written as longs, so compare the documents as a client would read them
+    private JsonNode encode(String document) throws Exception {
+        return mapper.readTree(mapper.writeValueAsString(DictionaryEncoder.encode(mapper.readTree(document))));
+    }
+}
@@ -0,0 +1,41 @@
+package com.expensetracker.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReceiptControllerTest {
+
+    @Test
+    void parsesSingleRanges() {
+        assertThat(ReceiptController.byteRange("bytes=0-99", 1000)).containsExactly(0, 99);
+        assertThat(ReceiptController.byteRange("bytes=500-", 1000)).containsExactly(500, 999);
+        assertThat(ReceiptController.byteRange("bytes=999-999", 1000)).containsExactly(999, 999);
+    }
+
+    @Test
+    void clampsRangesToTheFile() {
+        assertThat(ReceiptController.byteRange("bytes=900-5000", 1000)).containsExactly(900, 999);
+        assertThat(ReceiptController.byteRange("bytes=-100", 1000)).containsExactly(900, 999);
+        assertThat(ReceiptController.byteRange("bytes=-2000", 1000)).containsExactly(0, 999);
+    }
+
+    @Test
+    void rejectsRangesThatCannotBeSatisfied() {
+        assertThat(ReceiptController.byteRange("bytes=1000-", 1000)).isSameAs(ReceiptController.UNSATISFIABLE);
+        assertThat(ReceiptController.byteRange("bytes=1000-1200", 1000)).isSameAs(ReceiptController.UNSATISFIABLE);
+        assertThat(ReceiptController.byteRange("bytes=-0", 1000)).isSameAs(ReceiptController.UNSATISFIABLE);
+        assertThat(ReceiptController.byteRange("bytes=0-", 0)).isSameAs(ReceiptController.UNSATISFIABLE);
+        assertThat(ReceiptController.byteRange("bytes=-5", 0)).isSameAs(ReceiptController.UNSATISFIABLE);
+    }
+
+    @Test
+    void sendsTheWholeFileForAnythingElse() {
+        assertThat(ReceiptController.byteRange(null, 1000)).isNull();
+        assertThat(ReceiptController.byteRange("items=0-99", 1000)).isNull();
+        assertThat(ReceiptController.byteRange("bytes=0-1,5-9", 1000)).isNull();
+        assertThat(ReceiptController.byteRange("bytes=100", 1000)).isNull();
+        assertThat(ReceiptController.byteRange("bytes=a-b", 1000)).isNull();
+        assertThat(ReceiptController.byteRange("bytes=100-50", 1000)).isNull();
+    }
+}
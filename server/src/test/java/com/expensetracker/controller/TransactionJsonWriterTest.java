@@ -0,0 +1,145 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.config.JacksonConfig;
+import com.expensetracker.dto.ApiResponse;
+import com.expensetracker.dto.TransactionResponse;
+import com.expensetracker.service.TransactionStreamService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionJsonWriterTest {
+
+    private static final String MESSAGE = "Transactions retrieved \"successfully\"";
+
+    private final ObjectMapper objectMapper = objectMapper();
+
+    @Test
+    void writesWhatJacksonWritesForTheSameResponse() throws Exception {
+        assertThat(streamed(null)).isEqualTo(serialized(null));
+    }
+
+    @Test
+    void writesOnlyTheSelectedFields() throws Exception {
+        Set<String> fields = Set.of("id", "amount", "categoryName", "transactionDate", "tags");
+
+        assertThat(streamed(fields)).isEqualTo(serialized(fields));
+    }
+
+    @Test
+    void writesAnEmptyList() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TransactionJsonWriter(objectMapper, out, MESSAGE, null).close();
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .isEqualTo(objectMapper.writeValueAsString(ApiResponse.success(MESSAGE, List.of())));
+    }
+
+    private String streamed(Set<String> fields) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionJsonWriter writer = new TransactionJsonWriter(objectMapper, out, MESSAGE, fields);
+        writer.write(fullRow());
+        writer.write(sparseRow());
+        writer.close();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // As bytes, like the HTTP message converter: the UTF-8 generator escapes surrogate pairs
+    private String serialized(Set<String> fields) throws Exception {
+        Object body = FieldSelection.apply(
+                ApiResponse.success(MESSAGE, List.of(fullResponse(), sparseResponse())), fields);
+        byte[] json = body instanceof MappingJacksonValue value
+                ? objectMapper.writer(value.getFilters()).writeValueAsBytes(value.getValue())
+                : objectMapper.writeValueAsBytes(body);
+        return new String(json, StandardCharsets.UTF_8);
+    }
+
+    // Configured as Spring Boot configures the web ObjectMapper
+    private static ObjectMapper objectMapper() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        new JacksonConfig().fieldsFilterCustomizer().customize(builder);
+        return builder.build();
+    }
+
+    private static TransactionStreamService.Row fullRow() {
+        TransactionStreamService.Row row = new TransactionStreamService.Row();
+        ReflectionTestUtils.setField(row, "id", 42L);
+        ReflectionTestUtils.setField(row, "description", "Café \"au lait\"\n");
+        ReflectionTestUtils.setField(row, "amount", new BigDecimal("12.50"));
+        ReflectionTestUtils.setField(row, "type", "expense");
+        ReflectionTestUtils.setField(row, "categoryId", 3L);
+        ReflectionTestUtils.setField(row, "categoryName", "Food");
+        ReflectionTestUtils.setField(row, "categoryIcon", "🍔");
+        ReflectionTestUtils.setField(row, "categoryColor", "#ff0000");
+        ReflectionTestUtils.setField(row, "accountId", 7L);
+        ReflectionTestUtils.setField(row, "accountName", "Cash");
+        ReflectionTestUtils.setField(row, "transactionDate", LocalDate.of(2024, 2, 29));
+        ReflectionTestUtils.setField(row, "notes", "paid <b>half</b>");
+        ReflectionTestUtils.setField(row, "receiptUrl", "/api/receipts/1/a.jpg");
+        ReflectionTestUtils.setField(row, "tags", "work,travel");
+        ReflectionTestUtils.setField(row, "createdAt", LocalDateTime.of(2024, 2, 29, 8, 5, 3, 120_000_000));
+        ReflectionTestUtils.setField(row, "updatedAt", LocalDateTime.of(2024, 3, 1, 0, 0));
+        return row;
+    }
+
+    private static TransactionResponse fullResponse() {
+        TransactionResponse response = new TransactionResponse();
+        response.setId(42L);
+        response.setDescription("Café \"au lait\"\n");
+        response.setAmount(new BigDecimal("12.50"));
+        response.setType("expense");
+        response.setCategoryId(3L);
+        response.setCategoryName("Food");
+        response.setCategoryIcon("🍔");
+        response.setCategoryColor("#ff0000");
+        response.setAccountId(7L);
+        response.setAccountName("Cash");
+        response.setTransactionDate(LocalDate.of(2024, 2, 29));
+        response.setNotes("paid <b>half</b>");
+        response.setReceiptUrl("/api/receipts/1/a.jpg");
+        response.setTags(List.of("work", "travel"));
+        response.setCreatedAt(LocalDateTime.of(2024, 2, 29, 8, 5, 3, 120_000_000));
+        response.setUpdatedAt(LocalDateTime.of(2024, 3, 1, 0, 0));
+        return response;
+    }
+
+    // No category, notes, receipt, tags or timestamps
+    private static TransactionStreamService.Row sparseRow() {
+        TransactionStreamService.Row row = new TransactionStreamService.Row();
+        ReflectionTestUtils.setField(row, "id", 43L);
+        ReflectionTestUtils.setField(row, "description", "Salary");
+        ReflectionTestUtils.setField(row, "amount", new BigDecimal("1000"));
+        ReflectionTestUtils.setField(row, "type", "income");
+        ReflectionTestUtils.setField(row, "accountId", 7L);
+        ReflectionTestUtils.setField(row, "accountName", "Cash");
+        ReflectionTestUtils.setField(row, "transactionDate", LocalDate.of(2024, 3, 1));
+        return row;
+    }
+
+    private static TransactionResponse sparseResponse() {
+        TransactionResponse response = new TransactionResponse();
+        response.setId(43L);
+        response.setDescription("Salary");
+        response.setAmount(new BigDecimal("1000"));
+        response.setType("income");
+        response.setAccountId(7L);
+        response.setAccountName("Cash");
+        response.setTransactionDate(LocalDate.of(2024, 3, 1));
+        response.setTags(List.of());
+        return response;
+    }
+}
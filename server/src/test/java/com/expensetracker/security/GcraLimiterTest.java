@@ -0,0 +1,95 @@
+package com.expensetracker.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GcraLimiterTest {
+
+    // One token per 1000 s, so nothing refills while a test runs
+    private static final double SLOW_RATE = 0.001;
+
+    @Test
+    void allowsTheBurstThenReportsTheWait() {
+        GcraLimiter limiter = new GcraLimiter(SLOW_RATE, 3);
+        AtomicLong state = limiter.newState();
+
+        assertThat(limiter.tryAcquire(state)).isZero();
+        assertThat(limiter.tryAcquire(state)).isZero();
+        assertThat(limiter.tryAcquire(state)).isZero();
+
+        long wait = limiter.tryAcquire(state);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1000));
+        assertThat(limiter.tryAcquire(state)).isPositive();
+    }
+
+    @Test
+    void waitTimeDoesNotTakeAToken() {
+        GcraLimiter limiter = new GcraLimiter(SLOW_RATE, 2);
+        AtomicLong state = limiter.newState();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.waitTime(state)).isZero();
+        }
+        assertThat(limiter.tryAcquire(state)).isZero();
+        assertThat(limiter.tryAcquire(state)).isZero();
+        assertThat(limiter.waitTime(state)).isPositive();
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() throws InterruptedException {
+        // One token per 50 ms
+        GcraLimiter limiter = new GcraLimiter(20, 1);
+        AtomicLong state = limiter.newState();
+
+        assertThat(limiter.tryAcquire(state)).isZero();
+        long wait = limiter.tryAcquire(state);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(limiter.tryAcquire(state)).isZero();
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws Exception {
+        GcraLimiter limiter = new GcraLimiter(SLOW_RATE, 50);
+        AtomicLong state = limiter.newState();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    int allowed = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire(state) == 0) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get();
+            }
+            assertThat(allowed).isEqualTo(50);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new GcraLimiter(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new GcraLimiter(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,125 @@
+package com.expensetracker.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeJournalTest {
+
+    // Header plus a three-byte payload
+    private static final int RECORD_BYTES = 16 + 3;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoveryTruncatesAfterTheLastRecordWithAValidChecksum() throws IOException {
+        ChangeJournal journal = open(4096);
+        journal.append(bytes("one"));
+        journal.append(bytes("two"));
+        journal.append(bytes("six"));
+        journal.close();
+
+        // A crash left the last record's payload half written
+        write(segmentFiles().get(0), 2L * RECORD_BYTES + 16, ByteBuffer.wrap(bytes("X")));
+
+        ChangeJournal reopened = open(4096);
+        assertThat(reopened.endOffset()).isEqualTo(2);
+        assertThat(payloads(reopened.read(0, 10))).containsExactly("one", "two");
+        assertThat(reopened.append(bytes("ten"))).isEqualTo(2);
+        assertThat(payloads(reopened.read(2, 10))).containsExactly("ten");
+        reopened.close();
+    }
+
+    @Test
+    void recoveryIgnoresALengthWithoutARecordBehindIt() throws IOException {
+        ChangeJournal journal = open(4096);
+        journal.append(bytes("one"));
+        journal.close();
+
+        // The length went out but the header and payload did not
+        write(segmentFiles().get(0), RECORD_BYTES, ByteBuffer.allocate(4).putInt(0, 3));
+
+        ChangeJournal reopened = open(4096);
+        assertThat(reopened.endOffset()).isEqualTo(1);
+        assertThat(payloads(reopened.read(0, 10))).containsExactly("one");
+        reopened.close();
+    }
+
+    @Test
+    void rollsSegmentsAndDeletesOnlyFullyConsumedOnes() throws IOException {
+        // Three records per segment
+        ChangeJournal journal = open(64);
+        for (int i = 0; i < 7; i++) {
+            assertThat(journal.append(bytes("r" + i + "x"))).isEqualTo(i);
+        }
+        assertThat(segmentFiles()).hasSize(3);
+
+        assertThat(journal.deleteBefore(4)).isEqualTo(1);
+        assertThat(journal.startOffset()).isEqualTo(3);
+        assertThat(payloads(journal.read(0, 10))).containsExactly("r3x", "r4x", "r5x", "r6x");
+
+        // The active segment stays whatever the offset
+        assertThat(journal.deleteBefore(100)).isEqualTo(1);
+        assertThat(segmentFiles()).hasSize(1);
+        journal.close();
+
+        ChangeJournal reopened = open(64);
+        assertThat(reopened.startOffset()).isEqualTo(6);
+        assertThat(reopened.endOffset()).isEqualTo(7);
+        reopened.close();
+    }
+
+    @Test
+    void readsNothingAtTheEndOfAFullyIndexedSegment() throws IOException {
+        // 1024 records fill the segment's initial index of 16 slots, one per 64 records
+        ChangeJournal journal = open(1 << 20);
+        for (int i = 0; i < 1024; i++) {
+            journal.append(bytes(String.format("%03d", i % 1000)));
+        }
+
+        assertThat(journal.read(journal.endOffset(), 10)).isEmpty();
+        assertThat(payloads(journal.read(1020, 10))).containsExactly("020", "021", "022", "023");
+        journal.close();
+    }
+
+    private ChangeJournal open(int segmentBytes) throws IOException {
+        ChangeJournal journal = new ChangeJournal();
+        ReflectionTestUtils.setField(journal, "journalDir", dir.toString());
+        ReflectionTestUtils.setField(journal, "segmentBytes", segmentBytes);
+        journal.open();
+        return journal;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static void write(Path file, long position, ByteBuffer content) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(content, position);
+        }
+    }
+
+    private static List<String> payloads(List<ChangeJournal.JournalRecord> records) {
+        return records.stream().map(record -> new String(record.getPayload(), StandardCharsets.UTF_8)).toList();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
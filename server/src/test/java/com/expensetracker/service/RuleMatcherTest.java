@@ -0,0 +1,115 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Account;
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.CategoryRule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleMatcherTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("12.50");
+
+    @Test
+    void matchesKeywordsCaseInsensitivelyAnywhere() {
+        RuleMatcher matcher = RuleMatcher.compile(List.of(rule(1L, "Coffee", 10L, "expense")));
+
+        assertThat(matcher.match("MORNING COFFEE at the station", AMOUNT, "expense", null)).isEqualTo(10L);
+        assertThat(matcher.match("Tea", AMOUNT, "expense", null)).isNull();
+        assertThat(matcher.match(null, AMOUNT, "expense", null)).isNull();
+    }
+
+    @Test
+    void lowerPriorityWinsThenLongerKeywordThenOlderRule() {
+        CategoryRule uber = rule(1L, "uber", 10L, "expense");
+        CategoryRule uberEats = rule(2L, "uber eats", 20L, "expense");
+        CategoryRule eatsAgain = rule(3L, "uber eats", 30L, "expense");
+        RuleMatcher matcher = RuleMatcher.compile(List.of(eatsAgain, uber, uberEats));
+
+        assertThat(matcher.match("Uber Eats order", AMOUNT, "expense", null)).isEqualTo(20L);
+        assertThat(matcher.match("Uber trip home", AMOUNT, "expense", null)).isEqualTo(10L);
+
+        uber.setPriority(1);
+        matcher = RuleMatcher.compile(List.of(eatsAgain, uber, uberEats));
+        assertThat(matcher.match("Uber Eats order", AMOUNT, "expense", null)).isEqualTo(10L);
+    }
+
+    @Test
+    void findsKeywordsEndingInsideOtherKeywords() {
+        // "ushers" contains "she", "he" and "hers"; the last two are only reached by failure links
+        CategoryRule she = rule(1L, "she", 10L, "expense");
+        CategoryRule he = rule(2L, "he", 20L, "expense");
+        CategoryRule hers = rule(3L, "hers", 30L, "expense");
+        hers.setPriority(1);
+        he.setPriority(2);
+
+        assertThat(RuleMatcher.compile(List.of(she, he, hers)).match("ushers", AMOUNT, "expense", null))
+                .isEqualTo(30L);
+        assertThat(RuleMatcher.compile(List.of(she, he)).match("ushers", AMOUNT, "expense", null))
+                .isEqualTo(20L);
+    }
+
+    @Test
+    void skipsMatchesWhosePredicatesFail() {
+        CategoryRule salary = rule(1L, "acme", 10L, "income");
+        CategoryRule large = rule(2L, "acme", 20L, "expense");
+        large.setMinAmount(new BigDecimal("100"));
+        CategoryRule onCard = rule(3L, "acme", 30L, "expense");
+        onCard.setAccount(account(7L));
+        CategoryRule fallback = rule(4L, "acme", 40L, "expense");
+        fallback.setPriority(CategoryRule.DEFAULT_PRIORITY + 1);
+        RuleMatcher matcher = RuleMatcher.compile(List.of(salary, large, onCard, fallback));
+
+        assertThat(matcher.match("ACME payroll", AMOUNT, "income", null)).isEqualTo(10L);
+        assertThat(matcher.match("ACME store", new BigDecimal("250"), "expense", null)).isEqualTo(20L);
+        assertThat(matcher.match("ACME store", AMOUNT, "expense", 7L)).isEqualTo(30L);
+        assertThat(matcher.match("ACME store", AMOUNT, "expense", 8L)).isEqualTo(40L);
+        assertThat(matcher.match("ACME store", null, "expense", null)).isEqualTo(40L);
+    }
+
+    @Test
+    void keywordlessRulesApplyToEveryDescription() {
+        CategoryRule rent = rule(1L, null, 10L, "expense");
+        rent.setMinAmount(new BigDecimal("1000"));
+        rent.setPriority(50);
+        CategoryRule groceries = rule(2L, "market", 20L, "expense");
+        RuleMatcher matcher = RuleMatcher.compile(List.of(rent, groceries));
+
+        assertThat(matcher.match("Transfer", new BigDecimal("1200"), "expense", null)).isEqualTo(10L);
+        assertThat(matcher.match("Market", new BigDecimal("1200"), "expense", null)).isEqualTo(10L);
+        assertThat(matcher.match("Market", AMOUNT, "expense", null)).isEqualTo(20L);
+        assertThat(matcher.match("Transfer", AMOUNT, "expense", null)).isNull();
+    }
+
+    @Test
+    void matchesNonAsciiKeywords() {
+        RuleMatcher matcher = RuleMatcher.compile(List.of(rule(1L, "Café", 10L, "expense")));
+
+        assertThat(matcher.match("Le CAFÉ du coin", AMOUNT, "expense", null)).isEqualTo(10L);
+        assertThat(matcher.match("Cafe", AMOUNT, "expense", null)).isNull();
+    }
+
+    @Test
+    void emptyMatcherMatchesNothing() {
+        assertThat(RuleMatcher.EMPTY.size()).isZero();
+        assertThat(RuleMatcher.EMPTY.match("anything", AMOUNT, "expense", null)).isNull();
+    }
+
+    private static CategoryRule rule(Long id, String keyword, Long categoryId, String type) {
+        Category category = new Category("Category " + categoryId, type, null);
+        category.setId(categoryId);
+        CategoryRule rule = new CategoryRule(keyword, null, category);
+        rule.setId(id);
+        return rule;
+    }
+
+    private static Account account(Long id) {
+        Account account = new Account();
+        account.setId(id);
+        return account;
+    }
+}
@@ -0,0 +1,189 @@
+package com.expensetracker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private SingleFlight singleFlight;
+    private SimpleMeterRegistry meterRegistry;
+    private final AtomicInteger computations = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight();
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(singleFlight, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(singleFlight, "enabled", true);
+        ReflectionTestUtils.setField(singleFlight, "maxWaitMs", 10_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void callersArrivingDuringAComputationShareItsResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("count", 1L, () -> {
+            started.countDown();
+            await(release);
+            return computations.incrementAndGet();
+        }));
+        started.await();
+
+        AtomicReference<Thread> followerThread = new AtomicReference<>();
+        Future<Integer> follower = executor.submit(() -> {
+            followerThread.set(Thread.currentThread());
+            return singleFlight.execute("count", 1L, computations::incrementAndGet);
+        });
+        awaitBlocked(followerThread);
+        release.countDown();
+
+        assertThat(leader.get()).isEqualTo(1);
+        assertThat(follower.get()).isEqualTo(1);
+        assertThat(computations).hasValue(1);
+        assertThat(meterRegistry.counter("singleflight.coalesced", "query", "count").count()).isEqualTo(1);
+    }
+
+    @Test
+    void followersSeeTheLeadersFailure() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> leader = executor.submit(() -> singleFlight.<Integer>execute("count", 1L, () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        started.await();
+
+        AtomicReference<Thread> followerThread = new AtomicReference<>();
+        Future<Integer> follower = executor.submit(() -> {
+            followerThread.set(Thread.currentThread());
+            return singleFlight.execute("count", 1L, computations::incrementAndGet);
+        });
+        awaitBlocked(followerThread);
+        release.countDown();
+
+        assertThatThrownBy(leader::get).hasRootCauseMessage("database down");
+        assertThatThrownBy(follower::get).hasRootCauseMessage("database down");
+        assertThat(computations).hasValue(0);
+    }
+
+    @Test
+    void keysByParametersButTagsMetricsWithTheQueryAlone() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("spent", "3:2024-01", 1L, () -> {
+            started.countDown();
+            await(release);
+            return computations.incrementAndGet();
+        }));
+        started.await();
+
+        assertThat(singleFlight.execute("spent", "4:2024-01", 1L, () -> -1)).isEqualTo(-1);
+        AtomicReference<Thread> followerThread = new AtomicReference<>();
+        Future<Integer> follower = executor.submit(() -> {
+            followerThread.set(Thread.currentThread());
+            return singleFlight.execute("spent", "3:2024-01", 1L, computations::incrementAndGet);
+        });
+        awaitBlocked(followerThread);
+        release.countDown();
+
+        assertThat(follower.get()).isEqualTo(leader.get()).isEqualTo(1);
+        assertThat(meterRegistry.find("singleflight.coalesced").counters()).singleElement()
+                .satisfies(counter -> assertThat(counter.getId().getTag("query")).isEqualTo("spent"));
+    }
+
+    @Test
+    void completedComputationsAreNotReused() {
+        assertThat(singleFlight.execute("count", 1L, computations::incrementAndGet)).isEqualTo(1);
+        assertThat(singleFlight.execute("count", 1L, computations::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void otherUsersAndQueriesComputeIndependently() {
+        // Joining the computation in progress would wait on itself
+        int nested = singleFlight.execute("count", 1L, () -> {
+            computations.incrementAndGet();
+            int otherUser = singleFlight.execute("count", 2L, computations::incrementAndGet);
+            int otherQuery = singleFlight.execute("total", 1L, computations::incrementAndGet);
+            return otherUser * 10 + otherQuery;
+        });
+
+        assertThat(nested).isEqualTo(23);
+    }
+
+    @Test
+    void forgetDetachesTheUsersComputationsInProgress() {
+        int result = singleFlight.execute("count", 1L, () -> {
+            singleFlight.forget(1L);
+            // Starts afresh instead of joining the computation that predates the write
+            return singleFlight.execute("count", 1L, () -> 42);
+        });
+
+        assertThat(result).isEqualTo(42);
+    }
+
+    @Test
+    void waitersGiveUpOnAStuckLeaderAndComputeThemselves() throws Exception {
+        ReflectionTestUtils.setField(singleFlight, "maxWaitMs", 50L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("count", 1L, () -> {
+            started.countDown();
+            await(release);
+            return -1;
+        }));
+        started.await();
+
+        assertThat(singleFlight.execute("count", 1L, computations::incrementAndGet)).isEqualTo(1);
+        assertThat(meterRegistry.counter("singleflight.wait.timeout", "query", "count").count()).isEqualTo(1);
+        release.countDown();
+        assertThat(leader.get()).isEqualTo(-1);
+    }
+
+    @Test
+    void disabledComputesEveryCall() {
+        ReflectionTestUtils.setField(singleFlight, "enabled", false);
+
+        int result = singleFlight.execute("count", 1L, () -> {
+            computations.incrementAndGet();
+            return singleFlight.execute("count", 1L, computations::incrementAndGet);
+        });
+
+        assertThat(result).isEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Until the thread is parked waiting for the leader
+    private static void awaitBlocked(AtomicReference<Thread> thread) throws InterruptedException {
+        while (thread.get() == null || thread.get().getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.expensetracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Test
+    void splitsEdgesAndKeepsTheSubtreeOnBothSides() {
+        SuggestionTrie trie = new SuggestionTrie(30);
+        trie.add("Coffee shop", 1L, null, DAY);
+        trie.add("Coffee shop", 1L, null, DAY);
+        // Splits "coffee shop" at "coffee "
+        trie.add("Coffee beans", 2L, null, DAY);
+        // Splits "coffee " at "co", with an entry on the new inner node; a day newer than "coffee beans"
+        trie.add("Co", 3L, null, DAY.plusDays(1));
+
+        assertThat(descriptions(trie.suggest("c", 10))).containsExactly("Coffee shop", "Co", "Coffee beans");
+        assertThat(descriptions(trie.suggest("co", 10))).containsExactly("Coffee shop", "Co", "Coffee beans");
+        assertThat(descriptions(trie.suggest("cof", 10))).containsExactly("Coffee shop", "Coffee beans");
+        assertThat(descriptions(trie.suggest("coffee b", 10))).containsExactly("Coffee beans");
+        assertThat(descriptions(trie.suggest("coffee shop", 10))).containsExactly("Coffee shop");
+    }
+
+    @Test
+    void prefixesLeavingTheTrieSuggestNothing() {
+        SuggestionTrie trie = new SuggestionTrie(30);
+        trie.add("Coffee shop", 1L, null, DAY);
+        trie.add("Coffee beans", 2L, null, DAY);
+
+        assertThat(trie.suggest("cox", 10)).isEmpty();
+        assertThat(trie.suggest("coffee x", 10)).isEmpty();
+        assertThat(trie.suggest("coffee shopping", 10)).isEmpty();
+        assertThat(trie.suggest("tea", 10)).isEmpty();
+    }
+
+    @Test
+    void recentUseOutweighsOlderFrequentUse() {
+        SuggestionTrie trie = new SuggestionTrie(30);
+        trie.add("Coffee shop", 1L, null, DAY);
+        trie.add("Coffee shop", 1L, null, DAY);
+        trie.add("Coffee shop", 1L, null, DAY);
+        trie.add("Coffee beans", 2L, null, DAY);
+        assertThat(descriptions(trie.suggest("coffee", 10))).containsExactly("Coffee shop", "Coffee beans");
+
+        // Two half-lives later one use weighs four of the old ones
+        trie.add("Coffee beans", 2L, null, DAY.plusDays(60));
+        assertThat(descriptions(trie.suggest("coffee", 10))).containsExactly("Coffee beans", "Coffee shop");
+    }
+
+    @Test
+    void keepsTheLatestTextAndTheMostWeightedCategory() {
+        SuggestionTrie trie = new SuggestionTrie(30);
+        trie.add("  NETFLIX   subscription ", 1L, 5L, DAY);
+        trie.add("Netflix Subscription", 2L, 5L, DAY.plusDays(60));
+        trie.add("netflix subscription", 1L, null, DAY.minusDays(10));
+
+        List<SuggestionTrie.Suggestion> suggestions = trie.suggest("netflix s", 10);
+        assertThat(suggestions).hasSize(1);
+        SuggestionTrie.Suggestion suggestion = suggestions.get(0);
+        assertThat(suggestion.getDescription()).isEqualTo("Netflix Subscription");
+        assertThat(suggestion.getCategoryId()).isEqualTo(2L);
+        assertThat(suggestion.getAccountId()).isEqualTo(5L);
+        assertThat(suggestion.getUses()).isEqualTo(3);
+        assertThat(suggestion.getLastUsed()).isEqualTo(DAY.plusDays(60));
+    }
+
+    @Test
+    void limitsTheNumberOfSuggestions() {
+        SuggestionTrie trie = new SuggestionTrie(30);
+        for (int i = 0; i < SuggestionTrie.TOP_K + 5; i++) {
+            trie.add("Store " + i, null, null, DAY.plusDays(i));
+        }
+
+        assertThat(trie.suggest("store", 3)).hasSize(3);
+        assertThat(trie.suggest("store", 100)).hasSize(SuggestionTrie.TOP_K);
+        assertThat(trie.suggest("store", 1).get(0).getDescription()).isEqualTo("Store 14");
+    }
+
+    private static List<String> descriptions(List<SuggestionTrie.Suggestion> suggestions) {
+        return suggestions.stream().map(SuggestionTrie.Suggestion::getDescription).toList();
+    }
+}
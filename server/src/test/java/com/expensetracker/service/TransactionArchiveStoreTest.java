@@ -0,0 +1,191 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.ArchiveSegment;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.repository.ArchiveSegmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionArchiveStoreTest {
+
+    private static final LocalDate JAN = LocalDate.of(2020, 1, 1);
+    private static final LocalDate FEB = LocalDate.of(2020, 2, 1);
+
+    @TempDir
+    Path dir;
+
+    private TransactionArchiveStore store;
+    private final ArchiveSegmentRepository repository = mock(ArchiveSegmentRepository.class);
+    private long nextSegmentId = 1;
+
+    @BeforeEach
+    void setUp() {
+        store = new TransactionArchiveStore();
+        ReflectionTestUtils.setField(store, "archiveSegmentRepository", repository);
+        ReflectionTestUtils.setField(store, "archiveDir", dir.toString());
+        ReflectionTestUtils.setField(store, "cacheMaxRows", 1000L);
+        store.init();
+    }
+
+    @Test
+    void writesSegmentsNewestFirstWithTheirTotals() throws IOException {
+        ArchiveSegment segment = write(List.of(
+                transaction(1L, JAN, "expense", "10.00"),
+                transaction(3L, JAN.plusDays(2), "income", "100.00"),
+                transaction(2L, JAN.plusDays(2), "expense", "5.50")));
+
+        assertThat(segment.getFromDate()).isEqualTo(JAN);
+        assertThat(segment.getToDate()).isEqualTo(JAN.plusDays(2));
+        assertThat(segment.getRowCount()).isEqualTo(3);
+        assertThat(segment.getIncomeTotal()).isEqualByComparingTo("100.00");
+        assertThat(segment.getExpenseTotal()).isEqualByComparingTo("15.50");
+        assertThat(ids(store.read(segment))).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void slicesAcrossSegmentsInNewestFirstOrder() throws IOException {
+        ArchiveSegment january = write(rows(1, 5, JAN));
+        ArchiveSegment february = write(rows(6, 10, FEB));
+        List<ArchiveSegment> segments = List.of(february, january);
+
+        assertThat(ids(store.slice(segments, 0, 3))).containsExactly(10L, 9L, 8L);
+        assertThat(ids(store.slice(segments, 3, 4))).containsExactly(7L, 6L, 5L, 4L);
+        assertThat(ids(store.slice(segments, 8, 5))).containsExactly(2L, 1L);
+        assertThat(store.slice(segments, 10, 5)).isEmpty();
+        assertThat(store.slice(segments, 0, 0)).isEmpty();
+    }
+
+    @Test
+    void skipsSegmentsBeforeTheOffsetWithoutReadingThem() throws IOException {
+        ArchiveSegment january = write(rows(1, 5, JAN));
+        ArchiveSegment missing = new ArchiveSegment();
+        missing.setId(nextSegmentId++);
+        missing.setFromDate(FEB);
+        missing.setToDate(FEB);
+        missing.setRowCount(5);
+        missing.setFileName("missing.jsonl.gz");
+
+        assertThat(ids(store.slice(List.of(missing, january), 5, 2))).containsExactly(5L, 4L);
+    }
+
+    @Test
+    void mergesSegmentsWithOverlappingDates() throws IOException {
+        // A later run archived back-dated rows (ids 11-13) into the range of the January segment,
+        // and the February rows were split on a shared day
+        ArchiveSegment january = write(rows(1, 5, JAN));
+        ArchiveSegment backDated = write(List.of(
+                transaction(11L, JAN.plusDays(1), "expense", "1.00"),
+                transaction(12L, JAN.plusDays(3), "expense", "1.00"),
+                transaction(13L, JAN.plusDays(3), "expense", "1.00")));
+        ArchiveSegment februaryEnd = write(List.of(
+                transaction(8L, FEB, "expense", "1.00"),
+                transaction(9L, FEB.plusDays(1), "expense", "1.00")));
+        ArchiveSegment februaryStart = write(List.of(
+                transaction(6L, FEB, "expense", "1.00"),
+                transaction(7L, FEB, "expense", "1.00")));
+        // In repository order: last date, then first date, descending
+        List<ArchiveSegment> segments = List.of(februaryEnd, februaryStart, january, backDated);
+
+        assertThat(ids(store.slice(segments, 0, 20)))
+                .containsExactly(9L, 8L, 7L, 6L, 5L, 13L, 12L, 4L, 3L, 11L, 2L, 1L);
+        assertThat(ids(store.slice(segments, 3, 4))).containsExactly(6L, 5L, 13L, 12L);
+        assertThat(ids(store.slice(segments, 11, 4))).containsExactly(1L);
+    }
+
+    @Test
+    void iteratesOverlappingSegmentsNewestFirstWithinTheRange() throws IOException {
+        ArchiveSegment january = write(rows(1, 5, JAN));
+        ArchiveSegment backDated = write(List.of(
+                transaction(11L, JAN.plusDays(1), "expense", "1.00"),
+                transaction(12L, JAN.plusDays(3), "expense", "1.00")));
+        ArchiveSegment february = write(rows(6, 7, FEB));
+        ArchiveSegment missing = new ArchiveSegment();
+        missing.setId(nextSegmentId++);
+        missing.setFromDate(FEB);
+        missing.setToDate(FEB);
+        missing.setRowCount(5);
+        missing.setFileName("missing.jsonl.gz");
+
+        List<Long> all = new ArrayList<>();
+        store.newestFirst(List.of(february, january, backDated), null, null)
+                .forEachRemaining(transaction -> all.add(transaction.getId()));
+        assertThat(all).containsExactly(7L, 6L, 5L, 12L, 4L, 3L, 11L, 2L, 1L);
+
+        // Segments outside the range are not read
+        List<Long> january31 = new ArrayList<>();
+        store.newestFirst(List.of(missing, january, backDated), null, JAN.plusDays(30))
+                .forEachRemaining(transaction -> january31.add(transaction.getId()));
+        assertThat(january31).containsExactly(5L, 12L, 4L, 3L, 11L, 2L, 1L);
+    }
+
+    @Test
+    void skipsTheSegmentLookupUntilASegmentExists() throws IOException {
+        assertThat(store.segments(7L)).isEmpty();
+        verify(repository, never()).findByUserIdOrderByToDateDescFromDateDescIdDesc(any());
+
+        ArchiveSegment segment = write(rows(1, 1, JAN));
+        when(repository.findByUserIdOrderByToDateDescFromDateDescIdDesc(7L)).thenReturn(List.of(segment));
+        assertThat(store.segments(7L)).containsExactly(segment);
+    }
+
+    @Test
+    void refusesCorruptedSegments() throws IOException {
+        ArchiveSegment segment = write(rows(1, 5, JAN));
+        Path file = dir.resolve(segment.getFileName());
+        file.toFile().setWritable(true);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> store.read(segment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("corrupted");
+    }
+
+    private ArchiveSegment write(List<Transaction> rows) throws IOException {
+        ArchiveSegment segment = store.write(7L, rows);
+        segment.setId(nextSegmentId++);
+        return segment;
+    }
+
+    // One row per day starting at the given date, ids ascending with the date
+    private static List<Transaction> rows(long fromId, long toId, LocalDate start) {
+        List<Transaction> rows = new ArrayList<>();
+        for (long id = fromId; id <= toId; id++) {
+            rows.add(transaction(id, start.plusDays(id - fromId), "expense", "1.00"));
+        }
+        return rows;
+    }
+
+    private static Transaction transaction(Long id, LocalDate date, String type, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setDescription("Row " + id);
+        transaction.setTransactionDate(date);
+        transaction.setType(type);
+        transaction.setAmount(new BigDecimal(amount));
+        return transaction;
+    }
+
+    private static List<Long> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.ArchiveSegment;
+import com.expensetracker.repository.TransactionFilter;
+import com.expensetracker.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionQueryPlannerTest {
+
+    private static final Long USER = 1L;
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final TransactionArchiveStore archiveStore = mock(TransactionArchiveStore.class);
+    private final VersionedCache versionedCache = mock(VersionedCache.class);
+    private final List<Object[]> statistics = new ArrayList<>();
+    private TransactionQueryPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        planner = new TransactionQueryPlanner();
+        ReflectionTestUtils.setField(planner, "transactionRepository", transactionRepository);
+        ReflectionTestUtils.setField(planner, "archiveStore", archiveStore);
+        ReflectionTestUtils.setField(planner, "versionedCache", versionedCache);
+        ReflectionTestUtils.setField(planner, "maxFanout", 8);
+        when(versionedCache.get(any(), anyString(), anyString(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(3)).get());
+        when(transactionRepository.countByUserIdGroupedForFilter(USER)).thenReturn(statistics);
+        when(archiveStore.segments(USER)).thenReturn(List.of());
+    }
+
+    @Test
+    void resolvesTextThroughTheSearchIndex() {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setText("coffee");
+
+        assertThat(planner.plan(USER, filter, 20)).isEqualTo(TransactionQueryPlanner.Shape.ID_LOOKUP);
+    }
+
+    @Test
+    void fansOutOverRareCategoriesOfALargeHistory() {
+        cell(1L, 1L, "expense", 2024, 1, 10_000);
+        cell(2L, 1L, "expense", 2024, 1, 50);
+        cell(3L, 1L, "expense", 2024, 1, 50);
+        TransactionFilter filter = new TransactionFilter();
+        filter.setCategoryIds(List.of(2L, 3L));
+
+        // A page of 20 costs about 21 rows per category, against 100 for reading and sorting them all
+        assertThat(planner.plan(USER, filter, 20)).isEqualTo(TransactionQueryPlanner.Shape.CATEGORY_FANOUT);
+        // A page that takes every match is cheapest as a single query
+        assertThat(planner.plan(USER, filter, 100)).isEqualTo(TransactionQueryPlanner.Shape.SINGLE);
+    }
+
+    @Test
+    void fansOutOverAccountsTheSameWay() {
+        cell(1L, 1L, "expense", 2024, 1, 10_000);
+        cell(1L, 2L, "expense", 2024, 1, 50);
+        cell(1L, 3L, "expense", 2024, 1, 50);
+        TransactionFilter filter = new TransactionFilter();
+        filter.setAccountIds(List.of(2L, 3L));
+
+        assertThat(planner.plan(USER, filter, 20)).isEqualTo(TransactionQueryPlanner.Shape.ACCOUNT_FANOUT);
+    }
+
+    @Test
+    void keepsCommonCategoriesAndLongListsInOneQuery() {
+        cell(1L, 1L, "expense", 2024, 1, 5_000);
+        cell(2L, 1L, "expense", 2024, 1, 5_000);
+        TransactionFilter common = new TransactionFilter();
+        common.setCategoryIds(List.of(1L, 2L));
+        assertThat(planner.plan(USER, common, 20)).isEqualTo(TransactionQueryPlanner.Shape.SINGLE);
+
+        for (long category = 3; category <= 12; category++) {
+            cell(category, 1L, "expense", 2024, 1, 10);
+        }
+        TransactionFilter tooMany = new TransactionFilter();
+        tooMany.setCategoryIds(LongStream.rangeClosed(3, 12).boxed().collect(Collectors.toList()));
+        assertThat(planner.plan(USER, tooMany, 5)).isEqualTo(TransactionQueryPlanner.Shape.SINGLE);
+    }
+
+    @Test
+    void estimatesPartialMonthsAndSkipsOtherTypes() {
+        cell(1L, 1L, "expense", 2024, 1, 31);
+        cell(1L, 1L, "income", 2024, 1, 62);
+        TransactionFilter filter = new TransactionFilter();
+        filter.setTypes(List.of("expense"));
+        filter.setStartDate(LocalDate.of(2024, 1, 1));
+        filter.setEndDate(LocalDate.of(2024, 1, 10));
+
+        assertThat(planner.estimate(USER, filter)).isEqualTo(10);
+
+        filter.setIds(List.of(5L, 6L));
+        assertThat(planner.estimate(USER, filter)).isEqualTo(2);
+    }
+
+    @Test
+    void scalesArchivedRowsByTheDateOverlapAndTheCurrentSelectivity() {
+        cell(1L, 1L, "expense", 2024, 1, 50);
+        cell(2L, 1L, "expense", 2024, 1, 50);
+        ArchiveSegment segment = new ArchiveSegment();
+        segment.setFromDate(LocalDate.of(2020, 1, 1));
+        segment.setToDate(LocalDate.of(2020, 12, 31));
+        segment.setRowCount(100);
+        when(archiveStore.segments(USER)).thenReturn(List.of(segment));
+
+        TransactionFilter filter = new TransactionFilter();
+        filter.setCategoryIds(List.of(1L));
+        // Half of the current rows are in the category, so half of the archived ones are assumed to be
+        assertThat(planner.estimate(USER, filter)).isEqualTo(50 + 50);
+
+        // 182 of the segment's 366 days
+        filter.setStartDate(LocalDate.of(2020, 1, 1));
+        filter.setEndDate(LocalDate.of(2020, 6, 30));
+        assertThat(planner.estimate(USER, filter)).isEqualTo(25);
+    }
+
+    private void cell(Long categoryId, Long accountId, String type, int year, int month, long count) {
+        statistics.add(new Object[]{categoryId, accountId, type, year, month, count});
+    }
+}
@@ -0,0 +1,114 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.ArchiveSegment;
+import com.expensetracker.entity.Transaction;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.TransactionFilter;
+import com.expensetracker.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionStreamServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2020, 3, 1);
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final TransactionArchiveStore archiveStore = mock(TransactionArchiveStore.class);
+    private final List<ArchiveSegment> segments = List.of(new ArchiveSegment());
+    private TransactionStreamService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        service = new TransactionStreamService();
+        ReflectionTestUtils.setField(service, "transactionRepository", transactionRepository);
+        ReflectionTestUtils.setField(service, "archiveStore", archiveStore);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "fetchSize", 100);
+        user = new User();
+        user.setId(7L);
+        when(archiveStore.segments(7L)).thenReturn(segments);
+    }
+
+    @Test
+    void mergesBackDatedCurrentRowsWithTheArchiveNewestFirst() throws IOException {
+        // Ids 20 and 21 were entered after the older rows were archived
+        current(tuple(30L, DAY.plusDays(9)), tuple(21L, DAY.plusDays(2)), tuple(20L, DAY));
+        archived(transaction(12L, DAY.plusDays(3)), transaction(11L, DAY.plusDays(2)),
+                transaction(10L, DAY.plusDays(1)), transaction(9L, DAY));
+
+        assertThat(stream(new TransactionFilter(), 100)).containsExactly(30L, 12L, 21L, 11L, 10L, 20L, 9L);
+        assertThat(stream(new TransactionFilter(), 4)).containsExactly(30L, 12L, 21L, 11L);
+    }
+
+    @Test
+    void appliesTheFilterToArchivedRows() throws IOException {
+        current(tuple(30L, DAY.plusDays(9)));
+        Transaction income = transaction(12L, DAY.plusDays(3));
+        income.setType("income");
+        archived(income, transaction(11L, DAY.plusDays(2)));
+        TransactionFilter filter = new TransactionFilter();
+        filter.setTypes(List.of("expense"));
+
+        assertThat(stream(filter, 100)).containsExactly(30L, 11L);
+    }
+
+    private List<Long> stream(TransactionFilter filter, int limit) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        long written = service.stream(user, filter, limit, null, row -> ids.add(row.getId()));
+        assertThat(written).isEqualTo(ids.size());
+        return ids;
+    }
+
+    private void current(Tuple... rows) {
+        when(transactionRepository.streamFilteredColumns(eq(7L), any(), any(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> Stream.of(rows));
+    }
+
+    private void archived(Transaction... rows) {
+        when(archiveStore.newestFirst(eq(segments), any(), any())).thenAnswer(invocation -> List.of(rows).iterator());
+    }
+
+    private static Tuple tuple(Long id, LocalDate date) {
+        TupleElement<?> idElement = element("id");
+        TupleElement<?> dateElement = element("transactionDate");
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.getElements()).thenReturn(List.of(idElement, dateElement));
+        when(tuple.get(0)).thenReturn(id);
+        when(tuple.get(1)).thenReturn(date);
+        when(tuple.get("id", Long.class)).thenReturn(id);
+        when(tuple.get("transactionDate", LocalDate.class)).thenReturn(date);
+        return tuple;
+    }
+
+    private static TupleElement<?> element(String alias) {
+        TupleElement<?> element = mock(TupleElement.class);
+        when(element.getAlias()).thenReturn(alias);
+        return element;
+    }
+
+    private static Transaction transaction(Long id, LocalDate date) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setTransactionDate(date);
+        transaction.setType("expense");
+        return transaction;
+    }
+}
@@ -0,0 +1,90 @@
+package com.expensetracker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionedCacheTest {
+
+    private VersionedCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new VersionedCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxGroups", 100L);
+        ReflectionTestUtils.setField(cache, "expireMinutes", 10L);
+        cache.init();
+    }
+
+    @Test
+    void servesCachedValuesUntilInvalidated() {
+        assertThat(get(1L, "categories")).isEqualTo(1);
+        assertThat(get(1L, "categories")).isEqualTo(1);
+
+        cache.invalidate(new InvalidationMessage(1L, "categories"));
+        assertThat(get(1L, "categories")).isEqualTo(2);
+        assertThat(get(1L, "categories")).isEqualTo(2);
+    }
+
+    @Test
+    void everyInvalidationEvictsDuplicatesIncluded() {
+        get(1L, "categories");
+        cache.invalidate(new InvalidationMessage(1L, "categories"));
+        assertThat(get(1L, "categories")).isEqualTo(2);
+
+        // A late or repeated message may still be the only notice of a later write
+        cache.invalidate(new InvalidationMessage(1L, "categories"));
+        assertThat(get(1L, "categories")).isEqualTo(3);
+    }
+
+    @Test
+    void valuesLoadedAcrossAnInvalidationAreNotCached() {
+        Integer value = cache.get(1L, "categories", "all", () -> {
+            int load = loads.incrementAndGet();
+            // The write lands while the old value is being read
+            cache.invalidate(new InvalidationMessage(1L, "categories"));
+            return load;
+        });
+        assertThat(value).isEqualTo(1);
+
+        assertThat(get(1L, "categories")).isEqualTo(2);
+        assertThat(get(1L, "categories")).isEqualTo(2);
+    }
+
+    @Test
+    void invalidationsOnlyEvictTheirOwnUserAndFamily() {
+        get(1L, "categories");
+        get(1L, "accounts");
+        get(2L, "categories");
+
+        cache.invalidate(new InvalidationMessage(1L, "categories"));
+
+        assertThat(get(1L, "categories")).isEqualTo(4);
+        assertThat(get(1L, "accounts")).isEqualTo(2);
+        assertThat(get(2L, "categories")).isEqualTo(3);
+    }
+
+    @Test
+    void invalidationsWithoutAUserEvictTheFamilyForEveryone() {
+        get(1L, "categories");
+        get(2L, "categories");
+        get(1L, "accounts");
+
+        cache.invalidate(new InvalidationMessage(null, "categories"));
+
+        assertThat(get(1L, "categories")).isEqualTo(4);
+        assertThat(get(2L, "categories")).isEqualTo(5);
+        assertThat(get(1L, "accounts")).isEqualTo(3);
+    }
+
+    private Integer get(Long userId, String family) {
+        return cache.get(userId, family, "all", loads::incrementAndGet);
+    }
+}